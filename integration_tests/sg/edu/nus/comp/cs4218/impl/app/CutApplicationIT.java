@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
@@ -112,6 +113,7 @@ public class CutApplicationIT {
             InputStream mockStdin = mock(InputStream.class);
             OutputStream mockStdout = mock(OutputStream.class);
             doThrow(new IOException()).when(mockStdout).write(any(byte[].class));
+            doThrow(new IOException()).when(mockStdout).write(any(byte[].class), anyInt(), anyInt());
             app.run(args, mockStdin, mockStdout);
         });
         String expected = "cut: Could not write to output stream";
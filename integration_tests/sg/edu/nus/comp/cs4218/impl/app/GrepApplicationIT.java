@@ -27,6 +27,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -581,4 +582,253 @@ class GrepApplicationIT {
             assertEquals(expectedContent, stdout.toString());
         }
     }
+
+    @Nested
+    class Recursive {
+        private static final String FLAG_R = "-r";
+
+        @BeforeEach
+        void setUp() throws IOException {
+            Path dir = Files.createDirectories(tempDir.resolve("dir"));
+            Files.createDirectories(dir.resolve("b").resolve("c"));
+            Files.writeString(dir.resolve("z.txt"), INPUT_CONTENTS);
+            Files.writeString(dir.resolve("a.md"), INPUT_CONTENTS);
+            Files.writeString(dir.resolve("b").resolve("c").resolve("x.txt"), INPUT_CONTENTS);
+            Files.write(dir.resolve("b").resolve("bin.txt"), new byte[]{'a', 'b', 0, '\n'});
+        }
+
+        @Test
+        void run_DirectoryWithRFlag_ReturnsMatchingLinesOfTextFilesInPathOrder() {
+            String[] args = new String[]{FLAG_R, VALID_PAT_SMALL, "dir"};
+            String expected = String.join(STRING_NEWLINE,
+                    getValidOutputArrWithFileName("dir/a.md", "dir/b/c/x.txt", "dir/z.txt")) + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        void run_DirectoryWithRFlagAndCFlag_ReturnsCountsOfFilesInPathOrder() {
+            String[] args = new String[]{FLAG_R, FLAG_C, VALID_PAT_SMALL, "dir/b", fileOneName};
+            String expected = "dir/b/c/x.txt: 2" + STRING_NEWLINE + fileOneName + ": 2" + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        void run_DirectoryWithIncludeAndExclude_ReturnsMatchingLinesOfSelectedFiles() {
+            String[] args = new String[]{FLAG_R, "--include=*.txt", "--exclude=z*", VALID_PAT_SMALL, "dir"};
+            String expected = String.join(STRING_NEWLINE, getValidOutputArrWithFileName("dir/b/c/x.txt"))
+                    + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        void run_DirectoryWithoutRFlag_ReturnsDirectoryError() {
+            String[] args = new String[]{VALID_PAT_SMALL, "dir"};
+            String expected = GREP_STRING + "dir" + COLON_SPACE + GrepApplication.IS_DIRECTORY + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        @DisabledOnOs(OS.WINDOWS)
+        void run_SymbolicLinksInDirectory_FollowedWithoutLoopsOnlyWithCapitalRFlag() throws IOException {
+            Files.createSymbolicLink(tempDir.resolve("dir").resolve("b").resolve("link"), fileOne);
+            Files.createSymbolicLink(tempDir.resolve("dir").resolve("b").resolve("loop"), tempDir.resolve("dir"));
+            String expected = String.join(STRING_NEWLINE,
+                    getValidOutputArrWithFileName("dir/b/c/x.txt", "dir/b/link", "dir/b/loop/a.md",
+                            "dir/b/loop/z.txt")) + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(new String[]{"-R", VALID_PAT_SMALL, "dir/b"}, stdin, stdout));
+            assertEquals(expected, stdout.toString());
+
+            OutputStream output = new ByteArrayOutputStream();
+            assertDoesNotThrow(() -> app.run(new String[]{FLAG_R, VALID_PAT_SMALL, "dir/b"}, stdin, output));
+            assertEquals(String.join(STRING_NEWLINE, getValidOutputArrWithFileName("dir/b/c/x.txt"))
+                    + STRING_NEWLINE, output.toString());
+        }
+    }
+
+    @Nested
+    class EarlyExit {
+        private static final String NO_MATCH_FILE = "noMatch";
+
+        @BeforeEach
+        void setUp() throws IOException {
+            Files.writeString(tempDir.resolve(NO_MATCH_FILE), joinStringsByNewline("x", "y"));
+        }
+
+        /**
+         * Returns stdin holding the input contents, which fails if it is read any further.
+         */
+        private InputStream failingAfterContents() {
+            InputStream failing = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("read past the contents");
+                }
+            };
+            return new SequenceInputStream(
+                    new ByteArrayInputStream(INPUT_CONTENTS.getBytes(StandardCharsets.UTF_8)), failing);
+        }
+
+        @Test
+        void run_MFlag_ReturnsFirstMatchingLinesOfEachFile() {
+            String[] args = new String[]{"-m", "1", VALID_PAT_SMALL, fileOneName, NO_MATCH_FILE, fileOneName};
+            String expected = fileOneName + COLON_SPACE + OUTPUT_CONTENTS[0] + STRING_NEWLINE
+                    + fileOneName + COLON_SPACE + OUTPUT_CONTENTS[0] + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        void run_MFlagAndCFlag_ReturnsCountsUpToMaxCount() {
+            String[] args = new String[]{FLAG_C, "-m1", VALID_PAT_SMALL, fileOneName, NO_MATCH_FILE};
+            String expected = fileOneName + ": 1" + STRING_NEWLINE + NO_MATCH_FILE + ": 0" + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        void run_LFlags_ReturnsNamesOfFilesWithAndWithoutMatch() {
+            assertDoesNotThrow(() ->
+                    app.run(new String[]{"-l", VALID_PAT_SMALL, fileOneName, NO_MATCH_FILE, DASH}, stdin, stdout));
+            assertEquals(fileOneName + STRING_NEWLINE + STRING_STDIN_OUT + STRING_NEWLINE, stdout.toString());
+
+            OutputStream output = new ByteArrayOutputStream();
+            assertDoesNotThrow(() ->
+                    app.run(new String[]{"-L", VALID_PAT_SMALL, fileOneName, NO_MATCH_FILE}, stdin, output));
+            assertEquals(NO_MATCH_FILE + STRING_NEWLINE, output.toString());
+        }
+
+        @Test
+        void run_QFlag_ReturnsNothingAndStopsAtFirstMatch() {
+            String[] args = new String[]{"-q", VALID_PAT_SMALL, NO_MATCH_FILE, DASH, "nonExistentFile"};
+
+            assertDoesNotThrow(() -> app.run(args, failingAfterContents(), stdout));
+
+            assertEquals("", stdout.toString());
+        }
+
+        @Test
+        void run_ZeroMaxCountAndLFlags_NoFileHasMatch() {
+            String[] args = new String[]{"-l", "-m0", VALID_PAT_SMALL, fileOneName};
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+            assertEquals("", stdout.toString());
+
+            OutputStream output = new ByteArrayOutputStream();
+            assertDoesNotThrow(() ->
+                    app.run(new String[]{"-L", "-m0", VALID_PAT_SMALL, fileOneName}, stdin, output));
+            assertEquals(fileOneName + STRING_NEWLINE, output.toString());
+        }
+
+        @Test
+        void run_ZeroMaxCountAndQFlag_ReturnsNothing() {
+            String[] args = new String[]{"-q", "-m0", VALID_PAT_SMALL, DASH};
+
+            assertDoesNotThrow(() -> app.run(args, failingAfterContents(), stdout));
+
+            assertEquals("", stdout.toString());
+        }
+
+        @Test
+        void run_MFlagAndLFlagOnStdin_StopReadingAtMatch() {
+            assertDoesNotThrow(() -> app.run(new String[]{"-m", "1", "aab"}, failingAfterContents(), stdout));
+            assertEquals(OUTPUT_CONTENTS[0] + STRING_NEWLINE, stdout.toString());
+
+            OutputStream output = new ByteArrayOutputStream();
+            assertDoesNotThrow(() -> app.run(new String[]{"-l", VALID_PAT_SMALL}, failingAfterContents(), output));
+            assertEquals(STRING_STDIN_OUT + STRING_NEWLINE, output.toString());
+        }
+
+        @Test
+        void run_InvalidMaxCount_ThrowsGrepException() {
+            GrepException result = assertThrowsExactly(GrepException.class, () ->
+                    app.run(new String[]{"-m", "x", VALID_PAT_SMALL, fileOneName}, stdin, stdout));
+
+            assertEquals(GREP_STRING + GrepApplication.ERR_INVALID_MAX_COUNT, result.getMessage());
+        }
+
+        @Test
+        void run_SmallChunkSizes_SameOutputAsWholeFile() throws IOException {
+            StringBuilder contents = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                contents.append(i % 7 == 0 ? "aab " : "xyz ").append(i).append(STRING_NEWLINE);
+            }
+            Files.writeString(tempDir.resolve("chunked.txt"), contents);
+            assertDoesNotThrow(() -> app.run(new String[]{"aab", "chunked.txt"}, stdin, stdout));
+
+            OutputStream output = new ByteArrayOutputStream();
+            String[] args = {"--chunk-min-size=0", "--chunk-size=64", "aab", "chunked.txt"};
+            assertDoesNotThrow(() -> app.run(args, stdin, output));
+            assertEquals(stdout.toString(), output.toString());
+        }
+    }
+
+    @Nested
+    class MultiplePatterns {
+        private static final String PATTERN_FILE = "patterns.txt";
+
+        @BeforeEach
+        void setUp() throws IOException {
+            Files.writeString(tempDir.resolve(PATTERN_FILE), joinStringsByNewline("X", "zz"));
+        }
+
+        @Test
+        void run_EFlags_ReturnsLinesMatchingAnyPatternTakingFirstArgumentAsFile() {
+            String[] args = new String[]{"-e", "aab", "-ex", fileOneName};
+
+            assertDoesNotThrow(() -> app.run(args, stdin, stdout));
+
+            assertEquals(joinStringsByNewline("aabb", "x") + STRING_NEWLINE, stdout.toString());
+        }
+
+        @Test
+        void run_FFlagAndEFlagWithCaseInsensitive_ReturnsLinesMatchingAnyPattern() {
+            String[] args = new String[]{"-i", "-c", "-f", PATTERN_FILE, "-e", "a+b$", fileOneName, DASH};
+            String expected = fileOneName + ": 2" + STRING_NEWLINE + STRING_STDIN_OUT + ": 0" + STRING_NEWLINE;
+
+            assertDoesNotThrow(() -> app.run(args, new ByteArrayInputStream("ABC".getBytes()), stdout));
+
+            assertEquals(expected, stdout.toString());
+        }
+
+        @Test
+        void run_EmptyPatternFile_ReturnsNoLines() throws IOException {
+            Files.writeString(tempDir.resolve(PATTERN_FILE), "");
+
+            assertDoesNotThrow(() -> app.run(new String[]{"-f", PATTERN_FILE, fileOneName}, stdin, stdout));
+
+            assertEquals("", stdout.toString());
+        }
+
+        @Test
+        void run_NonExistentPatternFile_ThrowsGrepException() {
+            GrepException result = assertThrowsExactly(GrepException.class, () ->
+                    app.run(new String[]{"-f", "nonExistentFile", fileOneName}, stdin, stdout));
+
+            assertEquals(GREP_STRING + "nonExistentFile: " + ERR_FILE_NOT_FOUND, result.getMessage());
+        }
+
+        @Test
+        void run_EmptyPatternOption_ThrowsGrepException() {
+            GrepException result = assertThrowsExactly(GrepException.class, () ->
+                    app.run(new String[]{"-e", VALID_PAT_SMALL, "-e", "", fileOneName}, stdin, stdout));
+
+            assertEquals(GREP_STRING + ERR_EMPTY_PATTERN, result.getMessage());
+        }
+    }
 }
@@ -6,15 +6,24 @@ import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.Mockito.mock;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import sg.edu.nus.comp.cs4218.exception.UniqException;
 
@@ -30,6 +39,17 @@ public class UniqApplicationIT {
     private UniqApplication app;
     private ByteArrayOutputStream outputStream;
 
+    private static Stream<Arguments> countAllOrders() {
+        return Stream.of(
+                Arguments.of("--count-all", "2 " + STR_HELLO_WORLD + STRING_NEWLINE + "3 " + STR_ALICE
+                        + STRING_NEWLINE + "2 " + STR_BOB + STRING_NEWLINE),
+                Arguments.of("--count-all=count", "2 " + STR_BOB + STRING_NEWLINE + "2 " + STR_HELLO_WORLD
+                        + STRING_NEWLINE + "3 " + STR_ALICE + STRING_NEWLINE),
+                Arguments.of("--count-all=key", "3 " + STR_ALICE + STRING_NEWLINE + "2 " + STR_BOB
+                        + STRING_NEWLINE + "2 " + STR_HELLO_WORLD + STRING_NEWLINE)
+        );
+    }
+
     @BeforeEach
     void setUp() {
         app = new UniqApplication();
@@ -147,4 +167,124 @@ public class UniqApplicationIT {
         final String expected = "uniq: printing all duplicated lines and repeat counts is meaningless";
         assertEquals(expected, result.getMessage());
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"--global", "--bloom=0.01"})
+    void run_GlobalOption_FirstOccurrenceOfEveryLine(String option) {
+        // Given
+        final String[] args = {option, TEST_INPUT_FILE};
+        final String expected = STR_HELLO_WORLD + STRING_NEWLINE +
+                STR_ALICE + STRING_NEWLINE +
+                STR_BOB + STRING_NEWLINE;
+
+        assertDoesNotThrow(() -> app.run(args, mock(InputStream.class), outputStream)); // When
+        assertEquals(expected, outputStream.toString()); // Then
+    }
+
+    @Test
+    void run_GlobalAndCountFlags_ThrowsUniqException() {
+        // Given
+        final String[] args = {"--global", "-c", TEST_INPUT_FILE};
+
+        // When
+        UniqException result = assertThrowsExactly(UniqException.class, () ->
+                app.run(args, mock(InputStream.class), mock(OutputStream.class))
+        );
+
+        // Then
+        assertEquals("uniq: --global cannot be combined with -c, -d or -D", result.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("countAllOrders")
+    void run_CountAllOption_CountOfEveryDistinctLine(String option, String expected) {
+        // Given
+        final String[] args = {option, TEST_INPUT_FILE};
+
+        assertDoesNotThrow(() -> app.run(args, mock(InputStream.class), outputStream)); // When
+        assertEquals(expected, outputStream.toString()); // Then
+    }
+
+    @Test
+    void run_CountAllOptionWithOutputFile_NoTrailingNewline(@TempDir Path target) {
+        // Given
+        final String outputFile = target.resolve("output.txt").toString();
+        final String[] args = {"--count-all=key", "-", outputFile};
+        final InputStream stdin = new ByteArrayInputStream("b\na\nb\n".getBytes());
+
+        // When
+        assertDoesNotThrow(() -> app.run(args, stdin, outputStream));
+
+        // Then
+        final String expected = "1 a" + STRING_NEWLINE + "2 b";
+        assertEquals(expected, assertDoesNotThrow(() -> Files.readString(Path.of(outputFile))));
+        assertEquals("", outputStream.toString());
+    }
+
+    @Test
+    void run_CountAllAndAllDuplicatesFlags_ThrowsUniqException() {
+        // Given
+        final String[] args = {"--count-all", "-D", TEST_INPUT_FILE};
+
+        // When
+        UniqException result = assertThrowsExactly(UniqException.class, () ->
+                app.run(args, mock(InputStream.class), mock(OutputStream.class))
+        );
+
+        // Then
+        assertEquals("uniq: --count-all cannot be combined with -d, -D or --global", result.getMessage());
+    }
+
+    @Test
+    void run_SkipFieldsFlag_LinesWithSameMessageGrouped() {
+        // Given
+        final String[] args = {"-c", "-f", "1"};
+        final InputStream stdin = new ByteArrayInputStream(
+                "10:01 started\n10:02 started\n10:03 stopped\n10:04 started\n".getBytes());
+        final String expected = "2 10:01 started" + STRING_NEWLINE +
+                "1 10:03 stopped" + STRING_NEWLINE +
+                "1 10:04 started" + STRING_NEWLINE;
+
+        assertDoesNotThrow(() -> app.run(args, stdin, outputStream)); // When
+        assertEquals(expected, outputStream.toString()); // Then
+    }
+
+    @Test
+    void run_IgnoreCaseAndAllDuplicatesFlags_EveryLineAsRead() {
+        // Given
+        final String[] args = {"-iD"};
+        final InputStream stdin = new ByteArrayInputStream("Alice\nALICE\nalice\nBob\nCarol\ncarol\n".getBytes());
+        final String expected = "Alice" + STRING_NEWLINE +
+                "ALICE" + STRING_NEWLINE +
+                "alice" + STRING_NEWLINE +
+                "Carol" + STRING_NEWLINE +
+                "carol" + STRING_NEWLINE;
+
+        assertDoesNotThrow(() -> app.run(args, stdin, outputStream)); // When
+        assertEquals(expected, outputStream.toString()); // Then
+    }
+
+    @Test
+    void run_SkipCharsAndCheckCharsFlags_ComparesRegion() {
+        // Given
+        final String[] args = {"-d", "-s2", "-w3"};
+        final InputStream stdin = new ByteArrayInputStream("a:abcX\nb:abcY\nc:xyz\n".getBytes());
+
+        assertDoesNotThrow(() -> app.run(args, stdin, outputStream)); // When
+        assertEquals("a:abcX" + STRING_NEWLINE, outputStream.toString()); // Then
+    }
+
+    @Test
+    void run_SkipFieldsAndGlobalFlags_ThrowsUniqException() {
+        // Given
+        final String[] args = {"--global", "-f1", TEST_INPUT_FILE};
+
+        // When
+        UniqException result = assertThrowsExactly(UniqException.class, () ->
+                app.run(args, mock(InputStream.class), mock(OutputStream.class))
+        );
+
+        // Then
+        assertEquals("uniq: -f, -s, -w and -i cannot be combined with --global or --count-all", result.getMessage());
+    }
 }
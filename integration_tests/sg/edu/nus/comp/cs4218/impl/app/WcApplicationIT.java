@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
@@ -96,6 +97,7 @@ public class WcApplicationIT {
             InputStream mockStdin = mock(InputStream.class);
             OutputStream mockStdout = mock(OutputStream.class);
             doThrow(new IOException()).when(mockStdout).write(any(byte[].class));
+            doThrow(new IOException()).when(mockStdout).write(any(byte[].class), anyInt(), anyInt());
             app.run(new String[]{fileA}, mockStdin, mockStdout);
         });
         String expected = "wc: Could not write to output stream";
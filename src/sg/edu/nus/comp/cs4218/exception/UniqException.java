@@ -7,6 +7,9 @@ public class UniqException extends AbstractApplicationException {
     public static final String PROB_UNIQ_STDIN = "Problem matching unique from stdin: ";
     public static final String COUNT_ALL_DUP_ERR = "printing all duplicated lines and repeat " +
             "counts is meaningless";
+    public static final String COUNT_ALL_ERR = "--count-all cannot be combined with -d, -D or --global";
+    public static final String COMPARE_ERR = "-f, -s, -w and -i cannot be combined with --global or --count-all";
+    public static final String GLOBAL_COUNT_ERR = "--global cannot be combined with -c, -d or -D";
 
     public UniqException(final String message) {
         super("uniq: " + message);
@@ -10,23 +10,22 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_STREAMS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.removeTrailingNewline;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import sg.edu.nus.comp.cs4218.app.CatInterface;
 import sg.edu.nus.comp.cs4218.exception.CatException;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.parser.CatArgsParser;
+import sg.edu.nus.comp.cs4218.impl.util.ByteLineReader;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 /**
  * The cat command concatenates its input arguments and writes the output on the standard output, or to an output file.
@@ -67,17 +66,11 @@ public class CatApplication implements CatInterface {
         final Boolean isLineNumber = parser.isLineNumber();
         final String[] files = listToArray(parser.getFiles());
 
-        StringBuilder output = new StringBuilder();
-        if (files.length == 0) {
-            output.append(catStdin(isLineNumber, stdin));
-        } else {
-            output.append(catFileAndStdin(isLineNumber, stdin, files));
-        }
-
-        try {
-            if (output.length() != 0) {
-                stdout.write(output.toString().getBytes());
-                stdout.write(STRING_NEWLINE.getBytes());
+        try (LineWriter writer = new LineWriter(stdout)) {
+            if (files.length == 0) {
+                writeStdin(isLineNumber, stdin, writer, true);
+            } else {
+                writeFileAndStdin(isLineNumber, stdin, writer, files);
             }
         } catch (IOException e) {
             throw new CatException(ERR_WRITE_STREAM, e);
@@ -99,28 +92,16 @@ public class CatApplication implements CatInterface {
             throw new CatException(ERR_NULL_ARGS);
         }
 
-        List<String> output = new ArrayList<>();
-        for (String file : fileName) {
-            File node = IOUtils.resolveFilePath(file).toFile();
-            if (!node.exists()) {
-                throw new CatException(String.format("'%s': %s", node.getName(), ERR_FILE_NOT_FOUND));
-            }
-            if (node.isDirectory()) {
-                throw new CatException(String.format("'%s': %s", node.getName(), ERR_IS_DIR));
-            }
-            if (!node.canRead()) {
-                throw new CatException(String.format("'%s': %s", node.getName(), ERR_READING_FILE));
-            }
-
-            try (InputStream input = IOUtils.openInputStream(file)) {
-                output.addAll(prefixLineNumber(isLineNumber, input));
-                IOUtils.closeInputStream(input);
-            } catch (ShellException | IOException e) {
-                throw new CatException(e.getMessage(), e);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            for (String file : fileName) {
+                writeFile(isLineNumber, file, writer, false);
             }
+        } catch (IOException e) {
+            throw new CatException(ERR_WRITE_STREAM, e);
         }
 
-        return String.join(STRING_NEWLINE, output);
+        return removeTrailingNewline(output.toString());
     }
 
 
@@ -138,14 +119,14 @@ public class CatApplication implements CatInterface {
             throw new CatException(ERR_NULL_STREAMS);
         }
 
-        List<String> output;
-        try {
-            output = prefixLineNumber(isLineNumber, stdin);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeStdin(isLineNumber, stdin, writer, false);
         } catch (IOException e) {
-            throw new CatException(ERR_IO_EXCEPTION, e);
+            throw new CatException(ERR_WRITE_STREAM, e);
         }
 
-        return String.join(STRING_NEWLINE, output);
+        return removeTrailingNewline(output.toString());
     }
 
     /**
@@ -159,40 +140,127 @@ public class CatApplication implements CatInterface {
      * @throws CatException
      */
     @Override
-    public String catFileAndStdin(Boolean isLineNumber, InputStream stdin, String... fileName) {
-        List<String> output = new ArrayList<>();
+    public String catFileAndStdin(Boolean isLineNumber, InputStream stdin, String... fileName) throws CatException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeFileAndStdin(isLineNumber, stdin, writer, fileName);
+        } catch (IOException e) {
+            throw new CatException(ERR_WRITE_STREAM, e);
+        }
+
+        return removeTrailingNewline(output.toString());
+    }
+
+    /**
+     * Writes the content of the standard input and specified files to {@code writer} as it is read.
+     * Errors for individual files are written in place of their content.
+     *
+     * @param isLineNumber Prefix lines with their corresponding line number starting from 1
+     * @param stdin        InputStream containing arguments from Stdin
+     * @param writer       LineWriter to write the output to
+     * @param fileName     Array of String of file names (including "-" for reading from stdin)
+     * @throws IOException If the output cannot be written
+     */
+    private void writeFileAndStdin(Boolean isLineNumber, InputStream stdin, LineWriter writer, String... fileName)
+            throws IOException {
         for (String file : fileName) {
             try {
                 if (("-").equals(file)) {
-                    output.add(catStdin(isLineNumber, stdin));
+                    writeStdin(isLineNumber, stdin, writer, true);
                 } else {
-                    output.add(catFiles(isLineNumber, file));
+                    writeFile(isLineNumber, file, writer, true);
                 }
             } catch (CatException e) {
-                output.add(e.getMessage());
+                writer.writeLine(e.getMessage());
             }
         }
+    }
+
+    /**
+     * Writes the content of the standard input to {@code writer}.
+     *
+     * @param isLineNumber     Prefix lines with their corresponding line number starting from 1
+     * @param stdin            InputStream containing arguments from Stdin
+     * @param writer           LineWriter to write the output to
+     * @param isSkipBlankInput Write nothing if the input is a single empty line
+     * @throws CatException If stdin is null or an error occurs while reading from it
+     * @throws IOException  If the output cannot be written
+     */
+    private void writeStdin(Boolean isLineNumber, InputStream stdin, LineWriter writer, boolean isSkipBlankInput)
+            throws CatException, IOException {
+        if (stdin == null) {
+            throw new CatException(ERR_NULL_STREAMS);
+        }
 
-        output.removeIf(String::isEmpty); // remove empty lines that represents cases of blank files
-        return String.join(STRING_NEWLINE, output);
+        writeLines(isLineNumber, new ByteLineReader(stdin), writer, isSkipBlankInput);
     }
 
     /**
-     * Reads lines from the specified {@code inputStream} and optionally
-     * prefixes each line with its corresponding line number.
+     * Writes the content of the specified file to {@code writer}.
      *
-     * @param isLineNumber Prefix lines with their corresponding line number starting from 1
-     * @param inputStream  InputStream to read lines from
-     * @return A {@link List} of strings where each line is optionally prefixed with
-     *         its line number (if {@code isLineNumber} is {@code true})
-     * @throws IOException
+     * @param isLineNumber     Prefix lines with their corresponding line number starting from 1
+     * @param file             Name of the file to read
+     * @param writer           LineWriter to write the output to
+     * @param isSkipBlankInput Write nothing if the file is a single empty line
+     * @throws CatException If the file does not exist, is a directory or is unreadable
+     * @throws IOException  If the output cannot be written
      */
-    private List<String> prefixLineNumber(Boolean isLineNumber, InputStream inputStream) throws IOException {
-        List<String> lines = IOUtils.getLinesFromInputStream(inputStream);
+    private void writeFile(Boolean isLineNumber, String file, LineWriter writer, boolean isSkipBlankInput)
+            throws CatException, IOException {
+        File node = IOUtils.resolveFilePath(file).toFile();
+        if (!node.exists()) {
+            throw new CatException(String.format("'%s': %s", node.getName(), ERR_FILE_NOT_FOUND));
+        }
+        if (node.isDirectory()) {
+            throw new CatException(String.format("'%s': %s", node.getName(), ERR_IS_DIR));
+        }
+        if (!node.canRead()) {
+            throw new CatException(String.format("'%s': %s", node.getName(), ERR_READING_FILE));
+        }
+
+        try (InputStream input = IOUtils.openInputStream(file)) {
+            writeLines(isLineNumber, new ByteLineReader(input), writer, isSkipBlankInput);
+            IOUtils.closeInputStream(input);
+        } catch (ShellException e) {
+            throw new CatException(e.getMessage(), e);
+        }
+    }
 
-        // Use IntStream.range to create an increasing sequence of numbers
-        return IntStream.range(0, lines.size())
-                .mapToObj(i -> (isLineNumber ? i + 1 + " " : "") + lines.get(i))
-                .collect(Collectors.toList());
+    /**
+     * Copies lines from {@code reader} to {@code writer}, optionally prefixing each line with its line number.
+     * Lines are copied as raw bytes without being decoded.
+     *
+     * @param isLineNumber     Prefix lines with their corresponding line number starting from 1
+     * @param reader           ByteLineReader to read lines from
+     * @param writer           LineWriter to write the lines to
+     * @param isSkipBlankInput Write nothing if the input is a single empty line
+     * @throws CatException If the input cannot be read
+     * @throws IOException  If the output cannot be written
+     */
+    private void writeLines(Boolean isLineNumber, ByteLineReader reader, LineWriter writer, boolean isSkipBlankInput)
+            throws CatException, IOException {
+        long lineNumber = 0;
+        while (readLine(reader)) {
+            lineNumber++;
+            if (lineNumber == 1 && isSkipBlankInput && !isLineNumber && reader.length() == 0) {
+                if (!readLine(reader)) {
+                    return;
+                }
+                writer.newLine();
+                lineNumber++;
+            }
+            if (isLineNumber) {
+                writer.writeLong(lineNumber).write(' ');
+            }
+            writer.writeLine(reader.buffer(), reader.offset(), reader.length());
+        }
+    }
+
+    private boolean readLine(ByteLineReader reader) throws CatException {
+        try {
+            return reader.nextLine();
+        } catch (IOException e) {
+            throw new CatException(ERR_IO_EXCEPTION, e);
+        }
     }
 }
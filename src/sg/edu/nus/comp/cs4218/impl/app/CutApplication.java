@@ -1,9 +1,8 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
-import static sg.edu.nus.comp.cs4218.impl.app.helper.CutApplicationHelper.cutSelectedPortions;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.CutApplicationHelper.writeSelectedPortions;
 import static sg.edu.nus.comp.cs4218.impl.util.CollectionsUtils.listToArray;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
-import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
@@ -12,21 +11,23 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_STREAMS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.removeTrailingNewline;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.ArrayList;
 import java.util.List;
 
 import sg.edu.nus.comp.cs4218.app.CutInterface;
 import sg.edu.nus.comp.cs4218.exception.CutException;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.SkipEmptyOutputStream;
 import sg.edu.nus.comp.cs4218.impl.parser.CutArgsParser;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 /**
  * The cut command cuts out selected portions of each line (as specified by list)
@@ -76,17 +77,12 @@ public class CutApplication implements CutInterface {
         final List<int[]> ranges = parser.getRangeList();
         final String[] files = listToArray(parser.getFileNames());
 
-        StringBuilder output = new StringBuilder();
-        if (files.length == 0) {
-            output.append(cutFromStdin(isCharPo, isBytePo, ranges, stdin));
-        } else {
-            output.append(cutFromFileAndStdin(isCharPo, isBytePo, ranges, stdin, files));
-        }
-
-        try {
-            if (output.length() != 0) {
-                stdout.write(output.toString().getBytes());
-                stdout.write(STRING_NEWLINE.getBytes());
+        validateCutFlags(isCharPo, isBytePo);
+        try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(stdout))) {
+            if (files.length == 0) {
+                writeFromStdin(isCharPo, isBytePo, ranges, stdin, writer);
+            } else {
+                writeFromFileAndStdin(isCharPo, isBytePo, ranges, stdin, writer, files);
             }
         } catch (IOException e) {
             throw new CutException(ERR_WRITE_STREAM, e);
@@ -112,28 +108,16 @@ public class CutApplication implements CutInterface {
             throw new CutException(ERR_NULL_ARGS);
         }
 
-        List<String> output = new ArrayList<>();
-        for (String file : fileName) {
-            File node = IOUtils.resolveFilePath(file).toFile();
-            if (!node.exists()) {
-                throw new CutException(String.format("'%s': %s", node.getName(), ERR_FILE_NOT_FOUND));
-            }
-            if (node.isDirectory()) {
-                throw new CutException(String.format("'%s': %s", node.getName(), ERR_IS_DIR));
-            }
-            if (!node.canRead()) {
-                throw new CutException(String.format("'%s': %s", node.getName(), ERR_READING_FILE));
-            }
-
-            try (InputStream input = IOUtils.openInputStream(file)) {
-                output.addAll(cutSelectedPortions(isCharPo, isBytePo, ranges, input));
-                IOUtils.closeInputStream(input);
-            } catch (ShellException | IOException e) {
-                throw new CutException(e.getMessage(), e);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            for (String file : fileName) {
+                writeFromFile(isCharPo, isBytePo, ranges, file, writer);
             }
+        } catch (IOException e) {
+            throw new CutException(ERR_WRITE_STREAM, e);
         }
 
-        return String.join(STRING_NEWLINE, output);
+        return removeTrailingNewline(output.toString());
     }
 
     /**
@@ -156,14 +140,14 @@ public class CutApplication implements CutInterface {
             throw new CutException(ERR_NULL_STREAMS);
         }
 
-        List<String> output = null;
-        try {
-            output = cutSelectedPortions(isCharPo, isBytePo, ranges, stdin);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeFromStdin(isCharPo, isBytePo, ranges, stdin, writer);
         } catch (IOException e) {
-            throw new CutException(ERR_IO_EXCEPTION, e);
+            throw new CutException(ERR_WRITE_STREAM, e);
         }
 
-        return String.join(STRING_NEWLINE, output);
+        return removeTrailingNewline(output.toString());
     }
 
     /**
@@ -182,20 +166,97 @@ public class CutApplication implements CutInterface {
     public String cutFromFileAndStdin(Boolean isCharPo, Boolean isBytePo, List<int[]> ranges,
                                       InputStream stdin, String... fileName) throws CutException {
         validateCutFlags(isCharPo, isBytePo);
-        List<String> output = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeFromFileAndStdin(isCharPo, isBytePo, ranges, stdin, writer, fileName);
+        } catch (IOException e) {
+            throw new CutException(ERR_WRITE_STREAM, e);
+        }
+
+        return removeTrailingNewline(output.toString());
+    }
+
+    /**
+     * Writes the selected portions of each line of the standard input and specified files to {@code writer}.
+     * Errors for individual files are written in place of their output.
+     *
+     * @param isCharPo Boolean option to cut by character position
+     * @param isBytePo Boolean option to cut by byte position
+     * @param ranges   List of 2-element arrays containing the start and end indices for cut
+     * @param stdin    InputStream containing arguments from Stdin
+     * @param writer   LineWriter to write the output to
+     * @param fileName Array of String of file names
+     * @throws IOException If the output cannot be written
+     */
+    private void writeFromFileAndStdin(Boolean isCharPo, Boolean isBytePo, List<int[]> ranges,
+                                       InputStream stdin, LineWriter writer, String... fileName) throws IOException {
         for (String file : fileName) {
             try {
-                if ("-".equals(file)) {
-                    output.add(cutFromStdin(isCharPo, isBytePo, ranges, stdin));
-                } else {
-                    output.add(cutFromFiles(isCharPo, isBytePo, ranges, file));
+                long count = "-".equals(file)
+                        ? writeFromStdin(isCharPo, isBytePo, ranges, stdin, writer)
+                        : writeFromFile(isCharPo, isBytePo, ranges, file, writer);
+                if (count == 0) {
+                    writer.newLine(); // an input without lines is shown as an empty line
                 }
             } catch (CutException e) {
-                output.add(e.getMessage());
+                writer.writeLine(e.getMessage());
             }
         }
+    }
 
-        return String.join(STRING_NEWLINE, output);
+    /**
+     * Writes the selected portions of each line of the standard input to {@code writer}.
+     *
+     * @param isCharPo Boolean option to cut by character position
+     * @param isBytePo Boolean option to cut by byte position
+     * @param ranges   List of 2-element arrays containing the start and end indices for cut
+     * @param stdin    InputStream containing arguments from Stdin
+     * @param writer   LineWriter to write the output to
+     * @return Number of lines written
+     * @throws CutException If stdin is null or cannot be read
+     * @throws IOException  If the output cannot be written
+     */
+    private long writeFromStdin(Boolean isCharPo, Boolean isBytePo, List<int[]> ranges, InputStream stdin,
+                                LineWriter writer) throws CutException, IOException {
+        if (stdin == null) {
+            throw new CutException(ERR_NULL_STREAMS);
+        }
+
+        return writeSelectedPortions(isCharPo, isBytePo, ranges, stdin, writer);
+    }
+
+    /**
+     * Writes the selected portions of each line of the specified file to {@code writer}.
+     *
+     * @param isCharPo Boolean option to cut by character position
+     * @param isBytePo Boolean option to cut by byte position
+     * @param ranges   List of 2-element arrays containing the start and end indices for cut
+     * @param file     Name of the file to read
+     * @param writer   LineWriter to write the output to
+     * @return Number of lines written
+     * @throws CutException If the file does not exist, is a directory or cannot be read
+     * @throws IOException  If the output cannot be written
+     */
+    private long writeFromFile(Boolean isCharPo, Boolean isBytePo, List<int[]> ranges, String file,
+                               LineWriter writer) throws CutException, IOException {
+        File node = IOUtils.resolveFilePath(file).toFile();
+        if (!node.exists()) {
+            throw new CutException(String.format("'%s': %s", node.getName(), ERR_FILE_NOT_FOUND));
+        }
+        if (node.isDirectory()) {
+            throw new CutException(String.format("'%s': %s", node.getName(), ERR_IS_DIR));
+        }
+        if (!node.canRead()) {
+            throw new CutException(String.format("'%s': %s", node.getName(), ERR_READING_FILE));
+        }
+
+        try (InputStream input = IOUtils.openInputStream(file)) {
+            long count = writeSelectedPortions(isCharPo, isBytePo, ranges, input, writer);
+            IOUtils.closeInputStream(input);
+            return count;
+        } catch (ShellException e) {
+            throw new CutException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -1,44 +1,65 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
+import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.DEFAULT_PARALLELISM;
 import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.getGrepArguments;
-import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.grepResultsFromFiles;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.compilePattern;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.compilePatterns;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.writeMatchingLines;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.writeResultsFromFiles;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_EMPTY_PATTERN;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
-import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_REGEX;
-import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_INPUT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_STREAMS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_OUT;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.StringJoiner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
+import java.util.Arrays;
 
 import sg.edu.nus.comp.cs4218.app.GrepInterface;
 import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.DirectoryWalker;
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepOptions;
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepOutput;
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepPattern;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 public class GrepApplication implements GrepInterface {
 
     public static final String GREP_STRING = "grep: ";
     public static final String IS_DIRECTORY = "Is a directory";
+    public static final String ERR_INVALID_MAX_COUNT = "invalid max count";
+    public static final String ERR_INVALID_CHUNK_SIZE = "invalid chunk size";
 
     public static final char CASE_INSEN_IDENT = 'i';
     public static final char COUNT_IDENT = 'c';
     public static final char PREFIX_FN = 'H';
-    private static final int NUM_ARGUMENTS = 3;
+    public static final char RECURSIVE_IDENT = 'r';
+    public static final char FOLLOW_LINKS_IDENT = 'R';
+    public static final char QUIET_IDENT = 'q';
+    public static final char FILES_WITH_MATCH_IDENT = 'l';
+    public static final char FILES_WITHOUT_MATCH_IDENT = 'L';
+    public static final char MAX_COUNT_IDENT = 'm';
+    public static final char PATTERN_IDENT = 'e';
+    public static final char PATTERN_FILE_IDENT = 'f';
+    public static final String OPTION_INCLUDE = "--include=";
+    public static final String OPTION_EXCLUDE = "--exclude=";
+    public static final String OPTION_CHUNK_MIN_SIZE = "--chunk-min-size=";
+    public static final String OPTION_CHUNK_SIZE = "--chunk-size=";
+    private static final int NUM_ARGUMENTS = 8;
     public static final int CASE_INSEN_IDX = 0;
     public static final int COUNT_INDEX = 1;
     public static final int PREFIX_FN_IDX = 2;
+    public static final int RECURSIVE_IDX = 3;
+    public static final int FOLLOW_LINKS_IDX = 4;
+    public static final int QUIET_IDX = 5;
+    public static final int FILES_WITH_MATCH_IDX = 6;
+    public static final int FILES_WITHOUT_MATCH_IDX = 7;
 
     @Override
     public String grepFromFiles(String pattern, Boolean isCaseInsensitive, Boolean isCountLines,
@@ -50,20 +71,15 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_EMPTY_PATTERN);
         }
 
-        StringJoiner lineResults = new StringJoiner(STRING_NEWLINE);
-        StringJoiner countResults = new StringJoiner(STRING_NEWLINE);
-
-        grepResultsFromFiles(pattern, isCaseInsensitive, lineResults, countResults, isPrefixFileName, fileNames);
-
-        String results = "";
-        if (isCountLines) {
-            results = countResults + STRING_NEWLINE;
-        } else {
-            if (!lineResults.toString().isEmpty()) {
-                results = lineResults + STRING_NEWLINE;
-            }
+        GrepPattern compiledPattern = compilePattern(pattern, isCaseInsensitive);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeFromFiles(compiledPattern, isPrefixFileName, toOutput(isCountLines, writer), null, new GrepOptions(),
+                    fileNames);
+        } catch (IOException e) {
+            throw new GrepException(ERR_WRITE_STREAM, e);
         }
-        return results;
+        return output.toString();
     }
 
     @Override
@@ -76,76 +92,48 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_EMPTY_PATTERN);
         }
 
-        int count = 0;
-        StringJoiner stringJoiner = new StringJoiner(STRING_NEWLINE);
-        try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(stdin));
-            Pattern compiledPattern = isCaseInsensitive
-                    ? Pattern.compile(pattern, Pattern.CASE_INSENSITIVE)
-                    : Pattern.compile(pattern);
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Matcher matcher = compiledPattern.matcher(line);
-                if (matcher.find()) { // match
-                    if (isPrefixFileName) {
-                        stringJoiner.add(STRING_STDIN_OUT + ": " + line);
-                    } else {
-                        stringJoiner.add(line);
-                    }
-                    count++;
-                }
-            }
-        } catch (PatternSyntaxException pse) {
-            throw new GrepException(ERR_INVALID_REGEX, pse);
-        } catch (NullPointerException npe) {
-            throw new GrepException(ERR_FILE_NOT_FOUND, npe);
+        GrepPattern compiledPattern = compilePattern(pattern, isCaseInsensitive);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeFromStdin(compiledPattern, isPrefixFileName, stdin, toOutput(isCountLines, writer));
         } catch (IOException e) {
-            throw new GrepException(ERR_IO_EXCEPTION, e);
-        }
-
-        String results = "";
-        if (isCountLines) {
-            if (isPrefixFileName) {
-                results = STRING_STDIN_OUT + ": ";
-            }
-            results += count + STRING_NEWLINE;
-        } else {
-            if (!stringJoiner.toString().isEmpty()) {
-                results = stringJoiner + STRING_NEWLINE;
-            }
+            throw new GrepException(ERR_WRITE_STREAM, e);
         }
-        return results;
+        return output.toString();
     }
 
     @Override
     public void run(String[] args, InputStream stdin, OutputStream stdout) throws GrepException {
         boolean[] grepFlags = new boolean[NUM_ARGUMENTS];
         ArrayList<String> inputFiles = new ArrayList<>();
-        String pattern = getGrepArguments(args, grepFlags, inputFiles);
+        GrepOptions options = new GrepOptions();
+        String pattern = getGrepArguments(args, grepFlags, inputFiles, options);
 
         if (stdin == null && inputFiles.isEmpty()) {
             throw new GrepException(ERR_NO_INPUT);
         }
-        if (pattern == null) {
+        GrepPattern compiledPattern;
+        if (options.hasPatterns()) {
+            compiledPattern = compilePatterns(options, grepFlags[CASE_INSEN_IDX]);
+        } else if (pattern == null) {
             throw new GrepException(ERR_SYNTAX);
-        }
-        if (pattern.isEmpty()) {
+        } else if (pattern.isEmpty()) {
             throw new GrepException(ERR_EMPTY_PATTERN);
-        }
-
-        String result;
-        if (inputFiles.isEmpty()) {
-            result = grepFromStdin(pattern, grepFlags[CASE_INSEN_IDX], grepFlags[COUNT_INDEX],
-                    grepFlags[PREFIX_FN_IDX], stdin);
         } else {
-            String[] inputFilesArray = new String[inputFiles.size()];
-            inputFilesArray = inputFiles.toArray(inputFilesArray);
-            result = grepFromFileAndStdin(pattern, grepFlags[CASE_INSEN_IDX], grepFlags[COUNT_INDEX],
-                    grepFlags[PREFIX_FN_IDX], stdin, inputFilesArray);
+            compiledPattern = compilePattern(pattern, grepFlags[CASE_INSEN_IDX]);
         }
-
-        try {
-            stdout.write(result.getBytes());
+        DirectoryWalker walker = grepFlags[RECURSIVE_IDX] ? new DirectoryWalker(options.getIncludeGlobs(),
+                options.getExcludeGlobs(), grepFlags[FOLLOW_LINKS_IDX]) : null;
+        try (LineWriter writer = new LineWriter(stdout)) {
+            GrepOutput output = toOutput(grepFlags, options.getMaxCount(), writer);
+            if (inputFiles.isEmpty()) {
+                writeFromStdin(compiledPattern, grepFlags[PREFIX_FN_IDX], stdin, output);
+            } else {
+                String[] inputFilesArray = new String[inputFiles.size()];
+                inputFilesArray = inputFiles.toArray(inputFilesArray);
+                writeFromFileAndStdin(compiledPattern, grepFlags[PREFIX_FN_IDX], stdin, output, walker, options,
+                        inputFilesArray);
+            }
         } catch (IOException e) {
             throw new GrepException(ERR_WRITE_STREAM, e);
         }
@@ -159,15 +147,95 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_EMPTY_PATTERN);
         }
 
-        StringBuilder result = new StringBuilder();
+        GrepPattern compiledPattern = compilePattern(pattern, isCaseInsensitive);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            writeFromFileAndStdin(compiledPattern, isPrefixFileName, stdin, toOutput(isCountLines, writer), null,
+                    new GrepOptions(), fileNames);
+        } catch (IOException e) {
+            throw new GrepException(ERR_WRITE_STREAM, e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Returns the output for the flags: with -q nothing, with -l or -L the names of the inputs that have a
+     * matching line or not, with -c the number of matching lines, and otherwise the matching lines, up to
+     * maxCount of them for each input.
+     */
+    private static GrepOutput toOutput(boolean[] grepFlags, long maxCount, LineWriter writer) {
+        if (grepFlags[QUIET_IDX]) {
+            return new GrepOutput(GrepOutput.Mode.QUIET, writer, null, maxCount);
+        }
+        if (grepFlags[FILES_WITH_MATCH_IDX]) {
+            return new GrepOutput(GrepOutput.Mode.MATCHING_NAMES, writer, null, maxCount);
+        }
+        if (grepFlags[FILES_WITHOUT_MATCH_IDX]) {
+            return new GrepOutput(GrepOutput.Mode.NON_MATCHING_NAMES, writer, null, maxCount);
+        }
+        return grepFlags[COUNT_INDEX]
+                ? new GrepOutput(GrepOutput.Mode.LINES, null, writer, maxCount)
+                : new GrepOutput(GrepOutput.Mode.LINES, writer, null, maxCount);
+    }
+
+    private static GrepOutput toOutput(Boolean isCountLines, LineWriter writer) {
+        return isCountLines ? GrepOutput.of(null, writer) : GrepOutput.of(writer, null);
+    }
+
+    /**
+     * Writes the results for each of the files, or for stdin in place of "-", to output as they are found.
+     * Directories are searched recursively with walker if it is not null. If output is quiet, no input is
+     * read after the first one with a matching line. Large files are split into chunks as set in options.
+     */
+    private void writeFromFileAndStdin(GrepPattern compiledPattern, Boolean isPrefixFileName, InputStream stdin,
+                                       GrepOutput output, DirectoryWalker walker, GrepOptions options,
+                                       String... fileNames)
+            throws GrepException, IOException {
         Boolean newIsPfxFileName = isPrefixFileName || fileNames.length > 1;
-        for (String fileName : fileNames) {
-            if ("-".equals(fileName)) {
-                result.append(grepFromStdin(pattern, isCaseInsensitive, isCountLines, newIsPfxFileName, stdin));
-            } else {
-                result.append(grepFromFiles(pattern, isCaseInsensitive, isCountLines, newIsPfxFileName, fileName));
+        int start = 0;
+        for (int i = 0; i <= fileNames.length; i++) {
+            if (i < fileNames.length && !"-".equals(fileNames[i])) {
+                continue;
+            }
+            long count = 0;
+            // Files between stdin arguments are searched together so that they can be searched in parallel
+            if (i > start) {
+                count += writeFromFiles(compiledPattern, newIsPfxFileName, output, walker, options,
+                        Arrays.copyOfRange(fileNames, start, i));
+            }
+            if (i < fileNames.length && !(output.isQuiet() && count > 0)) {
+                count += writeFromStdin(compiledPattern, newIsPfxFileName, stdin, output);
             }
+            if (output.isQuiet() && count > 0) {
+                return;
+            }
+            start = i + 1;
+        }
+    }
+
+    /**
+     * Writes the results for the files to output, and returns the number of matching lines found. Files of at
+     * least the size given with --chunk-min-size are searched in chunks of the size given with --chunk-size.
+     */
+    private long writeFromFiles(GrepPattern compiledPattern, Boolean isPrefixFileName, GrepOutput output,
+                                DirectoryWalker walker, GrepOptions options, String... fileNames)
+            throws GrepException, IOException {
+        return writeResultsFromFiles(compiledPattern, isPrefixFileName, output, DEFAULT_PARALLELISM,
+                options.getMinChunkedSize(), options.getChunkSize(), walker, fileNames);
+    }
+
+    /**
+     * Writes the results for stdin to output, and returns the number of matching lines found.
+     */
+    private long writeFromStdin(GrepPattern compiledPattern, Boolean isPrefixFileName, InputStream stdin,
+                                GrepOutput output) throws GrepException, IOException {
+        if (stdin == null) {
+            throw new GrepException(ERR_FILE_NOT_FOUND);
         }
-        return result.toString();
+
+        String prefix = isPrefixFileName ? STRING_STDIN_OUT + ": " : "";
+        long count = writeMatchingLines(compiledPattern, prefix, stdin, output.getMatchWriter(), output.getLimit());
+        output.writeResults(STRING_STDIN_OUT, prefix, count);
+        return count;
     }
 }
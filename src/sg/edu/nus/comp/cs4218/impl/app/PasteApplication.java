@@ -3,6 +3,8 @@ package sg.edu.nus.comp.cs4218.impl.app;
 import static sg.edu.nus.comp.cs4218.impl.app.helper.PasteApplicationHelper.checkPasteFileValidity;
 import static sg.edu.nus.comp.cs4218.impl.app.helper.PasteApplicationHelper.mergeInParallel;
 import static sg.edu.nus.comp.cs4218.impl.app.helper.PasteApplicationHelper.mergeInSerial;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.PasteApplicationHelper.writeInParallel;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.PasteApplicationHelper.writeInSerial;
 import static sg.edu.nus.comp.cs4218.impl.util.CollectionsUtils.listToArray;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
@@ -23,8 +25,10 @@ import sg.edu.nus.comp.cs4218.app.PasteInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.PasteException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.SkipEmptyOutputStream;
 import sg.edu.nus.comp.cs4218.impl.parser.PasteArgsParser;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 /**
  * The paste command merge lines of files, write to standard output lines consisting of
@@ -65,17 +69,15 @@ public class PasteApplication implements PasteInterface {
         final Boolean isSerial = parser.isSerial();
         final String[] nonFlagArgs = listToArray(parser.getNonFlagArgs());
 
-        final StringBuilder output = new StringBuilder();
-        if (nonFlagArgs.length == 0) {
-            output.append(mergeStdin(isSerial, stdin));
-        } else {
-            output.append(mergeFileAndStdin(isSerial, stdin, nonFlagArgs));
-        }
+        final List<List<String>> columns = nonFlagArgs.length == 0
+                ? getStdinColumns(stdin)
+                : getFileAndStdinColumns(isSerial, stdin, nonFlagArgs);
 
-        try {
-            if (output.length() != 0) {
-                stdout.write(output.toString().getBytes());
-                stdout.write(STRING_NEWLINE.getBytes());
+        try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(stdout))) {
+            if (isSerial) {
+                writeInSerial(columns, writer);
+            } else {
+                writeInParallel(columns, writer);
             }
         } catch (IOException e) {
             throw new PasteException(ERR_WRITE_STREAM, e);
@@ -92,17 +94,7 @@ public class PasteApplication implements PasteInterface {
      */
     @Override
     public String mergeStdin(Boolean isSerial, InputStream stdin) throws PasteException {
-        if (stdin == null) {
-            throw new PasteException(ERR_NULL_STREAMS);
-        }
-
-        List<List<String>> output = new ArrayList<>();
-        try {
-            output.add(IOUtils.getLinesFromInputStream(stdin));
-        } catch (IOException e) {
-            throw new PasteException(ERR_IO_EXCEPTION, e);
-        }
-
+        List<List<String>> output = getStdinColumns(stdin);
         return isSerial ? mergeInSerial(output) : mergeInParallel(output);
     }
 
@@ -155,6 +147,43 @@ public class PasteApplication implements PasteInterface {
      */
     @Override
     public String mergeFileAndStdin(Boolean isSerial, InputStream stdin, String... fileName) throws PasteException {
+        List<List<String>> totalLines = getFileAndStdinColumns(isSerial, stdin, fileName);
+        return isSerial ? mergeInSerial(totalLines) : mergeInParallel(totalLines);
+    }
+
+    /**
+     * Reads the lines of the standard input as a single column to be merged.
+     *
+     * @param stdin InputStream containing arguments from Stdin
+     * @return List containing the list of lines from Stdin
+     * @throws PasteException If fails to get stdin data
+     */
+    private List<List<String>> getStdinColumns(InputStream stdin) throws PasteException {
+        if (stdin == null) {
+            throw new PasteException(ERR_NULL_STREAMS);
+        }
+
+        List<List<String>> output = new ArrayList<>();
+        try {
+            output.add(IOUtils.getLinesFromInputStream(stdin));
+        } catch (IOException e) {
+            throw new PasteException(ERR_IO_EXCEPTION, e);
+        }
+        return output;
+    }
+
+    /**
+     * Reads the files and standard input into the columns to be merged, following the assumptions described in
+     * {@link #mergeFileAndStdin(Boolean, InputStream, String...)}.
+     *
+     * @param isSerial Paste one file at a time instead of in parallel
+     * @param stdin    InputStream containing arguments from Stdin
+     * @param fileName Array of file names to be read and merged (including "-" for reading from stdin)
+     * @return List of columns, each being the list of lines of one non-empty input
+     * @throws PasteException
+     */
+    private List<List<String>> getFileAndStdinColumns(Boolean isSerial, InputStream stdin, String... fileName)
+            throws PasteException {
         if (stdin == null) {
             throw new PasteException(ERR_NULL_STREAMS);
         }
@@ -193,11 +222,8 @@ public class PasteApplication implements PasteInterface {
             }
         }
 
-        List<List<String>> totalLines = output.stream().filter(s -> !s.isEmpty())
+        return output.stream().filter(s -> !s.isEmpty())
                 .map(s -> Arrays.asList((s.split(STRING_NEWLINE))))
                 .collect(Collectors.toList());
-
-        String result = isSerial ? mergeInSerial(totalLines) : mergeInParallel(totalLines);
-        return String.join(STRING_NEWLINE, result);
     }
 }
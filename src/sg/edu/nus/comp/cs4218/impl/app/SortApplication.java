@@ -1,9 +1,15 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.DEFAULT_PARALLELISM;
+import static sg.edu.nus.comp.cs4218.impl.parser.SortArgsParser.NO_BUFFER_SIZE;
+import static sg.edu.nus.comp.cs4218.impl.parser.SortArgsParser.NO_PARALLELISM;
+import static sg.edu.nus.comp.cs4218.impl.parser.SortArgsParser.NO_TOP_COUNT;
 import static sg.edu.nus.comp.cs4218.impl.util.CollectionsUtils.listToArray;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_NOT_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
@@ -12,23 +18,32 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
 
 import sg.edu.nus.comp.cs4218.app.SortInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.exception.SortException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.ExternalSorter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.FieldSortKey;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMerger;
+import sg.edu.nus.comp.cs4218.impl.app.helper.MappedFileSorter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.SkipEmptyOutputStream;
+import sg.edu.nus.comp.cs4218.impl.app.helper.SortOrder;
+import sg.edu.nus.comp.cs4218.impl.app.helper.TopSorter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.UniqueLineSink;
 import sg.edu.nus.comp.cs4218.impl.parser.SortArgsParser;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 /**
  * The sort command orders the lines of the specified files or input
@@ -40,6 +55,12 @@ import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
  */
 public class SortApplication implements SortInterface {
 
+    // Used when -S is not given. The rest of the heap is left for the merge and the shell itself.
+    private static final long DEFAULT_BUFFER_SIZE = Runtime.getRuntime().maxMemory() / 4;
+    private static final String TEMP_DIR_PROPERTY = "java.io.tmpdir";
+    private static final String STDIN_NAME = "-";
+    private static final String ERR_DISORDER = "disorder";
+
     /**
      * Runs the sort application with the specified arguments.
      *
@@ -66,25 +87,53 @@ public class SortApplication implements SortInterface {
         } catch (InvalidArgsException e) {
             throw new SortException(e.getMessage(), e);
         }
-        final StringBuilder output = new StringBuilder();
         final Boolean isFirstWordNumber = parser.isFirstWordNumber();
         final Boolean isReverseOrder = parser.isReverseOrder();
         final Boolean isCaseIndependent = parser.isCaseIndependent();
+        final SortOrder order = new SortOrder(isFirstWordNumber, isReverseOrder, isCaseIndependent,
+                parser.getKeyFields(), parser.getSeparator(), parser.isStable(), parser.isUnique());
         final String[] files = listToArray(parser.getFileNames());
+        final long bufferSize = parser.getBufferSize() == NO_BUFFER_SIZE
+                ? DEFAULT_BUFFER_SIZE
+                : parser.getBufferSize();
+        final Path tempDir = getTempDir(parser.getTempDir());
+        final int parallelism = parser.getParallelism() == NO_PARALLELISM
+                ? DEFAULT_PARALLELISM
+                : parser.getParallelism();
 
-        if (files.length == 0) {
-            output.append(sortFromStdin(isFirstWordNumber, isReverseOrder, isCaseIndependent, stdin));
-        } else {
-            output.append(sortFromFiles(isFirstWordNumber, isReverseOrder, isCaseIndependent, files));
+        if (parser.isCheck()) {
+            checkSorted(order, files, stdin, parser.isQuietCheck());
+            return;
+        }
+        if (parser.isMerge()) {
+            mergeLines(order, files, stdin, stdout);
+            return;
+        }
+        if (parser.getTopCount() != NO_TOP_COUNT) {
+            TopSorter sorter = new TopSorter(order, parser.getTopCount());
+            readLines(files, stdin, sorter::add);
+            try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(stdout))) {
+                for (String line : sorter.getLines()) {
+                    writer.writeLine(line);
+                }
+            } catch (IOException e) {
+                throw new SortException(ERR_WRITE_STREAM, e);
+            }
+            return;
         }
 
-        try {
-            if (output.length() != 0) {
-                stdout.write(output.toString().getBytes());
-                stdout.write(STRING_NEWLINE.getBytes());
+        if (files.length == 1 && MappedFileSorter.isSupported(order) && sortMappedFile(order, files[0], stdout)) {
+            return;
+        }
+        try (ExternalSorter sorter = new ExternalSorter(order, bufferSize, tempDir, parallelism)) {
+            readLines(files, stdin, sorter::add);
+            try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(stdout))) {
+                sorter.writeTo(writer);
+            } catch (IOException e) {
+                throw new SortException(ERR_WRITE_STREAM, e);
             }
         } catch (IOException e) {
-            throw new SortException(ERR_WRITE_STREAM, e);
+            throw new SortException(ERR_IO_EXCEPTION, e);
         }
     }
 
@@ -101,45 +150,67 @@ public class SortApplication implements SortInterface {
     @Override
     public String sortFromFiles(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
                                 String... fileNames) throws SortException {
+        return String.join(STRING_NEWLINE,
+                sortLinesFromFiles(isFirstWordNumber, isReverseOrder, isCaseIndependent, fileNames));
+    }
+
+    /**
+     * Returns string containing the orders of the lines from the standard input
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param stdin             InputStream containing arguments from Stdin
+     * @throws SortException If null stream or I/O error occurs
+     */
+    @Override
+    public String sortFromStdin(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
+                                InputStream stdin) throws SortException {
+        return String.join(STRING_NEWLINE,
+                sortLinesFromStdin(isFirstWordNumber, isReverseOrder, isCaseIndependent, stdin));
+    }
+
+    /**
+     * Returns the lines of the specified files in sorted order.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param fileNames         Array of String of file names
+     * @return List of sorted lines
+     * @throws SortException If there are issues sorting lines, e.g., null arguments, file not found,
+     *                       encountering a directory, lack of read permissions, or I/O errors
+     */
+    private List<String> sortLinesFromFiles(Boolean isFirstWordNumber, Boolean isReverseOrder,
+                                            Boolean isCaseIndependent, String... fileNames) throws SortException {
         if (fileNames == null || fileNames.length == 0) {
             throw new SortException(ERR_NULL_ARGS);
         }
         List<String> lines = new ArrayList<>();
         for (String file : fileNames) {
-            File node = IOUtils.resolveFilePath(file).toFile();
-            if (!node.exists()) {
-                throw new SortException(String.format("'%s': %s", node.getName(), ERR_FILE_NOT_FOUND));
-            }
-            if (node.isDirectory()) {
-                throw new SortException(String.format("'%s': %s", node.getName(), ERR_IS_DIR));
-            }
-            if (!node.canRead()) {
-                throw new SortException(String.format("'%s': %s", node.getName(), ERR_READING_FILE));
-            }
-
-            try (InputStream input = IOUtils.openInputStream(file)) {
+            try (InputStream input = openFile(file)) {
                 lines.addAll(IOUtils.getLinesFromInputStream(input));
                 IOUtils.closeInputStream(input);
             } catch (ShellException | IOException e) {
                 throw new SortException(e.getMessage(), e);
             }
         }
-        sortInputString(isFirstWordNumber, isReverseOrder, isCaseIndependent, lines);
-        return String.join(STRING_NEWLINE, lines);
+        sortLines(isFirstWordNumber, isReverseOrder, isCaseIndependent, lines);
+        return lines;
     }
 
     /**
-     * Returns string containing the orders of the lines from the standard input
+     * Returns the lines from the standard input in sorted order.
      *
      * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
      * @param isReverseOrder    Boolean option to sort in reverse order
      * @param isCaseIndependent Boolean option to perform case-independent sorting
      * @param stdin             InputStream containing arguments from Stdin
+     * @return List of sorted lines
      * @throws SortException If null stream or I/O error occurs
      */
-    @Override
-    public String sortFromStdin(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
-                                InputStream stdin) throws SortException {
+    private List<String> sortLinesFromStdin(Boolean isFirstWordNumber, Boolean isReverseOrder,
+                                            Boolean isCaseIndependent, InputStream stdin) throws SortException {
         if (stdin == null) {
             throw new SortException(ERR_NULL_STREAMS);
         }
@@ -149,78 +220,251 @@ public class SortApplication implements SortInterface {
         } catch (IOException e) {
             throw new SortException(ERR_IO_EXCEPTION, e);
         }
-        sortInputString(isFirstWordNumber, isReverseOrder, isCaseIndependent, lines);
-        return String.join(STRING_NEWLINE, lines);
+        sortLines(isFirstWordNumber, isReverseOrder, isCaseIndependent, lines);
+        return lines;
     }
 
     /**
-     * Sorts the input ArrayList based on the given conditions. Invoking this function will mutate the ArrayList.
+     * Opens the specified file for sorting.
      *
-     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
-     * @param isReverseOrder    Boolean option to sort in reverse order
-     * @param isCaseIndependent Boolean option to perform case-independent sorting
-     * @param input             ArrayList of Strings of lines
+     * @param file Name of the file
+     * @return InputStream of the file
+     * @throws SortException If the file does not exist, is a directory or cannot be read
+     * @throws ShellException If the file cannot be opened
      */
-    private void sortInputString(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
-                                 List<String> input) {
-        Collections.sort(input, new Comparator<String>() {
-            @Override
-            public int compare(String str1, String str2) {
-                String temp1 = isCaseIndependent && !isFirstWordNumber ? str1.toLowerCase(Locale.ROOT) : str1;
-                String temp2 = isCaseIndependent && !isFirstWordNumber ? str2.toLowerCase(Locale.ROOT) : str2;
-
-                // Extract the first group of numbers if possible.
-                if (isFirstWordNumber && !temp1.isEmpty() && !temp2.isEmpty()) {
-                    String chunk1 = getChunk(temp1);//NOPMD
-                    String chunk2 = getChunk(temp2);//NOPMD
-                    boolean isChunk1Numeric = !chunk1.isEmpty() && Character.isDigit(chunk1.charAt(0));
-                    boolean isChunk2Numeric = !chunk2.isEmpty() && Character.isDigit(chunk2.charAt(0));
-
-                    int result = 0;
-                    if (isChunk1Numeric && !isChunk2Numeric) {
-                        return 1;
-                    } else if (!isChunk1Numeric && isChunk2Numeric) {
-                        return -1;
-                    } else if (isChunk1Numeric && isChunk2Numeric) {
-                        // If both chunks can be represented as numbers, sort them numerically.
-                        result = new BigInteger(chunk1).compareTo(new BigInteger(chunk2));
-                    } else {
-                        result = chunk1.compareTo(chunk2);
-                    }
-                    if (result != 0) {
-                        return result;
-                    }
-                    return temp1.substring(chunk1.length()).compareTo(temp2.substring(chunk2.length()));
+    private InputStream openFile(String file) throws SortException, ShellException {
+        resolveFile(file);
+        return IOUtils.openInputStream(file);
+    }
+
+    /**
+     * Returns the path of the specified file, checking that it can be sorted.
+     *
+     * @param file Name of the file
+     * @return Path of the file
+     * @throws SortException If the file does not exist, is a directory or cannot be read
+     */
+    private Path resolveFile(String file) throws SortException {
+        Path path = IOUtils.resolveFilePath(file);
+        File node = path.toFile();
+        if (!node.exists()) {
+            throw new SortException(String.format("'%s': %s", node.getName(), ERR_FILE_NOT_FOUND));
+        }
+        if (node.isDirectory()) {
+            throw new SortException(String.format("'%s': %s", node.getName(), ERR_IS_DIR));
+        }
+        if (!node.canRead()) {
+            throw new SortException(String.format("'%s': %s", node.getName(), ERR_READING_FILE));
+        }
+        return path;
+    }
+
+    /**
+     * Sorts a large file by memory-mapping it, without reading its lines into Strings.
+     *
+     * @param order  SortOrder giving the order of lines, which must be supported by {@link MappedFileSorter}
+     * @param file   Name of the file
+     * @param stdout OutputStream to write the sorted lines to
+     * @return true if the file was sorted, false if it cannot be sorted this way and nothing was written
+     * @throws SortException If the file cannot be read or the output cannot be written
+     */
+    private boolean sortMappedFile(SortOrder order, String file, OutputStream stdout) throws SortException {
+        MappedFileSorter sorter;
+        try {
+            sorter = MappedFileSorter.open(resolveFile(file));
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        }
+        if (sorter == null) {
+            return false;
+        }
+        try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(stdout))) {
+            sorter.writeTo(writer, order);
+        } catch (IOException e) {
+            throw new SortException(ERR_WRITE_STREAM, e);
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the lines of the file, or of stdin if no file is given, are already sorted. The input is read
+     * once, comparing each line with the one before it, and reading stops at the first line out of order.
+     * With -u, a line that compares equal to the one before it is also out of order.
+     *
+     * @param order   SortOrder the input should be sorted in
+     * @param files   Array of String of file names, with at most one file
+     * @param stdin   InputStream to read lines from if no file is given
+     * @param isQuiet Boolean option to leave the line out of order out of the error message
+     * @throws SortException If the input is not sorted, more than one file is given or the input cannot be read
+     */
+    private void checkSorted(SortOrder order, String[] files, InputStream stdin, Boolean isQuiet)
+            throws SortException {
+        if (files.length > 1) {
+            throw new SortException(String.format("extra operand '%s' not allowed with -c", files[1]));
+        }
+        String name = files.length == 0 ? STDIN_NAME : files[0];
+        InputStream input = stdin;
+        try {
+            if (files.length > 0) {
+                input = openFile(files[0]);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input));
+            FieldSortKey previous = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                FieldSortKey key = new FieldSortKey(line, order);
+                if (previous != null && isOutOfOrder(order, previous, key)) {
+                    throw new SortException(isQuiet
+                            ? ERR_DISORDER
+                            : String.format("%s:%d: %s: %s", name, lineNumber, ERR_DISORDER, line));
                 }
+                previous = key;
+            }
+        } catch (ShellException e) {
+            throw new SortException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        } finally {
+            if (input != stdin) {
+                try {
+                    IOUtils.closeInputStream(input);
+                } catch (ShellException e) {
+                    // The lines have been read; failing to close the file does not change the result.
+                }
+            }
+        }
+    }
 
-                return temp1.compareTo(temp2);
+    private boolean isOutOfOrder(SortOrder order, FieldSortKey previous, FieldSortKey current) {
+        int result = order.isReverseOrder() ? -previous.compareTo(current) : previous.compareTo(current);
+        return order.isUnique() ? result >= 0 : result > 0;
+    }
+
+    /**
+     * Merges the lines of the files, or of stdin if no files are given, which are already sorted, and writes
+     * them in sorted order. All files are read at the same time, one line at a time. With -u, only the first of
+     * the merged lines that compare equal is written.
+     *
+     * @param order  SortOrder the files are sorted in
+     * @param files  Array of String of file names
+     * @param stdin  InputStream to read lines from if no files are given
+     * @param stdout OutputStream to write the merged lines to
+     * @throws SortException If a file cannot be read or the output cannot be written
+     */
+    private void mergeLines(SortOrder order, String[] files, InputStream stdin, OutputStream stdout)
+            throws SortException {
+        List<InputStream> inputs = new ArrayList<>();
+        try {
+            if (files.length == 0) {
+                inputs.add(stdin);
+            }
+            for (String file : files) {
+                inputs.add(openFile(file));
+            }
+            List<BufferedReader> readers = new ArrayList<>();
+            for (InputStream input : inputs) {
+                readers.add(new BufferedReader(new InputStreamReader(input)));
+            }
+            try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(stdout))) {
+                if (order.isUnique()) {
+                    UniqueLineSink unique = new UniqueLineSink(order, false, writer::writeLine);
+                    LineMerger.merge(readers, order, false, unique);
+                    unique.finish();
+                } else {
+                    LineMerger.merge(readers, order, false, writer::writeLine);
+                }
+            } catch (IOException e) {
+                throw new SortException(ERR_WRITE_STREAM, e);
+            }
+        } catch (ShellException e) {
+            throw new SortException(e.getMessage(), e);
+        } finally {
+            for (InputStream input : inputs) {
+                if (input != stdin) {
+                    try {
+                        IOUtils.closeInputStream(input);
+                    } catch (ShellException e) {
+                        // The lines have been read; failing to close a file does not change the output.
+                    }
+                }
             }
-        });
-        if (isReverseOrder) {
-            Collections.reverse(input); // Apply reverse order here after sorting
         }
     }
 
     /**
-     * Extracts a chunk of numbers or non-numbers from str starting from index 0.
+     * Reads the lines of the files, or of stdin if no files are given, into the sink one at a time.
      *
-     * @param str Input string to read from
-     * @return A string representing the extracted chunk
+     * @param files Array of String of file names
+     * @param stdin InputStream to read lines from if no files are given
+     * @param sink  LineSink to add the lines to
+     * @throws SortException If a file cannot be read or the sink fails
      */
-    private String getChunk(String str) {
-        int startIndexLocal = 0;
-        StringBuilder chunk = new StringBuilder();
-        final int strLen = str.length();
-        char chr = str.charAt(startIndexLocal++);
-        chunk.append(chr);
-        final boolean extractDigit = Character.isDigit(chr);
-        while (startIndexLocal < strLen) {
-            chr = str.charAt(startIndexLocal++);
-            if ((extractDigit && !Character.isDigit(chr)) || (!extractDigit && Character.isDigit(chr))) {
-                break;
+    private void readLines(String[] files, InputStream stdin, LineSink sink) throws SortException {
+        if (files.length == 0) {
+            if (stdin == null) {
+                throw new SortException(ERR_NULL_STREAMS);
+            }
+            try {
+                addLines(sink, stdin);
+            } catch (IOException e) {
+                throw new SortException(ERR_IO_EXCEPTION, e);
             }
-            chunk.append(chr);
+            return;
         }
-        return chunk.toString();
+        for (String file : files) {
+            try (InputStream input = openFile(file)) {
+                addLines(sink, input);
+                IOUtils.closeInputStream(input);
+            } catch (ShellException | IOException e) {
+                throw new SortException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads the lines of the input into the sink one at a time.
+     *
+     * @param sink  LineSink to add the lines to
+     * @param input InputStream to read lines from
+     * @throws SortException If the sink fails
+     * @throws IOException   If the input cannot be read
+     */
+    private void addLines(LineSink sink, InputStream input) throws SortException, IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            sink.add(line);
+        }
+    }
+
+    /**
+     * Returns the directory for temporary files, which is the system default if -T is not given.
+     *
+     * @param tempDir Directory given with -T, or null
+     * @return Path of the directory
+     * @throws SortException If the directory does not exist or is not a directory
+     */
+    private Path getTempDir(String tempDir) throws SortException {
+        if (tempDir == null) {
+            return Paths.get(System.getProperty(TEMP_DIR_PROPERTY));
+        }
+        Path path = IOUtils.resolveFilePath(tempDir);
+        File node = path.toFile();
+        if (!node.exists()) {
+            throw new SortException(String.format("'%s': %s", tempDir, ERR_FILE_NOT_FOUND));
+        }
+        if (!node.isDirectory()) {
+            throw new SortException(String.format("'%s': %s", tempDir, ERR_IS_NOT_DIR));
+        }
+        return path;
+    }
+
+    /**
+     * Receives the input lines, such as an ExternalSorter or a TopSorter.
+     */
+    private interface LineSink {
+        void add(String line) throws SortException;
     }
 }
@@ -1,41 +1,58 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import static sg.edu.nus.comp.cs4218.exception.UniqException.COUNT_ALL_DUP_ERR;
+import static sg.edu.nus.comp.cs4218.exception.UniqException.COMPARE_ERR;
+import static sg.edu.nus.comp.cs4218.exception.UniqException.COUNT_ALL_ERR;
+import static sg.edu.nus.comp.cs4218.exception.UniqException.GLOBAL_COUNT_ERR;
 import static sg.edu.nus.comp.cs4218.exception.UniqException.PROB_UNIQ_FILE;
 import static sg.edu.nus.comp.cs4218.exception.UniqException.PROB_UNIQ_STDIN;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_INPUT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.file.Paths;
 
 import sg.edu.nus.comp.cs4218.app.UniqInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.UniqException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.BloomFilter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.GlobalDeduplicator;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineCounter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMatcher;
 import sg.edu.nus.comp.cs4218.impl.parser.UniqArgsParser;
+import sg.edu.nus.comp.cs4218.impl.util.ByteLineReader;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 /**
  * The uniq command filters adjacent matching lines from INPUT_FILE (or standard input)
- * and writes to an OUTPUT_FILE (or to standard output).
+ * and writes to an OUTPUT_FILE (or to standard output). With --global, repeated lines are
+ * filtered wherever they are, and with --bloom=P they are filtered with a false-positive rate of P.
+ * With --count-all, every distinct line is written once with the number of times it occurs.
+ * Adjacent lines can be compared without their first fields (-f N) or characters (-s N), on
+ * their first characters only (-w N), or ignoring case (-i).
  *
  * <p>
  * <b>Command format:</b> <code>uniq [Options] [INPUT_FILE [OUTPUT_FILE]]<code>
  * </p>
  */
 public class UniqApplication implements UniqInterface {
+    private static final LineMatcher WHOLE_LINE = new LineMatcher(0, 0, LineMatcher.ALL_CHARS, false);
+    private static final long GLOBAL_MEMORY_LIMIT = Runtime.getRuntime().maxMemory() / 4;
+    private static final String TEMP_DIR_PROPERTY = "java.io.tmpdir";
 
     /**
-     * Runs the uniq application with the specified arguments.
+     * Runs the uniq application with the specified arguments. Each group of adjacent matching lines is written
+     * as soon as the line after it is read.
      *
      * @param args   Array of arguments for the application. Each array element is the path to a
      *               file. If no files are specified stdin is used.
@@ -58,31 +75,56 @@ public class UniqApplication implements UniqInterface {
             throw new UniqException(e.getMessage(), e);
         }
 
-        String output;
         final Boolean isCount = parser.isPrefixWithOccurrencesCount();
         final Boolean isRepeated = parser.isPrintDuplicateOncePerGroup();
         final Boolean isAllRepeated = parser.isPrintAllDuplicate();
         final String inputFile = parser.getInputFileName();
         final String outputFile = parser.getOutputFileName();
+        final LineMatcher matcher = new LineMatcher(parser.getSkipFields(), parser.getSkipChars(),
+                parser.getCheckChars(), parser.isIgnoreCase());
+        if (isCount && isAllRepeated) {
+            throw new UniqException(COUNT_ALL_DUP_ERR);
+        }
+        if (parser.isCountAll() && (isRepeated || isAllRepeated || parser.isGlobal())) {
+            throw new UniqException(COUNT_ALL_ERR);
+        }
+        if (parser.isGlobal() && (isCount || isRepeated || isAllRepeated)) {
+            throw new UniqException(GLOBAL_COUNT_ERR);
+        }
+        if ((parser.isGlobal() || parser.isCountAll()) && !matcher.isWholeLine()) {
+            throw new UniqException(COMPARE_ERR);
+        }
+        if (outputFile == null && stdout == null) {
+            throw new UniqException(ERR_NO_OSTREAM);
+        }
 
-        // Find uniq
-        if (inputFile == null) {
-            output = uniqFromStdin(isCount, isRepeated, isAllRepeated, stdin, outputFile);
+        final double rate = parser.getFalsePositiveRate();
+        final LineFilter filter;
+        if (parser.isCountAll()) {
+            filter = (input, problem, writer) -> countAll(parser.getCountAllOrder(), input, problem, writer);
+        } else if (!parser.isGlobal()) {
+            filter = (input, problem, writer) ->
+                    uniq(isCount, isRepeated, isAllRepeated, matcher, toReader(input), problem, writer);
+        } else if (rate == UniqArgsParser.NO_FALSE_POSITIVE_RATE) {
+            filter = (input, problem, writer) -> uniqGlobal(toReader(input), problem, writer);
         } else {
-            output = uniqFromFile(isCount, isRepeated, isAllRepeated, inputFile, outputFile);
+            filter = (input, problem, writer) -> uniqGlobal(rate, toReader(input), problem, writer);
         }
 
-        // Print results if no output file specified
-        try {
-            if (outputFile == null) {
-                if (stdout == null) {
-                    throw new UniqException(ERR_NO_OSTREAM);
-                }
-                stdout.write(output.getBytes());
-                stdout.write(STRING_NEWLINE.getBytes());
+        // Find uniq
+        if (inputFile == null) {
+            if (stdin == null) {
+                throw new UniqException(ERR_NO_INPUT);
             }
+            uniqToOutput(filter, stdin, PROB_UNIQ_STDIN, outputFile, stdout);
+            return;
+        }
+        try (InputStream input = new FileInputStream(inputFile)) {
+            uniqToOutput(filter, input, PROB_UNIQ_FILE, outputFile, stdout);
+        } catch (FileNotFoundException e) {
+            throw new UniqException(PROB_UNIQ_FILE + ERR_FILE_NOT_FOUND, e);
         } catch (IOException e) {
-            throw new UniqException(ERR_WRITE_STREAM, e);
+            throw new UniqException(PROB_UNIQ_FILE + e.getMessage(), e);
         }
     }
 
@@ -100,29 +142,18 @@ public class UniqApplication implements UniqInterface {
     @Override
     public String uniqFromFile(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, String inputFileName,
                                String outputFileName) throws UniqException {
-        try {
-            String result;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(inputFileName))) {
-                result = uniq(isCount, isRepeated, isAllRepeated, reader);
-            }
-
-            if (outputFileName == null) {
-                // No output file specified, return result.
-                return result;
-            }
-
-            // Write to file
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFileName))) {
-                writer.write(result);
-            }
+        if (isCount && isAllRepeated) {
+            throw new UniqException(COUNT_ALL_DUP_ERR);
+        }
+        try (InputStream input = new FileInputStream(inputFileName)) {
+            return uniqToString((content, problem, writer) ->
+                    uniq(isCount, isRepeated, isAllRepeated, WHOLE_LINE, toReader(content), problem, writer), input,
+                    PROB_UNIQ_FILE, outputFileName);
         } catch (FileNotFoundException e) {
             throw new UniqException(PROB_UNIQ_FILE + ERR_FILE_NOT_FOUND, e);
         } catch (IOException e) {
             throw new UniqException(PROB_UNIQ_FILE + e.getMessage(), e);
         }
-
-        return null;
     }
 
     /**
@@ -142,84 +173,235 @@ public class UniqApplication implements UniqInterface {
         if (stdin == null) {
             throw new UniqException(ERR_NO_INPUT);
         }
+        if (isCount && isAllRepeated) {
+            throw new UniqException(COUNT_ALL_DUP_ERR);
+        }
+        return uniqToString((content, problem, writer) ->
+                uniq(isCount, isRepeated, isAllRepeated, WHOLE_LINE, toReader(content), problem, writer), stdin,
+                PROB_UNIQ_STDIN, outputFileName);
+    }
 
-        try {
-            BufferedReader input = new BufferedReader(new InputStreamReader(stdin));
-            String result = uniq(isCount, isRepeated, isAllRepeated, input);
-
-            if (outputFileName == null) {
-                // No output file specified, return result.
-                return result;
-            }
+    /**
+     * Writes the filtered lines to the output file, or returns them if no output file is given.
+     *
+     * @param filter         LineFilter that writes the lines kept
+     * @param input          InputStream holding the content to be processed
+     * @param problem        Prefix of the error messages for the input
+     * @param outputFileName String of path to output file, or null
+     * @return String of the results. Null if {@code outputFileName} is given.
+     * @throws UniqException When the input cannot be read or the output cannot be written
+     */
+    private String uniqToString(LineFilter filter, InputStream input, String problem, String outputFileName)
+            throws UniqException {
+        if (outputFileName != null) {
+            uniqToOutput(filter, input, problem, outputFileName, null);
+            return null;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            filter.filter(input, problem, writer);
+        } catch (IOException e) {
+            throw new UniqException(ERR_WRITE_STREAM, e);
+        }
+        return output.toString();
+    }
 
-            // Write to file
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFileName))) {
-                writer.write(result);
+    /**
+     * Writes the filtered lines to the output file, or to {@code stdout} followed by a newline if no output
+     * file is given.
+     *
+     * @param filter         LineFilter that writes the lines kept
+     * @param input          InputStream holding the content to be processed
+     * @param problem        Prefix of the error messages for the input
+     * @param outputFileName String of path to output file, or null
+     * @param stdout         OutputStream to write to if no output file is given
+     * @throws UniqException When the input cannot be read or the output cannot be written
+     */
+    private void uniqToOutput(LineFilter filter, InputStream input, String problem, String outputFileName,
+                              OutputStream stdout) throws UniqException {
+        if (outputFileName == null) {
+            try (LineWriter writer = new LineWriter(stdout)) {
+                filter.filter(input, problem, writer);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UniqException(ERR_WRITE_STREAM, e);
             }
-
-            return null;
+            return;
+        }
+        try (OutputStream output = new FileOutputStream(outputFileName);
+             LineWriter writer = new LineWriter(output)) {
+            filter.filter(input, problem, writer);
+        } catch (FileNotFoundException e) {
+            throw new UniqException(problem + ERR_FILE_NOT_FOUND, e);
         } catch (IOException e) {
-            throw new UniqException(PROB_UNIQ_STDIN + e.getMessage(), e);
+            throw new UniqException(problem + e.getMessage(), e);
         }
     }
 
     /**
-     * Reads input from {@code BufferedReader} and returns the output
+     * Reads input from {@code BufferedReader} and writes each group of adjacent matching lines as soon as it
+     * ends, or each line of a group as soon as it is read with {@code isAllRepeated}. Only the first line of the
+     * current group and the number of lines in it are kept, so any amount of input is filtered in constant
+     * memory. The lines written are separated by newlines, without a newline after the last line.
      *
      * @param isCount       Boolean option to prefix lines by the number of occurrences of adjacent duplicate lines
      * @param isRepeated    Boolean option to print only duplicate lines, one for each group
      * @param isAllRepeated Boolean option to print all duplicate lines (takes precedence if isRepeated is true)
+     * @param matcher       LineMatcher deciding whether adjacent lines match
      * @param content       BufferedReader holding the content to be processed
-     * @return String of the results
-     * @throws IOException When both {@code isCount} and {@code isAllRepeated} are true
+     * @param problem       Prefix of the error message if the input cannot be read
+     * @param writer        LineWriter to write the lines to
+     * @throws UniqException When the input cannot be read
+     * @throws IOException   When the output cannot be written
      */
-    private String uniq(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, BufferedReader content)
-            throws IOException, UniqException {
-        if (isCount && isAllRepeated) {
-            throw new UniqException(COUNT_ALL_DUP_ERR);
+    private void uniq(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, LineMatcher matcher,
+                      BufferedReader content, String problem, LineWriter writer) throws UniqException, IOException {
+        final boolean isWholeLine = matcher.isWholeLine();
+        LinesWriter lines = new LinesWriter(isCount, writer);
+        String group = readLine(content, problem);
+        long count = 1;
+        while (group != null) {
+            String line = readLine(content, problem);
+            if (line != null && (isWholeLine ? group.equals(line) : matcher.matches(group, line))) {
+                count++;
+                // isAllRepeated overrides isRepeated
+                if (isAllRepeated) {
+                    if (count == 2) {
+                        lines.write(group, count);
+                    }
+                    lines.write(line, count);
+                }
+                continue;
+            }
+            if (!isAllRepeated && (!isRepeated || count >= 2)) {
+                lines.write(group, count);
+            }
+            group = line;
+            count = 1;
         }
+    }
 
-        int prevCount, count = 0;
-        String prevLine, line = null;
-        StringBuilder stringBuilder = new StringBuilder();
+    /**
+     * Reads input from {@code BufferedReader} and writes the first occurrence of each line in input order,
+     * keeping the fingerprints of the lines seen so far within {@code GLOBAL_MEMORY_LIMIT}.
+     *
+     * @param content BufferedReader holding the content to be processed
+     * @param problem Prefix of the error message if the input cannot be read
+     * @param writer  LineWriter to write the lines to
+     * @throws UniqException When the input cannot be read, or the temporary files cannot be read or written
+     * @throws IOException   When the output cannot be written
+     */
+    private void uniqGlobal(BufferedReader content, String problem, LineWriter writer)
+            throws UniqException, IOException {
+        LinesWriter lines = new LinesWriter(false, writer);
+        try (GlobalDeduplicator deduplicator = new GlobalDeduplicator(GLOBAL_MEMORY_LIMIT,
+                Paths.get(System.getProperty(TEMP_DIR_PROPERTY)))) {
+            deduplicator.deduplicate(() -> readLine(content, problem), line -> lines.write(line, 1));
+        }
+    }
 
-        do {
-            prevLine = line;
-            line = content.readLine();
+    /**
+     * Reads input from {@code BufferedReader} and writes the first occurrence of each line in input order,
+     * keeping the lines seen so far in a {@link BloomFilter}. A line not seen before is wrongly left out with a
+     * probability of at most {@code falsePositiveRate}.
+     *
+     * @param falsePositiveRate Probability of leaving out a line not seen before
+     * @param content           BufferedReader holding the content to be processed
+     * @param problem           Prefix of the error message if the input cannot be read
+     * @param writer            LineWriter to write the lines to
+     * @throws UniqException When the input cannot be read
+     * @throws IOException   When the output cannot be written
+     */
+    private void uniqGlobal(double falsePositiveRate, BufferedReader content, String problem, LineWriter writer)
+            throws UniqException, IOException {
+        LinesWriter lines = new LinesWriter(false, writer);
+        BloomFilter seen = new BloomFilter(falsePositiveRate);
+        String line;
+        while ((line = readLine(content, problem)) != null) {
+            if (seen.add(GlobalDeduplicator.fingerprint(line))) {
+                lines.write(line, 1);
+            }
+        }
+    }
 
-            // First line does not have anything to read
-            if (prevLine == null && line == null) { break; }
+    /**
+     * Reads input from {@code InputStream} and writes every distinct line once, prefixed by the number of times
+     * it occurs. The lines are counted as bytes by a {@link LineCounter}, so the time taken grows with the size
+     * of the input rather than with the time to sort it.
+     *
+     * @param order   Order to write the lines in
+     * @param input   InputStream holding the content to be processed
+     * @param problem Prefix of the error message if the input cannot be read
+     * @param writer  LineWriter to write the lines to
+     * @throws UniqException When the input cannot be read
+     * @throws IOException   When the output cannot be written
+     */
+    private void countAll(LineCounter.Order order, InputStream input, String problem, LineWriter writer)
+            throws UniqException, IOException {
+        LineCounter counter = new LineCounter();
+        ByteLineReader reader = new ByteLineReader(input);
+        try {
+            while (reader.nextLine()) {
+                counter.add(reader.buffer(), reader.offset(), reader.length());
+            }
+        } catch (IOException e) {
+            throw new UniqException(problem + e.getMessage(), e);
+        }
+        LinesWriter lines = new LinesWriter(true, writer);
+        counter.forEach(order, lines::write);
+    }
 
-            // First line
-            if (prevLine == null) { prevLine = line; }
+    private static BufferedReader toReader(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input));
+    }
 
-            // Duplicate line: track line -> check next line
-            if (line != null && line.compareTo(prevLine) == 0) {
-                count += 1;
-                continue;
-            }
+    private String readLine(BufferedReader content, String problem) throws UniqException {
+        try {
+            return content.readLine();
+        } catch (IOException e) {
+            throw new UniqException(problem + e.getMessage(), e);
+        }
+    }
 
-            // New unique line: track line -> check flags -> output line
-            prevCount = count;
-            count = 1;
+    /**
+     * Reads lines from an InputStream and writes the lines kept to a LineWriter, separated by newlines.
+     */
+    @FunctionalInterface
+    private interface LineFilter {
+        void filter(InputStream input, String problem, LineWriter writer) throws UniqException, IOException;
+    }
 
-            // isAllRepeated overrides isRepeated
-            if (isAllRepeated) {
-                if (prevCount >= 2) {
-                    stringBuilder.append((prevLine + STRING_NEWLINE).repeat(prevCount));
-                }
-                continue;
-            } else if (isRepeated && prevCount < 2) {
-                continue;
-            }
+    /**
+     * Writes lines, optionally prefixed by a count, separated by newlines.
+     */
+    private static final class LinesWriter {
+        private final Boolean isCount;
+        private final LineWriter writer;
+        private boolean hasOutput;
 
-            if (isCount) {
-                stringBuilder.append(prevCount).append(' ');
-            }
-            stringBuilder.append(prevLine).append(STRING_NEWLINE);
+        private LinesWriter(Boolean isCount, LineWriter writer) {
+            this.isCount = isCount;
+            this.writer = writer;
+        }
 
-        } while (line != null);
+        private void write(byte[] bytes, int offset, int length, long count) throws IOException {
+            startLine(count);
+            writer.write(bytes, offset, length);
+        }
 
-        return stringBuilder.toString().trim();
+        private void write(String line, long count) throws IOException {
+            startLine(count);
+            writer.write(line);
+        }
+
+        private void startLine(long count) throws IOException {
+            if (hasOutput) {
+                writer.newLine();
+            }
+            hasOutput = true;
+            if (isCount) {
+                writer.writeLong(count).write(' ');
+            }
+        }
     }
 }
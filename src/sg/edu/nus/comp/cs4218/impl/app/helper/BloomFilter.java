@@ -0,0 +1,123 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BloomFilter is a scalable Bloom filter of 64-bit line fingerprints, for uniq --global --bloom.
+ * <p>
+ * A fingerprint that was added is always found, but a fingerprint that was not added is wrongly found with a
+ * probability of at most the false-positive rate, however many fingerprints are added. This holds because
+ * fingerprints are added to a series of plain Bloom filters: once a filter has held its capacity a new one
+ * with {@code GROWTH_FACTOR} times the capacity is started, and the false-positive rate of each filter is
+ * {@code TIGHTENING_RATIO} times that of the one before it, so that the rates of all filters add up to at
+ * most the false-positive rate. Each filter takes about {@code 1.44 * log2(1 / rate)} bits per fingerprint at its
+ * own rate, rounded up to a power of two, e.g. about 2.7 GiB in all for a billion distinct lines at a rate of 1%.
+ */
+public final class BloomFilter {
+    // Number of fingerprints the first filter holds.
+    private static final long INITIAL_CAPACITY = 1 << 20;
+    private static final int GROWTH_FACTOR = 4;
+    private static final double TIGHTENING_RATIO = 0.9;
+    private static final int MIN_BITS_LOG = 6;
+    // A long[] has at most 2^31 - 1 elements, so a filter has at most 2^36 bits.
+    private static final int MAX_BITS_LOG = 36;
+    private static final double LN2 = Math.log(2);
+
+    private final List<Filter> filters = new ArrayList<>();
+    private double nextRate;
+    private long nextCapacity = INITIAL_CAPACITY;
+
+    /**
+     * Constructor for BloomFilter.
+     *
+     * @param falsePositiveRate Probability, between 0 and 1, of wrongly finding a fingerprint not added
+     */
+    public BloomFilter(double falsePositiveRate) {
+        this.nextRate = falsePositiveRate * (1 - TIGHTENING_RATIO);
+    }
+
+    /**
+     * Adds a fingerprint to the filter.
+     *
+     * @param fingerprint Fingerprint to add
+     * @return true if the fingerprint was not found in the filter, false if it was added before or is a false
+     *         positive
+     */
+    public boolean add(long fingerprint) {
+        for (Filter filter : filters) {
+            if (filter.contains(fingerprint)) {
+                return false;
+            }
+        }
+        if (filters.isEmpty() || filters.get(filters.size() - 1).isFull()) {
+            filters.add(new Filter(nextCapacity, nextRate));
+            nextCapacity *= GROWTH_FACTOR;
+            nextRate *= TIGHTENING_RATIO;
+        }
+        filters.get(filters.size() - 1).add(fingerprint);
+        return true;
+    }
+
+    /**
+     * A plain Bloom filter whose bit indexes are derived from a fingerprint by double hashing.
+     */
+    private static final class Filter {
+        private final long[] bits;
+        private final long mask;
+        private final int hashCount;
+        private final long capacity;
+        private long size;
+
+        private Filter(long capacity, double rate) {
+            double bitsPerFingerprint = -Math.log(rate) / (LN2 * LN2);
+            int bitsLog = MIN_BITS_LOG;
+            while (bitsLog < MAX_BITS_LOG && (double) (1L << bitsLog) < capacity * bitsPerFingerprint) {
+                bitsLog++;
+            }
+            long bitCount = 1L << bitsLog;
+            this.bits = new long[(int) (bitCount >>> MIN_BITS_LOG)];
+            this.mask = bitCount - 1;
+            this.hashCount = Math.max(1, (int) Math.ceil(-Math.log(rate) / LN2));
+            // The largest filter holds fewer fingerprints to keep its false-positive rate.
+            this.capacity = Math.min(capacity, (long) (bitCount / bitsPerFingerprint));
+        }
+
+        private boolean contains(long fingerprint) {
+            long hash = fingerprint;
+            long step = secondHash(fingerprint);
+            for (int i = 0; i < hashCount; i++) {
+                long index = hash & mask;
+                if ((bits[(int) (index >>> MIN_BITS_LOG)] & (1L << index)) == 0) {
+                    return false;
+                }
+                hash += step;
+            }
+            return true;
+        }
+
+        private void add(long fingerprint) {
+            long hash = fingerprint;
+            long step = secondHash(fingerprint);
+            for (int i = 0; i < hashCount; i++) {
+                long index = hash & mask;
+                bits[(int) (index >>> MIN_BITS_LOG)] |= 1L << index;
+                hash += step;
+            }
+            size++;
+        }
+
+        private boolean isFull() {
+            return size >= capacity;
+        }
+
+        /**
+         * Returns an odd number independent of the low bits of the fingerprint, so that the bit indexes
+         * differ from each other.
+         */
+        private static long secondHash(long fingerprint) {
+            long hash = Long.rotateLeft(fingerprint, 32) * 0x9E3779B97F4A7C15L;
+            return (hash ^ (hash >>> 29)) | 1;
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package sg.edu.nus.comp.cs4218.impl.app.helper;
 
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import sg.edu.nus.comp.cs4218.exception.CutException;
+import sg.edu.nus.comp.cs4218.impl.util.ByteLineReader;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 /**
  * A helper class that provides functionality to cut out lines from InputStream.
@@ -26,12 +34,110 @@ public final class CutApplicationHelper {
      */
     public static List<String> cutSelectedPortions(Boolean isCharPo, Boolean isBytePo, List<int[]> ranges, InputStream stdin)
             throws IOException {
+        if (isBytePo && !isCharPo) {
+            return cutBytesFromStream(ranges, stdin);
+        }
         List<String> lines = IOUtils.getLinesFromInputStream(stdin);
         return lines.stream()
                 .map(line -> cutLine(isCharPo, isBytePo, ranges, line))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Cuts selected portions from the lines read from the input stream and writes each cut line to
+     * {@code writer} as soon as it has been read. When cutting by byte, the selected bytes are copied
+     * without being decoded.
+     *
+     * @param isCharPo Indicates whether the cut operation is performed based on character positions
+     * @param isBytePo Indicates whether the cut operation is performed based on byte positions
+     * @param ranges   List of integer arrays representing the start and end positions for each portion to cut
+     * @param stdin    InputStream to read lines from
+     * @param writer   LineWriter to write the cut lines to
+     * @return Number of lines written
+     * @throws CutException If an I/O error occurs while reading from the input stream
+     * @throws IOException  If the cut lines cannot be written
+     */
+    public static long writeSelectedPortions(Boolean isCharPo, Boolean isBytePo, List<int[]> ranges,
+                                             InputStream stdin, LineWriter writer) throws CutException, IOException {
+        long count = 0;
+        if (isBytePo && !isCharPo) {
+            ByteLineReader reader = new ByteLineReader(stdin);
+            while (readLine(reader)) {
+                forEachSelectedRange(ranges, reader, writer::write);
+                writer.newLine();
+                count++;
+            }
+            return count;
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stdin));
+        String line;
+        while ((line = readLine(reader)) != null) {
+            writer.writeLine(cutLine(isCharPo, isBytePo, ranges, line));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Cuts byte ranges from each line of the input stream. Lines are never decoded as a whole;
+     * only the selected bytes are turned into a String.
+     *
+     * @param ranges List of integer arrays representing the start and end byte positions for each portion to cut
+     * @param stdin  InputStream to read lines from
+     * @return List of strings representing the cut portions
+     * @throws IOException If an I/O error occurs while reading from the input stream
+     */
+    private static List<String> cutBytesFromStream(List<int[]> ranges, InputStream stdin) throws IOException {
+        List<String> output = new ArrayList<>();
+        ByteLineReader reader = new ByteLineReader(stdin);
+        StringBuilder cutLine = new StringBuilder();
+        while (reader.nextLine()) {
+            cutLine.setLength(0);
+            forEachSelectedRange(ranges, reader, (bytes, offset, length) ->
+                    cutLine.append(new String(bytes, offset, length)));
+            output.add(cutLine.toString());
+        }
+        return output;
+    }
+
+    /**
+     * Passes the bytes of the current line of {@code reader} that each range selects to {@code sink}, in the
+     * order of the ranges. Ranges that start past the end of the line select nothing.
+     *
+     * @param ranges List of integer arrays representing the start and end byte positions for each portion to cut
+     * @param reader ByteLineReader positioned on the line to cut
+     * @param sink   RangeSink to pass the selected bytes to
+     * @throws IOException If the sink cannot accept the bytes
+     */
+    private static void forEachSelectedRange(List<int[]> ranges, ByteLineReader reader, RangeSink sink)
+            throws IOException {
+        for (int[] range : ranges) {
+            int start = range[0] - 1; // 0-based index
+            if (start < 0 || start >= reader.length()) {
+                continue;
+            }
+            int limit = Math.min(range[1], reader.length());
+            sink.accept(reader.buffer(), reader.offset() + start, limit - start);
+        }
+    }
+
+    private static boolean readLine(ByteLineReader reader) throws CutException {
+        try {
+            return reader.nextLine();
+        } catch (IOException e) {
+            throw new CutException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private static String readLine(BufferedReader reader) throws CutException {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new CutException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
     /**
      * Cuts portions from the input line based on the specified criteria and ranges.
      *
@@ -77,4 +183,11 @@ public final class CutApplicationHelper {
             throw new IllegalArgumentException("You must specify either cut by character or byte");
         }
     }
+
+    /**
+     * Receives the bytes of a line selected by one range.
+     */
+    private interface RangeSink {
+        void accept(byte[] bytes, int offset, int length) throws IOException;
+    }
 }
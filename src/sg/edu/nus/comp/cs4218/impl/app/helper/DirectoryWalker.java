@@ -0,0 +1,260 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
+
+import sg.edu.nus.comp.cs4218.impl.util.RegexArgument;
+
+/**
+ * DirectoryWalker finds the files under the directories given to a recursive grep, in path order.
+ * <p>
+ * Each directory is listed by a task on a {@link ForkJoinPool}, which sorts the names in it, forks a task for
+ * each subdirectory and keeps the files to be searched. The files are returned depth first while the tasks for
+ * later directories are still running, so searching can start as soon as the first directory is listed, and
+ * the order of the files does not depend on the order in which the tasks finish.
+ * <p>
+ * A file is kept if its name matches one of the include globs, if there are any, and none of the exclude
+ * globs, and if there is no NUL byte in its first {@code SNIFF_SIZE} bytes, which marks it as binary. Symbolic
+ * links inside directories are skipped unless links are followed, and then only links back to a directory
+ * being walked are skipped. A directory that cannot be listed is returned as a file, so that the reason it
+ * cannot be searched is reported when it is.
+ */
+public final class DirectoryWalker {
+    private static final int SNIFF_SIZE = 8 * 1024;
+    private static final String SEPARATOR = "/";
+
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+    private final boolean isFollowingLinks;
+
+    /**
+     * Constructor for DirectoryWalker.
+     *
+     * @param includeGlobs     Globs of the names of files to search, or an empty list to search all files
+     * @param excludeGlobs     Globs of the names of files not to search
+     * @param isFollowingLinks Boolean option to follow symbolic links inside directories
+     */
+    public DirectoryWalker(List<String> includeGlobs, List<String> excludeGlobs, boolean isFollowingLinks) {
+        this.includes = compileGlobs(includeGlobs);
+        this.excludes = compileGlobs(excludeGlobs);
+        this.isFollowingLinks = isFollowingLinks;
+    }
+
+    /**
+     * Returns the files to search for the arguments, which are the arguments themselves, except that each
+     * directory is replaced by the files under it.
+     *
+     * @param pool      ForkJoinPool to list directories on
+     * @param fileNames a String Array of file names supplied by user
+     * @return an Iterator over the names of the files to search, in order
+     */
+    public Iterator<String> walk(ForkJoinPool pool, String... fileNames) {
+        return new FileIterator(pool, fileNames);
+    }
+
+    /**
+     * Checks if a file found in a directory is to be searched.
+     *
+     * @param name Name of the file, without its directory
+     * @param path Path of the file
+     * @return true if the file is to be searched, false otherwise
+     */
+    boolean isSearched(String name, Path path) {
+        return (includes.isEmpty() || matchesAny(includes, name)) && !matchesAny(excludes, name)
+                && !isBinary(path);
+    }
+
+    private static List<Pattern> compileGlobs(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            patterns.add(RegexArgument.compileGlob(glob));
+        }
+        return patterns;
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if there is a NUL byte near the start of a file. A file that cannot be read is not binary, so
+     * that the reason it cannot be read is reported when it is searched.
+     */
+    private static boolean isBinary(Path path) {
+        byte[] buffer = new byte[SNIFF_SIZE];
+        try (InputStream input = Files.newInputStream(path)) {
+            int length = input.readNBytes(buffer, 0, SNIFF_SIZE);
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == 0) {
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return false;
+    }
+
+    /**
+     * A file to search, or a directory whose files are to be searched in its place.
+     */
+    private static final class Entry {
+        private final String fileName;
+        private final DirectoryTask directory;
+
+        private Entry(String fileName, DirectoryTask directory) {
+            this.fileName = fileName;
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Lists one directory, forking a task for each of its subdirectories.
+     */
+    private static final class DirectoryTask extends RecursiveTask<List<Entry>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient DirectoryWalker walker;
+        private final String fileName;
+        private final transient Path path;
+        private final transient Path realPath;
+        private final transient DirectoryTask parent;
+
+        private DirectoryTask(DirectoryWalker walker, String fileName, Path path, DirectoryTask parent) {
+            super();
+            this.walker = walker;
+            this.fileName = fileName;
+            this.path = path;
+            this.realPath = walker.isFollowingLinks ? toRealPath(path) : path;
+            this.parent = parent;
+        }
+
+        @Override
+        protected List<Entry> compute() {
+            String[] names = path.toFile().list();
+            if (names == null) {
+                return Collections.singletonList(new Entry(fileName, null));
+            }
+            Arrays.sort(names);
+            String base = fileName.endsWith(SEPARATOR) || fileName.endsWith(File.separator)
+                    ? fileName : fileName + SEPARATOR;
+            List<Entry> entries = new ArrayList<>(names.length);
+            for (String name : names) {
+                Path child = path.resolve(name);
+                if (!walker.isFollowingLinks && Files.isSymbolicLink(child)) {
+                    continue;
+                }
+                if (Files.isDirectory(child)) {
+                    DirectoryTask task = new DirectoryTask(walker, base + name, child, this);
+                    if (!task.isCycle()) {
+                        task.fork();
+                        entries.add(new Entry(null, task));
+                    }
+                } else if (Files.isRegularFile(child) && walker.isSearched(name, child)) {
+                    entries.add(new Entry(base + name, null));
+                }
+            }
+            return entries;
+        }
+
+        /**
+         * Checks if this directory is also one of the directories it is in, through a symbolic link.
+         */
+        private boolean isCycle() {
+            for (DirectoryTask ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor.realPath.equals(realPath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Path toRealPath(Path path) {
+            try {
+                return path.toRealPath();
+            } catch (IOException e) {
+                return path.toAbsolutePath();
+            }
+        }
+    }
+
+    /**
+     * Returns the arguments in order, replacing each directory by its files depth first, and waiting for the
+     * listing of each directory only when its turn comes.
+     */
+    private final class FileIterator implements Iterator<String> {
+        private final ForkJoinPool pool;
+        private final String[] fileNames;
+        private final Deque<Iterator<Entry>> directories = new ArrayDeque<>();
+        private int nextFileName;
+        private String next;
+
+        private FileIterator(ForkJoinPool pool, String... fileNames) {
+            this.pool = pool;
+            this.fileNames = fileNames;
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String current = next;
+            next = advance();
+            return current;
+        }
+
+        private String advance() {
+            while (!directories.isEmpty() || nextFileName < fileNames.length) {
+                if (directories.isEmpty()) {
+                    String fileName = fileNames[nextFileName++];
+                    Path path = Paths.get(GrepApplicationHelper.convertToAbsolutePath(fileName));
+                    if (!Files.isDirectory(path)) {
+                        return fileName;
+                    }
+                    DirectoryTask task = new DirectoryTask(DirectoryWalker.this, fileName, path, null);
+                    pool.execute(task);
+                    directories.push(task.join().iterator());
+                    continue;
+                }
+                Iterator<Entry> entries = directories.peek();
+                if (!entries.hasNext()) {
+                    directories.pop();
+                    continue;
+                }
+                Entry entry = entries.next();
+                if (entry.directory == null) {
+                    return entry.fileName;
+                }
+                directories.push(entry.directory.join().iterator());
+            }
+            return null;
+        }
+    }
+}
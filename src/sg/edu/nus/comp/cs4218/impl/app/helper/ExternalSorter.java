@@ -0,0 +1,352 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.DEFAULT_PARALLELISM;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import sg.edu.nus.comp.cs4218.exception.SortException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMerger.LineSink;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+/**
+ * ExternalSorter sorts lines that may not fit in memory.
+ * <p>
+ * Lines are buffered in memory until their estimated size reaches the memory limit. The buffered lines are
+ * then sorted and spilled to a temporary file as a sorted run. When the output is requested, the runs are
+ * merged with a heap, at most {@code MAX_MERGE_FAN_IN} at a time. If no run was ever spilled the lines are
+ * sorted and written directly, which is the same as sorting in memory.
+ * <p>
+ * The output is identical to {@link SortApplicationHelper#sortLines}: lines that compare equal keep their
+ * input order, or the opposite of it when sorting in reverse order without -s. Runs are stored as UTF-8 so
+ * that no line is changed by a round trip through a temporary file.
+ * <p>
+ * If only identical lines compare equal, or with -u, the first {@code SAMPLE_SIZE} lines are sampled. If few
+ * of them are distinct, lines are from then on buffered as a map of each distinct line to the number of
+ * times it was added. Only the distinct lines are sorted, and each is written as many times as it was
+ * added, or once with -u, so the time and memory used depend on the number of distinct lines instead of the
+ * number of lines. With -u, only the first of the lines that compare equal is written.
+ */
+public final class ExternalSorter implements Closeable {
+    public static final int MAX_MERGE_FAN_IN = 64;
+    // Number of lines sampled to decide whether to collapse duplicate lines.
+    public static final int SAMPLE_SIZE = 1 << 12;
+    // Duplicate lines are collapsed if the sampled lines have at most this many distinct lines.
+    private static final int MAX_SAMPLE_DISTINCT = SAMPLE_SIZE / 8;
+
+    // Estimated bytes used by a buffered line in addition to its characters: the String and array headers,
+    // the String fields and the reference held by the list.
+    private static final long LINE_OVERHEAD = 56;
+    // Estimated bytes used by a collapsed line in addition to its characters: the line itself, the map entry
+    // and its count.
+    private static final long ENTRY_OVERHEAD = LINE_OVERHEAD + 64;
+    private static final String RUN_PREFIX = "sort";
+    private static final String RUN_SUFFIX = ".run";
+
+    private final SortOrder order;
+    private final long memoryLimit;
+    private final Path tempDir;
+    private final int parallelism;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Path> tempFiles = new ArrayList<>();
+    private List<String> lines = new ArrayList<>();
+    private Map<String, long[]> counts; // distinct lines in the order first added, or null if not collapsing
+    private Set<String> sample; // distinct lines sampled so far, or null if not sampling
+    private long bufferedBytes;
+
+    /**
+     * Constructor for ExternalSorter that sorts large runs on {@code DEFAULT_PARALLELISM} threads.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param memoryLimit       Estimated number of bytes of lines to buffer before spilling a run
+     * @param tempDir           Directory to create the temporary run files in
+     */
+    public ExternalSorter(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
+                          long memoryLimit, Path tempDir) {
+        this(new SortOrder(isFirstWordNumber, isReverseOrder, isCaseIndependent), memoryLimit, tempDir,
+                DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Constructor for ExternalSorter.
+     *
+     * @param order       SortOrder giving the order of lines
+     * @param memoryLimit Estimated number of bytes of lines to buffer before spilling a run
+     * @param tempDir     Directory to create the temporary run files in
+     * @param parallelism Maximum number of threads to sort the buffered lines with
+     */
+    public ExternalSorter(SortOrder order, long memoryLimit, Path tempDir, int parallelism) {
+        this.order = order;
+        this.memoryLimit = memoryLimit;
+        this.tempDir = tempDir;
+        this.parallelism = parallelism;
+        if (order.isTotal() || order.isUnique()) {
+            this.sample = new HashSet<>();
+        }
+    }
+
+    /**
+     * Adds a line to be sorted, spilling the buffered lines to a run if the memory limit is reached.
+     *
+     * @param line Line to add
+     * @throws SortException If a run cannot be written
+     */
+    public void add(String line) throws SortException {
+        if (counts != null) {
+            addDistinct(line);
+            return;
+        }
+        lines.add(line);
+        bufferedBytes += LINE_OVERHEAD + 2L * line.length();
+        if (sample != null) {
+            addSample(line);
+        }
+        if (bufferedBytes >= memoryLimit) {
+            spill();
+        }
+    }
+
+    /**
+     * Returns the number of runs spilled to temporary files so far.
+     *
+     * @return Number of runs
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Checks if duplicate lines are collapsed into counts of distinct lines.
+     *
+     * @return true if duplicate lines are collapsed, false otherwise
+     */
+    public boolean isCollapsingDuplicates() {
+        return counts != null;
+    }
+
+    /**
+     * Writes all added lines in sorted order.
+     *
+     * @param writer LineWriter to write the sorted lines to
+     * @throws SortException If a run cannot be read or written
+     * @throws IOException   If the sorted lines cannot be written to {@code writer}
+     */
+    public void writeTo(LineWriter writer) throws SortException, IOException {
+        // Lines that compare equal are in reverse input order with -r, so the last of them came first.
+        UniqueLineSink unique = order.isUnique()
+                ? new UniqueLineSink(order, order.isInputOrderReversed(), writer::writeLine)
+                : null;
+        LineSink sink = unique == null ? writer::writeLine : unique;
+        if (runs.isEmpty()) {
+            sortBuffered(sink);
+        } else {
+            if (!lines.isEmpty() || counts != null && !counts.isEmpty()) {
+                spill();
+            }
+            while (runs.size() > MAX_MERGE_FAN_IN) {
+                mergePass();
+            }
+            merge(runs, sink);
+        }
+        if (unique != null) {
+            unique.finish();
+        }
+    }
+
+    /**
+     * Deletes all temporary files created by this ExternalSorter.
+     *
+     * @throws IOException If a temporary file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (Path file : tempFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        tempFiles.clear();
+        runs.clear();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Adds a line to the sample, and decides whether to collapse duplicate lines once enough lines are
+     * sampled. Sampling stops early once too many distinct lines are seen.
+     */
+    private void addSample(String line) {
+        sample.add(line);
+        if (sample.size() > MAX_SAMPLE_DISTINCT) {
+            sample = null;
+        } else if (lines.size() == SAMPLE_SIZE) {
+            sample = null;
+            List<String> sampled = lines;
+            lines = new ArrayList<>();
+            bufferedBytes = 0;
+            counts = new LinkedHashMap<>();
+            for (String sampledLine : sampled) {
+                counts.computeIfAbsent(sampledLine, key -> {
+                    bufferedBytes += ENTRY_OVERHEAD + 2L * key.length();
+                    return new long[1];
+                })[0]++;
+            }
+        }
+    }
+
+    /**
+     * Counts a line in the collapsed lines, spilling them to a run if the memory limit is reached.
+     */
+    private void addDistinct(String line) throws SortException {
+        long[] count = counts.get(line);
+        if (count != null) {
+            count[0]++;
+            return;
+        }
+        counts.put(line, new long[]{1});
+        bufferedBytes += ENTRY_OVERHEAD + 2L * line.length();
+        if (bufferedBytes >= memoryLimit) {
+            spill();
+        }
+    }
+
+    /**
+     * Sorts the buffered lines and passes them to {@code sink} in sorted order. Collapsed lines are passed on
+     * as many times as they were added, or once with -u.
+     */
+    private void sortBuffered(LineSink sink) throws IOException {
+        if (counts == null) {
+            sortLines(order, lines, parallelism);
+            for (String line : lines) {
+                sink.accept(line);
+            }
+            return;
+        }
+        // Lines that compare equal stay in the order they were first added in.
+        List<String> distinct = new ArrayList<>(counts.keySet());
+        sortLines(order, distinct, parallelism);
+        for (String line : distinct) {
+            long count = order.isUnique() ? 1 : counts.get(line)[0];
+            for (long i = 0; i < count; i++) {
+                sink.accept(line);
+            }
+        }
+    }
+
+    /**
+     * Sorts the buffered lines and writes them to a new run.
+     */
+    private void spill() throws SortException {
+        sample = null;
+        Path run = createTempFile();
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            sortBuffered(line -> {
+                writer.write(line);
+                writer.newLine();
+            });
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        }
+        runs.add(run);
+        lines = new ArrayList<>();
+        if (counts != null) {
+            counts = new LinkedHashMap<>();
+        }
+        bufferedBytes = 0;
+    }
+
+    /**
+     * Merges consecutive groups of runs into single runs. Keeping the groups consecutive keeps the input order
+     * of equal lines.
+     */
+    private void mergePass() throws SortException {
+        List<Path> merged = new ArrayList<>();
+        for (int start = 0; start < runs.size(); start += MAX_MERGE_FAN_IN) {
+            List<Path> group = runs.subList(start, Math.min(start + MAX_MERGE_FAN_IN, runs.size()));
+            Path run = createTempFile();
+            try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+                merge(group, line -> {
+                    writer.write(line);
+                    writer.newLine();
+                });
+            } catch (IOException e) {
+                throw new SortException(ERR_IO_EXCEPTION, e);
+            }
+            for (Path file : group) {
+                deleteTempFile(file);
+            }
+            merged.add(run);
+        }
+        runs.clear();
+        runs.addAll(merged);
+    }
+
+    /**
+     * Merges the runs in order and passes each line to {@code sink}. The runs are in the sorted order of
+     * consecutive parts of the input, so equal lines are taken from earlier runs first, or from later runs
+     * first when sorting in reverse order without -s.
+     */
+    private void merge(List<Path> group, LineSink sink) throws SortException, IOException {
+        List<BufferedReader> readers = new ArrayList<>();
+        try {
+            for (Path run : group) {
+                readers.add(openRun(run));
+            }
+            LineMerger.merge(readers, order, order.isInputOrderReversed(), sink);
+        } finally {
+            for (BufferedReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Nothing more can be read from the run; it is deleted when the sorter is closed.
+                }
+            }
+        }
+    }
+
+    private BufferedReader openRun(Path run) throws SortException {
+        try {
+            return Files.newBufferedReader(run, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private Path createTempFile() throws SortException {
+        try {
+            Path file = Files.createTempFile(tempDir, RUN_PREFIX, RUN_SUFFIX);
+            tempFiles.add(file);
+            return file;
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private void deleteTempFile(Path file) throws SortException {
+        try {
+            Files.deleteIfExists(file);
+            tempFiles.remove(file);
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.util.List;
+
+/**
+ * FieldSortKey holds a line together with a {@link SortKey} for each of its key fields, located once when
+ * the key is created. The keys refer to regions of the line, so locating them does not copy the line.
+ * <p>
+ * Keys are compared in turn, each in the reverse order if it has the r option. If all keys are equal the
+ * whole lines are compared as Strings, unless the order is stable or unique. Without key fields, the key is the
+ * SortKey of the whole line, so a FieldSortKey orders lines in the same way as
+ * {@link SortApplicationHelper#getLineComparator(SortOrder)} for any SortOrder.
+ */
+public final class FieldSortKey implements Comparable<FieldSortKey> {
+    private final String line;
+    private final SortOrder order;
+    private final SortKey[] keys;
+
+    /**
+     * Constructor for FieldSortKey.
+     *
+     * @param line  Line to create the key of
+     * @param order SortOrder with the key fields to locate
+     */
+    public FieldSortKey(String line, SortOrder order) {
+        this.line = line;
+        this.order = order;
+        if (!order.hasKeyFields()) {
+            this.keys = new SortKey[]{new SortKey(line, order.isFirstWordNumber(), order.isCaseIndependent())};
+            return;
+        }
+        List<KeyField> keyFields = order.getKeyFields();
+        this.keys = new SortKey[keyFields.size()];
+        for (int i = 0; i < keys.length; i++) {
+            KeyField field = keyFields.get(i);
+            int start = field.getStart(line, order.getSeparator());
+            int end = field.getEnd(line, order.getSeparator(), start);
+            keys[i] = new SortKey(line, start, end, field.isFirstWordNumber(), field.isCaseIndependent());
+        }
+    }
+
+    /**
+     * Returns the line this key was created from.
+     *
+     * @return The line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    @Override
+    public int compareTo(FieldSortKey other) {
+        if (!order.hasKeyFields()) {
+            return keys[0].compareTo(other.keys[0]);
+        }
+        List<KeyField> keyFields = order.getKeyFields();
+        for (int i = 0; i < keys.length; i++) {
+            int result = keys[i].compareTo(other.keys[i]);
+            if (result != 0) {
+                return keyFields.get(i).isReverseOrder() ? -result : result;
+            }
+        }
+        return order.isStable() || order.isUnique() ? 0 : line.compareTo(other.line);
+    }
+}
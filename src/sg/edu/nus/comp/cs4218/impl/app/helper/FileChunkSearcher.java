@@ -0,0 +1,126 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.util.FileRangeInputStream;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+/**
+ * FileChunkSearcher searches a single large file for grep on several threads at once.
+ * <p>
+ * The file is split into chunks of about {@code chunkSize} bytes, each ending just after a newline, so that
+ * every line lies in one chunk. Each chunk is searched into its own buffer on the pool, at most
+ * {@code CHUNKS_PER_THREAD} chunks per thread ahead of the chunk being written, through a mapping of the
+ * chunk if {@link MappedFileSearcher} supports the pattern, or else with positional reads on one shared
+ * {@link FileChannel}. The buffers are written in the order of the chunks and the counts are summed, so the
+ * results are the same as searching the file from start to end.
+ */
+public final class FileChunkSearcher {
+    public static final long DEFAULT_MIN_FILE_SIZE = 64L << 20;
+    public static final long DEFAULT_CHUNK_SIZE = 8L << 20;
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private final ExecutorService pool;
+    private final int parallelism;
+    private final long minFileSize;
+    private final long chunkSize;
+
+    /**
+     * Constructor for FileChunkSearcher.
+     *
+     * @param pool        ExecutorService to search chunks on, whose tasks must not wait for other tasks
+     * @param parallelism Number of threads of {@code pool}
+     * @param minFileSize Size in bytes from which a file is searched in chunks
+     * @param chunkSize   Size in bytes after which each chunk ends at the next newline
+     */
+    public FileChunkSearcher(ExecutorService pool, int parallelism, long minFileSize, long chunkSize) {
+        this.pool = pool;
+        this.parallelism = parallelism;
+        this.minFileSize = minFileSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Checks if a file is large enough to be searched in chunks.
+     *
+     * @param size Size of the file in bytes
+     * @return true if the file should be searched in chunks, false otherwise
+     */
+    public boolean isChunked(long size) {
+        return size >= minFileSize;
+    }
+
+    /**
+     * Writes each line of a file that matches the pattern to writer, prefixed with prefix.
+     *
+     * @param compiledPattern pattern to match lines against
+     * @param prefix          text to write before each matching line
+     * @param path            Path of the file to search
+     * @param writer          a LineWriter for the matching lines, or null to only count them
+     * @return the number of matching lines
+     * @throws GrepException If the file cannot be read
+     * @throws IOException   If the file cannot be opened or the matching lines cannot be written
+     */
+    public long writeMatchingLines(GrepPattern compiledPattern, String prefix, Path path, LineWriter writer)
+            throws GrepException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Deque<Future<ChunkResults>> pending = new ArrayDeque<>();
+            long count = 0;
+            long start = 0;
+            while (start < size || !pending.isEmpty()) {
+                while (start < size && pending.size() < parallelism * CHUNKS_PER_THREAD) {
+                    long chunkStart = start;
+                    long chunkEnd = start + chunkSize >= size ? size
+                            : MappedFileSearcher.lineEnd(channel, start + chunkSize, size);
+                    pending.add(pool.submit(() ->
+                            searchChunk(compiledPattern, prefix, channel, chunkStart, chunkEnd, writer != null)));
+                    start = chunkEnd;
+                }
+                ChunkResults results = GrepApplicationHelper.getResults(pending.remove());
+                if (writer != null) {
+                    writer.write(results.lines);
+                }
+                count += results.count;
+            }
+            return count;
+        }
+    }
+
+    private static ChunkResults searchChunk(GrepPattern compiledPattern, String prefix, FileChannel channel,
+                                            long start, long end, boolean hasLines)
+            throws GrepException, IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        long count;
+        try (LineWriter writer = new LineWriter(lines)) {
+            count = MappedFileSearcher.isSupported(compiledPattern)
+                    ? MappedFileSearcher.writeMatchingLines(compiledPattern, prefix, channel, start, end,
+                    hasLines ? writer : null)
+                    : GrepApplicationHelper.writeMatchingLines(compiledPattern, prefix,
+                    new FileRangeInputStream(channel, start, end), hasLines ? writer : null);
+        }
+        return new ChunkResults(lines.toByteArray(), count);
+    }
+
+    /**
+     * The matching lines of one chunk, as they would have been written, and their number.
+     */
+    private static final class ChunkResults {
+        private final byte[] lines;
+        private final long count;
+
+        private ChunkResults(byte[] lines, long count) {
+            this.lines = lines;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+/**
+ * FingerprintSet is a set of 64-bit line fingerprints, for uniq --global.
+ * <p>
+ * The fingerprints are stored in an open-addressing hash table of primitive longs with linear probing, so
+ * each fingerprint takes 8 to 16 bytes without any object per fingerprint. The table doubles whenever it is
+ * three quarters full. The set is full once doubling would take the table past {@code maxBytes}, and it only
+ * grows further if fingerprints are still added after that.
+ */
+public final class FingerprintSet {
+    private static final int MIN_CAPACITY = 16;
+    // Empty slots hold 0, so the fingerprint 0 is kept outside the table.
+    private static final long EMPTY = 0;
+
+    private final long maxBytes;
+    private long[] table = new long[MIN_CAPACITY];
+    private int size;
+    private boolean hasEmpty;
+
+    /**
+     * Constructor for FingerprintSet.
+     *
+     * @param maxBytes Number of bytes the table may grow to
+     */
+    public FingerprintSet(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds a fingerprint to the set. If the set is full and the fingerprint is not in it, the table grows past
+     * {@code maxBytes}.
+     *
+     * @param fingerprint Fingerprint to add
+     * @return true if the fingerprint was not in the set, false otherwise
+     */
+    public boolean add(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            boolean isAdded = !hasEmpty;
+            hasEmpty = true;
+            return isAdded;
+        }
+        int mask = table.length - 1;
+        int slot = slotOf(fingerprint) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == fingerprint) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (isLoaded()) {
+            resize(table.length * 2);
+            slot = slotOf(fingerprint) & (table.length - 1);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+        }
+        table[slot] = fingerprint;
+        size++;
+        if (isLoaded() && canGrow()) {
+            resize(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a fingerprint is in the set.
+     *
+     * @param fingerprint Fingerprint to look for
+     * @return true if the fingerprint is in the set, false otherwise
+     */
+    public boolean contains(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            return hasEmpty;
+        }
+        int mask = table.length - 1;
+        int slot = slotOf(fingerprint) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == fingerprint) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of fingerprints in the set.
+     *
+     * @return Number of fingerprints
+     */
+    public long size() {
+        return hasEmpty ? size + 1L : size;
+    }
+
+    /**
+     * Checks if the table has reached {@code maxBytes}, so that it has to grow past them to keep the cost of
+     * an add or lookup constant.
+     *
+     * @return true if the set is full, false otherwise
+     */
+    public boolean isFull() {
+        return isLoaded() && !canGrow();
+    }
+
+    private boolean isLoaded() {
+        return size * 4L >= table.length * 3L;
+    }
+
+    private boolean canGrow() {
+        return Long.BYTES * 2L * table.length <= maxBytes;
+    }
+
+    private void resize(int capacity) {
+        long[] oldTable = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long fingerprint : oldTable) {
+            if (fingerprint == EMPTY) {
+                continue;
+            }
+            int slot = slotOf(fingerprint) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = fingerprint;
+        }
+    }
+
+    private static int slotOf(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+}
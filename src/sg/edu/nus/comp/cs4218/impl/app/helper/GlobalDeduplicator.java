@@ -0,0 +1,405 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import sg.edu.nus.comp.cs4218.exception.UniqException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMerger.LineSink;
+
+/**
+ * GlobalDeduplicator removes repeated lines wherever they are in the input, for uniq --global. The first
+ * occurrence of every line is kept, in input order.
+ * <p>
+ * Lines are compared by their 64-bit {@link #fingerprint}, so two different lines are taken to be the same
+ * with a probability of about 2^-64 for each pair of distinct lines. The fingerprints of the lines seen so
+ * far are kept in a {@link FingerprintSet}, and each line not seen before is passed on as soon as it is read.
+ * If the set fills up its memory limit, the lines after that are no longer passed on straight away. The ones
+ * not in the set are instead written with their line numbers to one of {@code PARTITION_COUNT} temporary
+ * files chosen by bits of the fingerprint, so that all copies of a line are in the same file. Once the input
+ * ends, the set is dropped and each file is deduplicated in the same way with its own set, using the next
+ * bits of the fingerprint if it has to be partitioned again. The lines kept from each file are in input
+ * order, and are merged by line number into input order.
+ */
+public final class GlobalDeduplicator implements Closeable {
+    public static final int PARTITION_COUNT = 16;
+    private static final int PARTITION_BITS = Integer.numberOfTrailingZeros(PARTITION_COUNT);
+    // The deepest level has no bits of the fingerprint left to partition by, so its set is not limited.
+    private static final int MAX_LEVEL = Long.SIZE / PARTITION_BITS - 1;
+    private static final String PARTITION_PREFIX = "uniq";
+    private static final String PARTITION_SUFFIX = ".part";
+
+    private final long memoryLimit;
+    private final Path tempDir;
+    private final List<Path> tempFiles = new ArrayList<>();
+    private int partitionedCount;
+
+    /**
+     * Constructor for GlobalDeduplicator.
+     *
+     * @param memoryLimit Number of bytes the set of fingerprints may use before the lines are partitioned
+     * @param tempDir     Directory to create the temporary partition files in
+     */
+    public GlobalDeduplicator(long memoryLimit, Path tempDir) {
+        this.memoryLimit = memoryLimit;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of a line. The characters are mixed four at a time, and the result is
+     * finalised so that every bit depends on every character.
+     *
+     * @param line Line to fingerprint
+     * @return Fingerprint of the line
+     */
+    public static long fingerprint(CharSequence line) {
+        int length = line.length();
+        long hash = length;
+        int index = 0;
+        for (; index + 4 <= length; index += 4) {
+            long block = line.charAt(index)
+                    | (long) line.charAt(index + 1) << 16
+                    | (long) line.charAt(index + 2) << 32
+                    | (long) line.charAt(index + 3) << 48;
+            hash = mixBlock(hash, block);
+        }
+        if (index < length) {
+            long block = 0;
+            for (int shift = 0; index < length; index++, shift += 16) {
+                block |= (long) line.charAt(index) << shift;
+            }
+            hash = mixBlock(hash, block);
+        }
+        return finalise(hash);
+    }
+
+    /**
+     * Passes on the first occurrence of every line read from {@code source}, in input order.
+     *
+     * @param source LineSource to read the lines from
+     * @param sink   LineSink to pass the lines kept to
+     * @throws UniqException If {@code source} cannot be read, or a partition file cannot be read or written
+     * @throws IOException   If {@code sink} fails
+     */
+    public void deduplicate(LineSource source, LineSink sink) throws UniqException, IOException {
+        long[] lineNumber = {0};
+        deduplicate(() -> {
+            String line = source.nextLine();
+            return line == null ? null : new Record(lineNumber[0]++, fingerprint(line), line);
+        }, 0, record -> sink.accept(record.line));
+    }
+
+    /**
+     * Returns the number of times the lines had to be partitioned so far.
+     *
+     * @return Number of times the lines were partitioned
+     */
+    public int getPartitionedCount() {
+        return partitionedCount;
+    }
+
+    /**
+     * Deletes all temporary files created by this GlobalDeduplicator.
+     *
+     * @throws IOException If a temporary file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (Path file : tempFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        tempFiles.clear();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void deduplicate(RecordSource source, int level, RecordSink sink) throws UniqException, IOException {
+        RecordWriter[] partitions = passOnFirstLines(source, level, sink);
+        if (partitions == null) {
+            return;
+        }
+        // Every line in the partitions comes after every line passed on so far.
+        List<RecordReader> kept = new ArrayList<>();
+        try {
+            for (RecordWriter partition : partitions) {
+                kept.add(deduplicatePartition(partition, level + 1));
+            }
+            merge(kept, sink);
+        } finally {
+            closeAll(kept.toArray(new RecordReader[0]));
+        }
+    }
+
+    /**
+     * Passes on each line not seen before until the set of fingerprints is full, and partitions the lines not
+     * in the set after that.
+     *
+     * @return The partitions, which are closed, or null if the set never filled up
+     */
+    private RecordWriter[] passOnFirstLines(RecordSource source, int level, RecordSink sink)
+            throws UniqException, IOException {
+        FingerprintSet seen = new FingerprintSet(level == MAX_LEVEL ? Long.MAX_VALUE : memoryLimit);
+        RecordWriter[] partitions = null;
+        try {
+            Record record;
+            while ((record = source.next()) != null) {
+                if (partitions != null) {
+                    if (!seen.contains(record.fingerprint)) {
+                        partitions[partitionOf(record.fingerprint, level)].write(record);
+                    }
+                } else if (seen.add(record.fingerprint)) {
+                    sink.accept(record);
+                    if (seen.isFull()) {
+                        partitions = createPartitions();
+                    }
+                }
+            }
+        } finally {
+            closeAll(partitions);
+        }
+        return partitions;
+    }
+
+    /**
+     * Deduplicates the lines of a partition into a new temporary file, and returns a reader of the new file.
+     */
+    private RecordReader deduplicatePartition(RecordWriter partition, int level) throws UniqException {
+        RecordWriter output = new RecordWriter(createTempFile());
+        try (RecordReader input = new RecordReader(partition.file, partition.count)) {
+            deduplicate(input::next, level, output::write);
+        } catch (IOException e) {
+            throw new UniqException(ERR_IO_EXCEPTION, e);
+        } finally {
+            closeAll(new RecordWriter[]{output});
+        }
+        deleteTempFile(partition.file);
+        return new RecordReader(output.file, output.count);
+    }
+
+    /**
+     * Merges the records of the readers, each of which is in input order, into input order.
+     */
+    private static void merge(List<RecordReader> readers, RecordSink sink) throws UniqException, IOException {
+        PriorityQueue<RecordReader> heap = new PriorityQueue<>(PARTITION_COUNT,
+                Comparator.comparingLong(reader -> reader.current.lineNumber));
+        for (RecordReader reader : readers) {
+            if (reader.advance()) {
+                heap.add(reader);
+            }
+        }
+        while (!heap.isEmpty()) {
+            RecordReader reader = heap.poll();
+            sink.accept(reader.current);
+            if (reader.advance()) {
+                heap.add(reader);
+            }
+        }
+    }
+
+    private RecordWriter[] createPartitions() throws UniqException {
+        partitionedCount++;
+        RecordWriter[] partitions = new RecordWriter[PARTITION_COUNT];
+        try {
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                partitions[i] = new RecordWriter(createTempFile());
+            }
+        } catch (UniqException e) {
+            closeAll(partitions);
+            throw e;
+        }
+        return partitions;
+    }
+
+    private static int partitionOf(long fingerprint, int level) {
+        return (int) (fingerprint >>> (Long.SIZE - PARTITION_BITS * (level + 1))) & (PARTITION_COUNT - 1);
+    }
+
+    private Path createTempFile() throws UniqException {
+        try {
+            Path file = Files.createTempFile(tempDir, PARTITION_PREFIX, PARTITION_SUFFIX);
+            tempFiles.add(file);
+            return file;
+        } catch (IOException e) {
+            throw new UniqException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private void deleteTempFile(Path file) throws UniqException {
+        try {
+            Files.deleteIfExists(file);
+            tempFiles.remove(file);
+        } catch (IOException e) {
+            throw new UniqException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private static void closeAll(Closeable... closeables) throws UniqException {
+        if (closeables == null) {
+            return;
+        }
+        IOException exception = null;
+        for (Closeable closeable : closeables) {
+            try {
+                if (closeable != null) {
+                    closeable.close();
+                }
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw new UniqException(ERR_IO_EXCEPTION, exception);
+        }
+    }
+
+    private static long mixBlock(long hash, long block) {
+        long mixed = Long.rotateLeft(block * 0x87C37B91114253D5L, 31) * 0x4CF5AD432745937FL;
+        return Long.rotateLeft(hash ^ mixed, 27) * 5 + 0x52DCE729;
+    }
+
+    private static long finalise(long hash) {
+        long result = hash;
+        result ^= result >>> 33;
+        result *= 0xFF51AFD7ED558CCDL;
+        result ^= result >>> 33;
+        result *= 0xC4CEB9FE1A85EC53L;
+        result ^= result >>> 33;
+        return result;
+    }
+
+    /**
+     * Reads the input one line at a time.
+     */
+    @FunctionalInterface
+    public interface LineSource {
+        /**
+         * Returns the next line of the input.
+         *
+         * @return Next line, or null at the end of the input
+         * @throws UniqException If the input cannot be read
+         */
+        String nextLine() throws UniqException;
+    }
+
+    private interface RecordSource {
+        Record next() throws UniqException;
+    }
+
+    private interface RecordSink {
+        void accept(Record record) throws UniqException, IOException;
+    }
+
+    /**
+     * A line with its number in the input and its fingerprint.
+     */
+    private static final class Record {
+        private final long lineNumber;
+        private final long fingerprint;
+        private final String line;
+
+        private Record(long lineNumber, long fingerprint, String line) {
+            this.lineNumber = lineNumber;
+            this.fingerprint = fingerprint;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Writes records to a temporary file, as the line number, the fingerprint and the line in UTF-8.
+     */
+    private static final class RecordWriter implements Closeable {
+        private final Path file;
+        private final DataOutputStream output;
+        private long count;
+
+        private RecordWriter(Path file) throws UniqException {
+            this.file = file;
+            try {
+                this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            } catch (IOException e) {
+                throw new UniqException(ERR_IO_EXCEPTION, e);
+            }
+        }
+
+        private void write(Record record) throws UniqException {
+            byte[] bytes = record.line.getBytes(StandardCharsets.UTF_8);
+            try {
+                output.writeLong(record.lineNumber);
+                output.writeLong(record.fingerprint);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            } catch (IOException e) {
+                throw new UniqException(ERR_IO_EXCEPTION, e);
+            }
+            count++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+
+    /**
+     * Reads the records written by a RecordWriter.
+     */
+    private static final class RecordReader implements Closeable {
+        private final DataInputStream input;
+        private long remaining;
+        private Record current;
+
+        private RecordReader(Path file, long count) throws UniqException {
+            this.remaining = count;
+            try {
+                this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            } catch (IOException e) {
+                throw new UniqException(ERR_IO_EXCEPTION, e);
+            }
+        }
+
+        private Record next() throws UniqException {
+            return advance() ? current : null;
+        }
+
+        private boolean advance() throws UniqException {
+            if (remaining == 0) {
+                current = null;
+                return false;
+            }
+            try {
+                long lineNumber = input.readLong();
+                long fingerprint = input.readLong();
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                current = new Record(lineNumber, fingerprint, new String(bytes, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UniqException(ERR_IO_EXCEPTION, e);
+            }
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
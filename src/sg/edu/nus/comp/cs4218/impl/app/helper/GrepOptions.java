@@ -0,0 +1,117 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GrepOptions holds the options of grep that take a value, as they are read from the arguments.
+ */
+public final class GrepOptions {
+    private final List<String> includeGlobs = new ArrayList<>();
+    private final List<String> excludeGlobs = new ArrayList<>();
+    private final List<String> patterns = new ArrayList<>();
+    private final List<String> patternFiles = new ArrayList<>();
+    private long maxCount = GrepOutput.NO_LIMIT;
+    private long minChunkedSize = FileChunkSearcher.DEFAULT_MIN_FILE_SIZE;
+    private long chunkSize = FileChunkSearcher.DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Returns the globs given with --include=GLOB.
+     *
+     * @return a List of the globs of the names of files to search recursively
+     */
+    public List<String> getIncludeGlobs() {
+        return includeGlobs;
+    }
+
+    /**
+     * Returns the globs given with --exclude=GLOB.
+     *
+     * @return a List of the globs of the names of files not to search recursively
+     */
+    public List<String> getExcludeGlobs() {
+        return excludeGlobs;
+    }
+
+    /**
+     * Returns the patterns given with -e PATTERN.
+     *
+     * @return a List of the patterns supplied by user as options
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns the names of the files given with -f FILE, which hold one pattern per line.
+     *
+     * @return a List of the names of the pattern files supplied by user
+     */
+    public List<String> getPatternFiles() {
+        return patternFiles;
+    }
+
+    /**
+     * Checks if patterns are given as options, in which case no argument is taken as the pattern.
+     *
+     * @return true if -e or -f is given, false otherwise
+     */
+    public boolean hasPatterns() {
+        return !patterns.isEmpty() || !patternFiles.isEmpty();
+    }
+
+    /**
+     * Returns the number given with -m, after which grep stops reading an input.
+     *
+     * @return the maximum number of matching lines per input, or {@code GrepOutput.NO_LIMIT}
+     */
+    public long getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * Sets the maximum number of matching lines to read from each input.
+     *
+     * @param maxCount the maximum number of matching lines per input
+     */
+    public void setMaxCount(long maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * Returns the size given with --chunk-min-size=SIZE, from which a file is split into chunks that are
+     * searched in parallel.
+     *
+     * @return the size in bytes from which a file is searched in chunks
+     */
+    public long getMinChunkedSize() {
+        return minChunkedSize;
+    }
+
+    /**
+     * Sets the size from which a file is searched in chunks.
+     *
+     * @param minChunkedSize the size in bytes from which a file is searched in chunks
+     */
+    public void setMinChunkedSize(long minChunkedSize) {
+        this.minChunkedSize = minChunkedSize;
+    }
+
+    /**
+     * Returns the size given with --chunk-size=SIZE, of each chunk a file is split into.
+     *
+     * @return the size in bytes after which each chunk ends at the next newline
+     */
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the size of each chunk a file is split into.
+     *
+     * @param chunkSize the size in bytes after which each chunk ends at the next newline
+     */
+    public void setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,147 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.IOException;
+
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+/**
+ * GrepOutput describes what grep writes for each input, and so how much of each input it has to read.
+ * <p>
+ * In {@code LINES} mode the matching lines are written to the line writer and their number to the count
+ * writer, either of which may be null, and each input is read up to its {@code maxCount}-th matching line.
+ * The other modes only need to know if an input has a matching line, so each input is read up to its first
+ * one, or not at all if {@code maxCount} is 0: {@code MATCHING_NAMES} and {@code NON_MATCHING_NAMES} write
+ * the names of the inputs that have one or not to the line writer, and {@code QUIET} writes nothing and stops
+ * at the first input that has one. The reason an input cannot be read is written to both writers in every
+ * mode.
+ */
+public final class GrepOutput {
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private final Mode mode;
+    private final LineWriter lineWriter;
+    private final LineWriter countWriter;
+    private final long maxCount;
+
+    /**
+     * Constructor for GrepOutput.
+     *
+     * @param mode        what to write for each input
+     * @param lineWriter  a LineWriter for the matching lines or file names, or null if they are not needed
+     * @param countWriter a LineWriter for the line counts, or null if they are not needed
+     * @param maxCount    the maximum number of matching lines to read from each input
+     */
+    public GrepOutput(Mode mode, LineWriter lineWriter, LineWriter countWriter, long maxCount) {
+        this.mode = mode;
+        this.lineWriter = lineWriter;
+        this.countWriter = countWriter;
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * Creates a GrepOutput for all the matching lines and their number.
+     *
+     * @param lineWriter  a LineWriter for the matching lines, or null if they are not needed
+     * @param countWriter a LineWriter for the line counts, or null if they are not needed
+     * @return the GrepOutput
+     */
+    public static GrepOutput of(LineWriter lineWriter, LineWriter countWriter) {
+        return new GrepOutput(Mode.LINES, lineWriter, countWriter, NO_LIMIT);
+    }
+
+    /**
+     * Returns the maximum number of matching lines to read from each input.
+     *
+     * @return the limit, or {@code NO_LIMIT} if each input is read to the end
+     */
+    public long getLimit() {
+        return mode == Mode.LINES ? maxCount : Math.min(maxCount, 1);
+    }
+
+    /**
+     * Checks if inputs may be read only in part.
+     *
+     * @return true if there is a limit on the number of matching lines, false otherwise
+     */
+    public boolean isLimited() {
+        return getLimit() != NO_LIMIT;
+    }
+
+    /**
+     * Checks if no input needs to be read after the first one that has a matching line.
+     *
+     * @return true in {@code QUIET} mode, false otherwise
+     */
+    public boolean isQuiet() {
+        return mode == Mode.QUIET;
+    }
+
+    /**
+     * Returns the writer for the matching lines themselves.
+     *
+     * @return the line writer in {@code LINES} mode, or null in other modes
+     */
+    public LineWriter getMatchWriter() {
+        return mode == Mode.LINES ? lineWriter : null;
+    }
+
+    /**
+     * Returns a GrepOutput of the same mode that writes to other writers, for the writers that are used.
+     */
+    GrepOutput withWriters(LineWriter lineWriter, LineWriter countWriter) {
+        return new GrepOutput(mode, this.lineWriter == null ? null : lineWriter,
+                this.countWriter == null ? null : countWriter, maxCount);
+    }
+
+    /**
+     * Writes the results of an input once its matching lines have been found.
+     *
+     * @param fileName the name of the input
+     * @param prefix   text to write before the count of matching lines
+     * @param count    the number of matching lines found, up to the limit
+     * @throws IOException If the results cannot be written
+     */
+    public void writeResults(String fileName, String prefix, long count) throws IOException {
+        if (mode == Mode.LINES && countWriter != null) {
+            countWriter.write(prefix).writeLong(count).newLine();
+        } else if (mode == Mode.MATCHING_NAMES && count > 0 || mode == Mode.NON_MATCHING_NAMES && count == 0) {
+            writeLineIfPresent(lineWriter, fileName);
+        }
+    }
+
+    /**
+     * Writes the reason an input cannot be read.
+     *
+     * @param error the error message
+     * @throws IOException If the message cannot be written
+     */
+    public void writeError(String error) throws IOException {
+        writeLineIfPresent(lineWriter, error);
+        writeLineIfPresent(countWriter, error);
+    }
+
+    /**
+     * Writes the output buffered through the writers of {@link #withWriters(LineWriter, LineWriter)}.
+     */
+    void writeBuffered(byte[] lines, byte[] counts) throws IOException {
+        if (lineWriter != null) {
+            lineWriter.write(lines);
+        }
+        if (countWriter != null) {
+            countWriter.write(counts);
+        }
+    }
+
+    private static void writeLineIfPresent(LineWriter writer, String line) throws IOException {
+        if (writer != null) {
+            writer.writeLine(line);
+        }
+    }
+
+    /**
+     * What grep writes for each input.
+     */
+    public enum Mode {
+        LINES, MATCHING_NAMES, NON_MATCHING_NAMES, QUIET
+    }
+}
@@ -0,0 +1,352 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_REGEX;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.util.PatternCache;
+
+/**
+ * GrepPattern is a compiled grep pattern, which decides whether a line matches.
+ * <p>
+ * A pattern without regular expression metacharacters, other than backslashes before punctuation, is a
+ * literal and is searched for with a {@link LiteralSearcher} instead of {@link Pattern}. ASCII literals are
+ * searched for directly in the bytes of each line, so matching lines need not be decoded at all. Other
+ * patterns are compiled with {@link Pattern} through the shared {@link PatternCache}, and if every match of
+ * one must contain a run of ASCII characters, that run is its byte filter: only lines in which the filter is
+ * found need to be decoded and matched against the regular expression.
+ * <p>
+ * Lines are matched against a regular expression with a {@link LinearRegex} whenever it supports the
+ * expression, so that the time taken is linear in the length of each line, and with the {@link Pattern}
+ * itself otherwise, which is needed for backreferences and lookarounds but may backtrack.
+ * <p>
+ * Several patterns given together match a line if any of them does. If they are all ASCII literals, they are
+ * searched for at once with a {@link MultiLiteralSearcher}, which reads each byte of a line once however
+ * many patterns there are, and also serves as the byte filter. Otherwise they are matched at once with one
+ * {@link LinearRegex} if it supports them all, or else each pattern is compiled on its own and tried in turn,
+ * so that backreferences keep referring to the groups of their own pattern.
+ * <p>
+ * A GrepPattern is immutable. The {@link LineFinder} it creates for text holds a reusable {@link Matcher},
+ * so each thread needs its own.
+ */
+public final class GrepPattern {
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final char ESCAPE = '\\';
+    private static final int ASCII_LIMIT = 0x80;
+    private static final String QUANTIFIERS = "?*{";
+    private static final String LINE_BREAKS = "\n\r";
+    // Escapes followed by more than one character, which cannot be told apart from literal characters.
+    private static final String LONG_ESCAPES = "xucpPkNQE0123456789";
+
+    private final Pattern regex;
+    private final LinearRegex linear;
+    private final LiteralSearcher literal;
+    private final LiteralSearcher filter;
+    private final MultiLiteralSearcher literals;
+    private final List<GrepPattern> alternatives;
+
+    private GrepPattern(Pattern regex, LinearRegex linear, LiteralSearcher literal, LiteralSearcher filter) {
+        this.regex = regex;
+        this.linear = linear;
+        this.literal = literal;
+        this.filter = filter != null && filter.isByteSearchable() ? filter : null;
+        this.literals = null;
+        this.alternatives = null;
+    }
+
+    private GrepPattern(MultiLiteralSearcher literals, List<GrepPattern> alternatives) {
+        this.regex = null;
+        this.linear = null;
+        this.literal = null;
+        this.filter = null;
+        this.literals = literals;
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * Compiles a grep pattern.
+     *
+     * @param pattern           Regular expression supplied by user
+     * @param isCaseInsensitive Boolean option to ignore differences in case
+     * @return the compiled GrepPattern
+     * @throws GrepException If the pattern is not a valid regular expression
+     */
+    public static GrepPattern compile(String pattern, boolean isCaseInsensitive) throws GrepException {
+        String text = toLiteral(pattern);
+        if (text != null) {
+            LiteralSearcher literal = new LiteralSearcher(text, isCaseInsensitive);
+            return new GrepPattern(null, null, literal, isSingleLine(text) ? literal : null);
+        }
+        Pattern regex;
+        try {
+            regex = PatternCache.shared().compile(pattern, isCaseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+        } catch (PatternSyntaxException pse) {
+            throw new GrepException(ERR_INVALID_REGEX, pse);
+        }
+        String required = requiredLiteral(pattern);
+        LiteralSearcher filter = required == null || required.isEmpty() || !isSingleLine(required)
+                ? null : new LiteralSearcher(required, isCaseInsensitive);
+        return new GrepPattern(regex, LinearRegex.compile(pattern, isCaseInsensitive), null, filter);
+    }
+
+    /**
+     * Compiles several grep patterns into one that matches a line if any of them does. No patterns match no
+     * lines.
+     *
+     * @param patterns          Regular expressions supplied by user
+     * @param isCaseInsensitive Boolean option to ignore differences in case
+     * @return the compiled GrepPattern
+     * @throws GrepException If a pattern is not a valid regular expression
+     */
+    public static GrepPattern compile(List<String> patterns, boolean isCaseInsensitive) throws GrepException {
+        if (patterns.size() == 1) {
+            return compile(patterns.get(0), isCaseInsensitive);
+        }
+        List<String> texts = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            String text = toLiteral(pattern);
+            if (text == null || text.isEmpty() || !MultiLiteralSearcher.isSupported(text)) {
+                break;
+            }
+            texts.add(text);
+        }
+        if (!texts.isEmpty() && texts.size() == patterns.size()) {
+            return new GrepPattern(new MultiLiteralSearcher(texts, isCaseInsensitive), null);
+        }
+        List<GrepPattern> alternatives = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            alternatives.add(compile(pattern, isCaseInsensitive));
+        }
+        LinearRegex linear = LinearRegex.compile(patterns, isCaseInsensitive);
+        if (linear != null) {
+            return new GrepPattern(null, linear, null, null);
+        }
+        return new GrepPattern(null, alternatives);
+    }
+
+    /**
+     * Checks if lines can be matched as bytes encoded with the platform default charset.
+     *
+     * @return true if {@link #find(byte[], int, int)} can be used, false otherwise
+     */
+    public boolean isByteSearchable() {
+        return literal != null && literal.isByteSearchable() || literals != null;
+    }
+
+    /**
+     * Checks if lines can be filtered as bytes, so that only lines in which the filter is found need to be
+     * matched. If the pattern is also {@link #isByteSearchable()}, those lines are the matching lines.
+     *
+     * @return true if {@link #findFilter(ByteBuffer, int, int)} can be used, false otherwise
+     */
+    public boolean hasByteFilter() {
+        return filter != null || literals != null;
+    }
+
+    /**
+     * Finds the first occurrence of the byte filter in a range of a buffer. Only valid if
+     * {@link #hasByteFilter()}.
+     *
+     * @param buffer ByteBuffer holding lines, read with absolute gets
+     * @param from   Index of the first byte to search
+     * @param to     Index after the last byte to search
+     * @return Index of a byte of the first occurrence at or after {@code from}, or -1 if there is none
+     */
+    public int findFilter(ByteBuffer buffer, int from, int to) {
+        if (literals != null) {
+            return literals.indexOf(buffer, from, to);
+        }
+        return filter.indexOf(buffer, from, to);
+    }
+
+    /**
+     * Checks if a line held as bytes matches. Only valid if {@link #isByteSearchable()}.
+     *
+     * @param bytes  Array holding the line
+     * @param offset Index of the first byte of the line
+     * @param length Number of bytes in the line
+     * @return true if the line matches, false otherwise
+     */
+    public boolean find(byte[] bytes, int offset, int length) {
+        if (literals != null) {
+            return literals.indexOf(bytes, offset, offset + length) >= 0;
+        }
+        return literal.indexOf(bytes, offset, offset + length) >= 0;
+    }
+
+    /**
+     * Creates a LineFinder for lines held as text, to be used by one thread at a time.
+     *
+     * @return a new LineFinder
+     */
+    public LineFinder newFinder() {
+        if (literal != null) {
+            return literal::contains;
+        }
+        if (literals != null) {
+            return literals::contains;
+        }
+        if (linear != null) {
+            return linear.newFinder();
+        }
+        if (alternatives != null) {
+            LineFinder[] finders = new LineFinder[alternatives.size()];
+            for (int i = 0; i < finders.length; i++) {
+                finders[i] = alternatives.get(i).newFinder();
+            }
+            return line -> findAny(finders, line);
+        }
+        Matcher matcher = regex.matcher("");
+        return line -> matcher.reset(line).find();
+    }
+
+    private static boolean findAny(LineFinder[] finders, CharSequence line) {
+        for (LineFinder finder : finders) {
+            if (finder.find(line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the text a pattern matches if it is a literal, or null if it has metacharacters. A backslash
+     * before ASCII punctuation only quotes it, but a backslash before a letter or digit starts a construct.
+     */
+    private static String toLiteral(String pattern) {
+        StringBuilder text = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            char chr = pattern.charAt(i);
+            if (chr == ESCAPE && i + 1 < pattern.length() && isQuotable(pattern.charAt(i + 1))) {
+                text.append(pattern.charAt(++i));
+            } else if (METACHARACTERS.indexOf(chr) >= 0) {
+                return null;
+            } else {
+                text.append(chr);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns the longest run of literal characters that every match of a regular expression contains, or
+     * null if the expression is not understood well enough to tell. Only runs outside groups and character
+     * classes count, a character followed by {@code ?}, {@code *} or a {@code {n,m}} quantifier is optional,
+     * and an expression with an alternative at the top level or with inline flags has no such run.
+     */
+    private static String requiredLiteral(String regex) {
+        String longest = "";
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        int index = 0;
+        while (index < regex.length()) {
+            char chr = regex.charAt(index++);
+            if (chr == ESCAPE) {
+                if (index == regex.length()) {
+                    return null;
+                }
+                char escaped = regex.charAt(index++);
+                if (LONG_ESCAPES.indexOf(escaped) >= 0) {
+                    return null;
+                }
+                if (depth == 0 && isQuotable(escaped)) {
+                    run.append(escaped);
+                    continue;
+                }
+            } else if (chr == '[') {
+                index = skipClass(regex, index);
+                if (index < 0) {
+                    return null;
+                }
+            } else if (chr == '(') {
+                if (index < regex.length() && regex.charAt(index) == '?') {
+                    return null;
+                }
+                depth++;
+            } else if (chr == ')') {
+                depth--;
+            } else if (chr == '|') {
+                if (depth == 0) {
+                    return null;
+                }
+            } else if (QUANTIFIERS.indexOf(chr) >= 0) {
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+                if (chr == '{') {
+                    index = regex.indexOf('}', index) + 1;
+                    if (index == 0) {
+                        return null;
+                    }
+                }
+            } else if (depth == 0 && METACHARACTERS.indexOf(chr) < 0) {
+                run.append(chr);
+                continue;
+            }
+            if (run.length() > longest.length()) {
+                longest = run.toString();
+            }
+            run.setLength(0);
+        }
+        return run.length() > longest.length() ? run.toString() : longest;
+    }
+
+    /**
+     * Returns the index after the {@code ]} that closes a character class starting before {@code start}, or
+     * -1 if it is not closed.
+     */
+    private static int skipClass(String regex, int start) {
+        int index = start;
+        if (index < regex.length() && regex.charAt(index) == '^') {
+            index++;
+        }
+        if (index < regex.length() && regex.charAt(index) == ']') {
+            index++;
+        }
+        int depth = 1;
+        while (index < regex.length()) {
+            char chr = regex.charAt(index++);
+            if (chr == ESCAPE) {
+                index++;
+            } else if (chr == '[') {
+                depth++;
+            } else if (chr == ']' && --depth == 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSingleLine(String text) {
+        for (int i = 0; i < LINE_BREAKS.length(); i++) {
+            if (text.indexOf(LINE_BREAKS.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isQuotable(char chr) {
+        return chr < ASCII_LIMIT && !Character.isLetterOrDigit(chr);
+    }
+
+    /**
+     * Decides whether a line held as text matches.
+     */
+    @FunctionalInterface
+    public interface LineFinder {
+        /**
+         * Checks if a line matches.
+         *
+         * @param line Line to match
+         * @return true if the line matches, false otherwise
+         */
+        boolean find(CharSequence line);
+    }
+}
@@ -0,0 +1,167 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+/**
+ * KeyField is a sort key given with -k POS1[,POS2], and locates the key within a line.
+ * <p>
+ * Fields are separated by the separator given with -t. Without -t, a field is a run of blanks followed by a
+ * run of non-blanks, so every field except the first starts with the blanks that separate it from the
+ * previous one. A key starts at character {@code startChar} of field {@code startField}, and ends after
+ * character {@code endChar} of field {@code endField}, after the end of that field if {@code endChar} is 0,
+ * or at the end of the line if there is no POS2. Positions past the end of the line are moved to the end of
+ * the line, and a key that ends before it starts is empty. A numeric key (n) starts after any blanks at its
+ * start, so that the number in a field separated by blanks is found with or without b.
+ */
+public final class KeyField {
+    public static final int NO_SEPARATOR = -1;
+    public static final int NO_END_FIELD = 0;
+    public static final int END_OF_FIELD = 0;
+
+    private final int startField;
+    private final int startChar;
+    private final boolean isStartBlankSkipped;
+    private final int endField;
+    private final int endChar;
+    private final boolean isEndBlankSkipped;
+    private final boolean isFirstWordNumber;
+    private final boolean isCaseIndependent;
+    private final boolean isReverseOrder;
+
+    /**
+     * Constructor for KeyField.
+     *
+     * @param startField          Field the key starts in, numbered from 1
+     * @param startChar           Character of the start field the key starts at, numbered from 1
+     * @param isStartBlankSkipped Boolean option to skip leading blanks of the start field (b on POS1)
+     * @param endField            Field the key ends in, or {@code NO_END_FIELD} to end at the end of the line
+     * @param endChar             Last character of the key in the end field, or {@code END_OF_FIELD}
+     * @param isEndBlankSkipped   Boolean option to skip leading blanks of the end field (b on POS2)
+     * @param isFirstWordNumber   Boolean option to treat the first word of the key as a number (n)
+     * @param isCaseIndependent   Boolean option to compare the key case-independently (f)
+     * @param isReverseOrder      Boolean option to reverse the order of the key (r)
+     */
+    public KeyField(int startField, int startChar, boolean isStartBlankSkipped, int endField, int endChar,
+                    boolean isEndBlankSkipped, boolean isFirstWordNumber, boolean isCaseIndependent,
+                    boolean isReverseOrder) {
+        this.startField = startField;
+        this.startChar = startChar;
+        this.isStartBlankSkipped = isStartBlankSkipped;
+        this.endField = endField;
+        this.endChar = endChar;
+        this.isEndBlankSkipped = isEndBlankSkipped;
+        this.isFirstWordNumber = isFirstWordNumber;
+        this.isCaseIndependent = isCaseIndependent;
+        this.isReverseOrder = isReverseOrder;
+    }
+
+    public boolean isFirstWordNumber() {
+        return isFirstWordNumber;
+    }
+
+    public boolean isCaseIndependent() {
+        return isCaseIndependent;
+    }
+
+    public boolean isReverseOrder() {
+        return isReverseOrder;
+    }
+
+    /**
+     * Checks if any of the options b, n, f or r is given for this key.
+     *
+     * @return true if the key has options of its own, false otherwise
+     */
+    public boolean hasOptions() {
+        return isStartBlankSkipped || isEndBlankSkipped || isFirstWordNumber || isCaseIndependent
+                || isReverseOrder;
+    }
+
+    /**
+     * Returns a copy of this key that uses the global -n and -f options.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of the key as a number
+     * @param isCaseIndependent Boolean option to compare the key case-independently
+     * @return The new KeyField
+     */
+    public KeyField withOptions(boolean isFirstWordNumber, boolean isCaseIndependent) {
+        return new KeyField(startField, startChar, isStartBlankSkipped, endField, endChar, isEndBlankSkipped,
+                isFirstWordNumber, isCaseIndependent, isReverseOrder);
+    }
+
+    /**
+     * Returns the index of the first character of the key in the line, after any leading blanks if the key is
+     * numeric.
+     *
+     * @param line      Line to locate the key in
+     * @param separator Field separator, or {@code NO_SEPARATOR} to separate fields by blanks
+     * @return Index of the start of the key
+     */
+    public int getStart(String line, int separator) {
+        int index = getFieldStart(line, startField, separator);
+        if (isStartBlankSkipped) {
+            index = skipBlanks(line, index);
+        }
+        index = (int) Math.min((long) index + startChar - 1, line.length());
+        return isFirstWordNumber ? skipBlanks(line, index) : index;
+    }
+
+    /**
+     * Returns the index after the last character of the key in the line.
+     *
+     * @param line      Line to locate the key in
+     * @param separator Field separator, or {@code NO_SEPARATOR} to separate fields by blanks
+     * @param start     Index of the start of the key
+     * @return Index of the end of the key, which is not less than {@code start}
+     */
+    public int getEnd(String line, int separator, int start) {
+        if (endField == NO_END_FIELD) {
+            return line.length();
+        }
+        int index = getFieldStart(line, endField, separator);
+        if (endChar == END_OF_FIELD) {
+            index = getFieldEnd(line, index, separator);
+        } else {
+            if (isEndBlankSkipped) {
+                index = skipBlanks(line, index);
+            }
+            index = (int) Math.min((long) index + endChar, line.length());
+        }
+        return Math.max(index, start);
+    }
+
+    private static int getFieldStart(String line, int field, int separator) {
+        int index = 0;
+        for (int i = 1; i < field && index < line.length(); i++) {
+            if (separator == NO_SEPARATOR) {
+                index = getFieldEnd(line, index, separator);
+            } else {
+                int next = line.indexOf(separator, index);
+                index = next < 0 ? line.length() : next + 1;
+            }
+        }
+        return index;
+    }
+
+    private static int getFieldEnd(String line, int fieldStart, int separator) {
+        if (separator != NO_SEPARATOR) {
+            int next = line.indexOf(separator, fieldStart);
+            return next < 0 ? line.length() : next;
+        }
+        int index = skipBlanks(line, fieldStart);
+        while (index < line.length() && !isBlank(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipBlanks(String line, int start) {
+        int index = start;
+        while (index < line.length() && isBlank(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isBlank(char chr) {
+        return chr == ' ' || chr == '\t';
+    }
+}
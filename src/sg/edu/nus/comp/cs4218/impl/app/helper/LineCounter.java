@@ -0,0 +1,302 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * LineCounter counts the occurrences of every distinct line, for uniq --count-all.
+ * <p>
+ * Lines are counted as raw bytes in an open-addressing hash map with linear probing. The bytes of each
+ * distinct line are copied once into large shared chunks, and the entries are kept in primitive arrays in
+ * the order their lines were first added, so adding a line allocates nothing unless the line is new. Each
+ * slot of the table holds the hash of a line with its entry number, so most probes only read the table.
+ * The table doubles whenever it is three quarters full.
+ * <p>
+ * The entries can be read in the order their lines were first added, by line, or by ascending count and then
+ * line. Lines are sorted with a multikey quicksort on their bytes, and by count with a primitive sort of the
+ * counts packed with the ranks of the lines. Lines are ordered by their bytes, except that the UTF-8 of
+ * U+E000 to U+FFFF comes after that of characters above U+FFFF, which gives the same order as comparing the
+ * decoded lines as Strings.
+ */
+public final class LineCounter {
+    // Bytes of lines are copied into chunks of this size, or larger for longer lines.
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int MIN_CAPACITY = 16;
+    private static final long EMPTY = 0;
+    private static final long ENTRY_MASK = 0xFFFFFFFFL;
+    // Ranges of at most this many lines are sorted by insertion sort.
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    // Counts below this limit can be packed with a rank into a long.
+    private static final long MAX_PACKED_COUNT = 1L << (Long.SIZE - Integer.SIZE);
+    // Rank of the end of a line, which comes before every byte.
+    private static final int END_OF_LINE = -1;
+    // Lead bytes of the UTF-8 of U+E000 to U+FFFF, which are UTF-16 code units above the surrogates.
+    private static final int FIRST_HIGH_LEAD = 0xEE;
+    private static final int LAST_HIGH_LEAD = 0xEF;
+    // Lifts those lead bytes above 0xF0 to 0xF4, the lead bytes of characters encoded as surrogates.
+    private static final int HIGH_LEAD_SHIFT = 0x10;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] chunk = new byte[0];
+    private int chunkUsed;
+    // Hash of the line in the high half and entry number plus one in the low half, or EMPTY
+    private long[] slots = new long[MIN_CAPACITY];
+    private int size;
+    private int[] chunkIndexes = new int[MIN_CAPACITY];
+    private int[] offsets = new int[MIN_CAPACITY];
+    private int[] lengths = new int[MIN_CAPACITY];
+    private long[] counts = new long[MIN_CAPACITY];
+
+    /**
+     * Adds an occurrence of a line.
+     *
+     * @param bytes  Array holding the line
+     * @param offset Index of the first byte of the line
+     * @param length Number of bytes in the line
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != EMPTY) {
+            long value = slots[slot];
+            int entry = (int) (value & ENTRY_MASK) - 1;
+            if ((int) (value >>> Integer.SIZE) == hash && lengths[entry] == length
+                    && Arrays.equals(chunks.get(chunkIndexes[entry]), offsets[entry], offsets[entry] + length,
+                    bytes, offset, offset + length)) {
+                counts[entry]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = (long) hash << Integer.SIZE | addEntry(bytes, offset, length) + 1;
+        if (size * 4L >= slots.length * 3L) {
+            rehash(slots.length * 2);
+        }
+    }
+
+    /**
+     * Returns the number of distinct lines added.
+     *
+     * @return Number of distinct lines
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes every distinct line with its count to {@code consumer}, in the given order.
+     *
+     * @param order    Order to pass the lines in
+     * @param consumer EntryConsumer to pass the lines to
+     * @throws IOException If {@code consumer} fails
+     */
+    public void forEach(Order order, EntryConsumer consumer) throws IOException {
+        if (order == Order.INPUT) {
+            for (int entry = 0; entry < size; entry++) {
+                accept(entry, consumer);
+            }
+            return;
+        }
+        int[] entries = new int[size];
+        for (int entry = 0; entry < size; entry++) {
+            entries[entry] = entry;
+        }
+        sortByLine(entries, 0, size, 0);
+        if (order == Order.COUNT) {
+            sortByCount(entries);
+        }
+        for (int entry : entries) {
+            accept(entry, consumer);
+        }
+    }
+
+    private void accept(int entry, EntryConsumer consumer) throws IOException {
+        consumer.accept(chunks.get(chunkIndexes[entry]), offsets[entry], lengths[entry], counts[entry]);
+    }
+
+    private int addEntry(byte[] bytes, int offset, int length) {
+        if (size == counts.length) {
+            int capacity = size * 2;
+            chunkIndexes = Arrays.copyOf(chunkIndexes, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        if (chunk.length - chunkUsed < length) {
+            chunk = new byte[Math.max(CHUNK_SIZE, length)];
+            chunks.add(chunk);
+            chunkUsed = 0;
+        }
+        System.arraycopy(bytes, offset, chunk, chunkUsed, length);
+        int entry = size++;
+        chunkIndexes[entry] = chunks.size() - 1;
+        offsets[entry] = chunkUsed;
+        lengths[entry] = length;
+        counts[entry] = 1;
+        chunkUsed += length;
+        return entry;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldSlots = slots;
+        slots = new long[capacity];
+        int mask = capacity - 1;
+        for (long value : oldSlots) {
+            if (value == EMPTY) {
+                continue;
+            }
+            int slot = (int) (value >>> Integer.SIZE) & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = value;
+        }
+    }
+
+    /**
+     * Sorts the range [low, high) of entries, whose lines are the same up to {@code depth}, by line with a
+     * three-way radix quicksort on the byte at {@code depth}.
+     */
+    private void sortByLine(int[] entries, int low, int high, int depth) {
+        int start = low;
+        int end = high;
+        int index = depth;
+        while (end - start > INSERTION_SORT_THRESHOLD) {
+            int pivot = rankAt(entries[(start + end) >>> 1], index);
+            int less = start;
+            int greater = end - 1;
+            int i = start;
+            while (i <= greater) {
+                int rank = rankAt(entries[i], index);
+                if (rank < pivot) {
+                    swap(entries, less++, i++);
+                } else if (rank > pivot) {
+                    swap(entries, i, greater--);
+                } else {
+                    i++;
+                }
+            }
+            sortByLine(entries, start, less, index);
+            sortByLine(entries, greater + 1, end, index);
+            if (pivot == END_OF_LINE) {
+                return; // the lines are distinct, so only one of them can end here
+            }
+            start = less;
+            end = greater + 1;
+            index++;
+        }
+        for (int i = start + 1; i < end; i++) {
+            int entry = entries[i];
+            int j = i;
+            while (j > start && compareLines(entries[j - 1], entry) > 0) {
+                entries[j] = entries[j - 1];
+                j--;
+            }
+            entries[j] = entry;
+        }
+    }
+
+    /**
+     * Stably sorts entries that are in line order by ascending count.
+     */
+    private void sortByCount(int[] entries) {
+        long maxCount = 0;
+        for (int entry : entries) {
+            maxCount = Math.max(maxCount, counts[entry]);
+        }
+        if (maxCount >= MAX_PACKED_COUNT) {
+            Integer[] boxed = Arrays.stream(entries).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, Comparator.comparingLong(entry -> counts[entry]));
+            for (int i = 0; i < boxed.length; i++) {
+                entries[i] = boxed[i];
+            }
+            return;
+        }
+        // Packing the rank in line order below the count keeps equal counts in line order.
+        long[] packed = new long[entries.length];
+        for (int rank = 0; rank < entries.length; rank++) {
+            packed[rank] = counts[entries[rank]] << Integer.SIZE | rank;
+        }
+        Arrays.sort(packed);
+        int[] byLine = entries.clone();
+        for (int i = 0; i < packed.length; i++) {
+            entries[i] = byLine[(int) (packed[i] & ENTRY_MASK)];
+        }
+    }
+
+    private int rankAt(int entry, int index) {
+        return index < lengths[entry] ? rank(chunks.get(chunkIndexes[entry])[offsets[entry] + index]) : END_OF_LINE;
+    }
+
+    private static void swap(int[] entries, int index1, int index2) {
+        int entry = entries[index1];
+        entries[index1] = entries[index2];
+        entries[index2] = entry;
+    }
+
+    private int compareLines(int entry1, int entry2) {
+        byte[] bytes1 = chunks.get(chunkIndexes[entry1]);
+        byte[] bytes2 = chunks.get(chunkIndexes[entry2]);
+        int offset1 = offsets[entry1];
+        int offset2 = offsets[entry2];
+        int length1 = lengths[entry1];
+        int length2 = lengths[entry2];
+        int index = Arrays.mismatch(bytes1, offset1, offset1 + length1, bytes2, offset2, offset2 + length2);
+        if (index < 0) {
+            return 0;
+        }
+        if (index == length1 || index == length2) {
+            return Integer.compare(length1, length2);
+        }
+        // The lines are the same up to here, so both bytes start a character or both are inside one.
+        return Integer.compare(rank(bytes1[offset1 + index]), rank(bytes2[offset2 + index]));
+    }
+
+    private static int rank(byte value) {
+        int unsigned = value & 0xFF;
+        return unsigned >= FIRST_HIGH_LEAD && unsigned <= LAST_HIGH_LEAD ? unsigned + HIGH_LEAD_SHIFT : unsigned;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        long hash = 0xCBF29CE484222325L; // FNV-1a
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Orders in which the counted lines can be read.
+     */
+    public enum Order {
+        // The order the lines were first added in
+        INPUT,
+        // Ascending count, then line
+        COUNT,
+        // Line
+        KEY
+    }
+
+    /**
+     * Receives a counted line.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Receives a distinct line and the number of times it was added.
+         *
+         * @param bytes  Array holding the line
+         * @param offset Index of the first byte of the line
+         * @param length Number of bytes in the line
+         * @param count  Number of times the line was added
+         * @throws IOException If the line cannot be written
+         */
+        void accept(byte[] bytes, int offset, int length, long count) throws IOException;
+    }
+}
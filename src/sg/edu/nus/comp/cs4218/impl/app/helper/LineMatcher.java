@@ -0,0 +1,78 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+/**
+ * LineMatcher decides whether two adjacent lines match for uniq, given -f, -s, -w and -i.
+ * <p>
+ * The part of a line that is compared starts after the first {@code skipFields} fields and then the next
+ * {@code skipChars} characters, and has at most {@code compareChars} characters. A field is a run of blanks
+ * followed by a run of non-blanks, where blanks are spaces and tabs. The parts are compared in place with
+ * {@link String#regionMatches(boolean, int, String, int, int)}, which folds case one character at a time, so
+ * no substring or lower-cased copy of a line is made.
+ */
+public final class LineMatcher {
+    public static final int ALL_CHARS = Integer.MAX_VALUE;
+
+    private final int skipFields;
+    private final int skipChars;
+    private final int compareChars;
+    private final boolean isCaseIgnored;
+
+    /**
+     * Constructor for LineMatcher.
+     *
+     * @param skipFields    Number of fields to skip
+     * @param skipChars     Number of characters to skip after the fields
+     * @param compareChars  Number of characters to compare, or {@code ALL_CHARS}
+     * @param isCaseIgnored Boolean option to ignore differences in case
+     */
+    public LineMatcher(int skipFields, int skipChars, int compareChars, boolean isCaseIgnored) {
+        this.skipFields = skipFields;
+        this.skipChars = skipChars;
+        this.compareChars = compareChars;
+        this.isCaseIgnored = isCaseIgnored;
+    }
+
+    /**
+     * Checks if whole lines are compared exactly, so that {@link String#equals(Object)} can be used instead.
+     *
+     * @return true if no option changes the comparison, false otherwise
+     */
+    public boolean isWholeLine() {
+        return skipFields == 0 && skipChars == 0 && compareChars == ALL_CHARS && !isCaseIgnored;
+    }
+
+    /**
+     * Checks if the compared parts of two lines are the same.
+     *
+     * @param line1 First line
+     * @param line2 Second line
+     * @return true if the lines match, false otherwise
+     */
+    public boolean matches(String line1, String line2) {
+        int start1 = startOf(line1);
+        int start2 = startOf(line2);
+        int length1 = Math.min(line1.length() - start1, compareChars);
+        int length2 = Math.min(line2.length() - start2, compareChars);
+        return length1 == length2 && line1.regionMatches(isCaseIgnored, start1, line2, start2, length1);
+    }
+
+    /**
+     * Returns the index of the first character of a line to compare, which is at most its length.
+     */
+    private int startOf(String line) {
+        int index = 0;
+        for (int field = 0; field < skipFields && index < line.length(); field++) {
+            while (index < line.length() && isBlank(line.charAt(index))) {
+                index++;
+            }
+            while (index < line.length() && !isBlank(line.charAt(index))) {
+                index++;
+            }
+        }
+        return (int) Math.min(line.length(), (long) index + skipChars);
+    }
+
+    private static boolean isBlank(char chr) {
+        return chr == ' ' || chr == '\t';
+    }
+}
@@ -0,0 +1,97 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import sg.edu.nus.comp.cs4218.exception.SortException;
+
+/**
+ * A helper class that merges inputs whose lines are already sorted into one sorted sequence of lines.
+ * <p>
+ * One line of each input is held at a time, in a heap ordered by the {@link FieldSortKey} of the line, so
+ * the memory used does not depend on the length of the inputs.
+ */
+public final class LineMerger {
+
+    private LineMerger() { /* Does nothing*/ }
+
+    /**
+     * Merges the lines of the inputs and passes each line to {@code sink} in order.
+     * <p>
+     * Each input must be sorted in the given order, which is descending if it has -r. Lines that compare equal
+     * are taken from the input that comes first, or last if {@code isLaterInputFirst} is true. The inputs are
+     * not closed.
+     *
+     * @param inputs            List of sorted inputs
+     * @param order             SortOrder the inputs are sorted in
+     * @param isLaterInputFirst Boolean option to take equal lines from later inputs first
+     * @param sink              LineSink to pass the merged lines to
+     * @throws SortException If an input cannot be read
+     * @throws IOException   If {@code sink} fails
+     */
+    public static void merge(List<BufferedReader> inputs, SortOrder order, boolean isLaterInputFirst,
+                             LineSink sink) throws SortException, IOException {
+        Comparator<Cursor> lineOrder = (cursor1, cursor2) -> cursor1.key.compareTo(cursor2.key);
+        if (order.isReverseOrder()) {
+            lineOrder = lineOrder.reversed();
+        }
+        Comparator<Cursor> inputOrder = Comparator.comparingInt(cursor -> cursor.index);
+        Comparator<Cursor> mergeOrder = lineOrder.thenComparing(isLaterInputFirst
+                ? inputOrder.reversed()
+                : inputOrder);
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(inputs.size(), 1), mergeOrder);
+        for (int i = 0; i < inputs.size(); i++) {
+            Cursor cursor = new Cursor(inputs.get(i), i, order);
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            sink.accept(cursor.key.getLine());
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Receives merged lines in order.
+     */
+    public interface LineSink {
+        void accept(String line) throws IOException;
+    }
+
+    /**
+     * Reads one input, holding the key of its current line.
+     */
+    private static final class Cursor {
+        private final BufferedReader reader;
+        private final int index;
+        private final SortOrder order;
+        private FieldSortKey key;
+
+        private Cursor(BufferedReader reader, int index, SortOrder order) {
+            this.reader = reader;
+            this.index = index;
+            this.order = order;
+        }
+
+        private boolean advance() throws SortException {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                throw new SortException(ERR_IO_EXCEPTION, e);
+            }
+            key = line == null ? null : new FieldSortKey(line, order);
+            return line != null;
+        }
+    }
+}
@@ -0,0 +1,812 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepPattern.LineFinder;
+
+/**
+ * LinearRegex decides whether a line contains a match of a regular expression in time linear in the length
+ * of the line, for grep patterns that would make {@link java.util.regex.Pattern} backtrack for a long time,
+ * such as {@code (a+)+b} on a long run of {@code a}.
+ * <p>
+ * The expression is compiled into a Thompson NFA program, which is run as a DFA built lazily: each state of
+ * the DFA is the set of NFA instructions that may be reached at a position in the line, and the state after
+ * a character is found once from the instructions of the state before it and kept for the next time, for
+ * ASCII characters. A new match may start at any position, so every state also holds the start of the
+ * program. The number of states kept by each {@link LineFinder} is bounded, so no more than the states of
+ * the line being read are built again once the bound is reached, and no line costs more than the number of
+ * its characters times the size of the program.
+ * <p>
+ * Only regular expressions are supported: characters and escaped punctuation, {@code .}, character classes
+ * without nested classes or intersections, the escapes {@code \d \D \w \W \s \S \t \n \r \f \a \e}, groups
+ * with and without capture, alternatives, greedy and reluctant quantifiers, and {@code ^} and {@code $} with
+ * the meaning they have for {@link java.util.regex.Pattern} without flags other than CASE_INSENSITIVE. Other
+ * constructs, among them backreferences, lookarounds, word boundaries, inline flags and possessive
+ * quantifiers, are left to {@link java.util.regex.Pattern}, and so is any expression whose program would be
+ * too large. Expressions must already be known to be valid.
+ */
+public final class LinearRegex {
+    private static final int MAX_INSTRUCTIONS = 10_000;
+    private static final int MAX_STATES = 2048;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int CASE_OFFSET = 'a' - 'A';
+    private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+    private static final int INFINITE = -1;
+    private static final int NO_TARGET = -1;
+    private static final char ESCAPE = '\\';
+    private static final String QUANTIFIERS = "*+?{";
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+    // Instructions of the program. CHAR, CLASS and ANY read a character, the others read none.
+    private static final int CHAR = 0;
+    private static final int CLASS = 1;
+    private static final int ANY = 2;
+    private static final int SPLIT = 3;
+    private static final int JUMP = 4;
+    private static final int LINE_START = 5;
+    private static final int LINE_END = 6;
+    private static final int MATCH = 7;
+
+    private final boolean isCaseInsensitive;
+    private final int[] ops;
+    // Character of CHAR, class of CLASS, or first target of SPLIT and JUMP
+    private final int[] args;
+    // Second target of SPLIT
+    private final int[] alts;
+    private final CharClass[] classes;
+
+    private LinearRegex(boolean isCaseInsensitive, Program program) {
+        this.isCaseInsensitive = isCaseInsensitive;
+        this.ops = Arrays.copyOf(program.ops, program.size);
+        this.args = Arrays.copyOf(program.args, program.size);
+        this.alts = Arrays.copyOf(program.alts, program.size);
+        this.classes = program.classes.toArray(new CharClass[0]);
+    }
+
+    /**
+     * Compiles a regular expression.
+     *
+     * @param regex             Valid regular expression
+     * @param isCaseInsensitive Boolean option to ignore differences in the case of ASCII letters
+     * @return the compiled LinearRegex, or null if the expression is not supported
+     */
+    public static LinearRegex compile(String regex, boolean isCaseInsensitive) {
+        return compile(List.of(regex), isCaseInsensitive);
+    }
+
+    /**
+     * Compiles several regular expressions into one that matches where any of them does.
+     *
+     * @param regexes           Valid regular expressions
+     * @param isCaseInsensitive Boolean option to ignore differences in the case of ASCII letters
+     * @return the compiled LinearRegex, or null if there are no expressions or one is not supported
+     */
+    public static LinearRegex compile(List<String> regexes, boolean isCaseInsensitive) {
+        if (regexes.isEmpty()) {
+            return null;
+        }
+        try {
+            List<Node> alternatives = new ArrayList<>(regexes.size());
+            for (String regex : regexes) {
+                alternatives.add(new Parser(regex, isCaseInsensitive).parse());
+            }
+            Program program = new Program();
+            program.emit(new Node(Node.ALTERNATION, alternatives));
+            program.add(MATCH, 0, 0);
+            return new LinearRegex(isCaseInsensitive, program);
+        } catch (UnsupportedRegexException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a LineFinder, which keeps the states of the DFA it builds, to be used by one thread at a time.
+     *
+     * @return a new LineFinder
+     */
+    public LineFinder newFinder() {
+        return new Dfa()::find;
+    }
+
+    private boolean reads(int pc, int codePoint) {
+        switch (ops[pc]) {
+        case CHAR:
+            return args[pc] == codePoint;
+        case CLASS:
+            return classes[args[pc]].contains(codePoint, isCaseInsensitive);
+        case ANY:
+            return !isLineTerminator(codePoint);
+        default:
+            return false;
+        }
+    }
+
+    private int fold(int codePoint) {
+        return isCaseInsensitive && codePoint >= 'A' && codePoint <= 'Z' ? codePoint + CASE_OFFSET : codePoint;
+    }
+
+    private static boolean isLineTerminator(int codePoint) {
+        return codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT && LINE_TERMINATORS.indexOf(codePoint) >= 0;
+    }
+
+    /**
+     * Checks if {@code $} matches before the character at index, which it does at the end of the line and
+     * before a line terminator that ends it, as in {@link java.util.regex.Pattern}.
+     */
+    private static boolean isLineEnd(CharSequence line, int index) {
+        int length = line.length();
+        if (index == length) {
+            return true;
+        }
+        if (index == length - 2) {
+            return line.charAt(index) == '\r' && line.charAt(index + 1) == '\n';
+        }
+        if (index == length - 1) {
+            char chr = line.charAt(index);
+            return chr == '\n' ? index == 0 || line.charAt(index - 1) != '\r' : isLineTerminator(chr);
+        }
+        return false;
+    }
+
+    /**
+     * A set of instructions reached at a position, which is a state of the DFA.
+     */
+    private static final class State {
+        private final int[] pcs;
+        private final boolean isMatch;
+        private final boolean hasLineEnd;
+        private final State[] next = new State[ASCII_LIMIT];
+
+        private State(int[] pcs, boolean isMatch, boolean hasLineEnd) {
+            this.pcs = pcs;
+            this.isMatch = isMatch;
+            this.hasLineEnd = hasLineEnd;
+        }
+    }
+
+    /**
+     * The states of the DFA built so far, and the buffers used to build more.
+     */
+    private final class Dfa {
+        private final Map<Key, State> states = new HashMap<>();
+        private final int[] marks = new int[ops.length];
+        private final int[] stack = new int[ops.length];
+        private final int[] reached = new int[ops.length];
+        private int generation;
+        private int size;
+        private boolean isMatch;
+        private boolean hasLineEnd;
+        private final State initial = start();
+
+        private boolean find(CharSequence line) {
+            int length = line.length();
+            State state = initial;
+            int index = 0;
+            while (!state.isMatch && index < length) {
+                if (state.hasLineEnd && index >= length - 2 && isLineEnd(line, index)) {
+                    state = atLineEnd(state, index == 0);
+                    if (state.isMatch) {
+                        return true;
+                    }
+                }
+                int codePoint = Character.codePointAt(line, index);
+                index += Character.charCount(codePoint);
+                state = next(state, fold(codePoint));
+            }
+            return state.isMatch || state.hasLineEnd && atLineEnd(state, length == 0).isMatch;
+        }
+
+        private State start() {
+            begin();
+            addClosure(0, true, false);
+            return intern();
+        }
+
+        private State next(State state, int codePoint) {
+            if (codePoint >= ASCII_LIMIT) {
+                return step(state, codePoint);
+            }
+            State target = state.next[codePoint];
+            if (target == null) {
+                target = step(state, codePoint);
+                state.next[codePoint] = target;
+            }
+            return target;
+        }
+
+        /**
+         * Returns the state after reading a character, in which a new match may also start.
+         */
+        private State step(State state, int codePoint) {
+            begin();
+            for (int pc : state.pcs) {
+                if (reads(pc, codePoint)) {
+                    addClosure(pc + 1, false, false);
+                }
+            }
+            addClosure(0, false, false);
+            return intern();
+        }
+
+        /**
+         * Returns the state in which the instructions waiting for the end of the line have gone past it.
+         */
+        private State atLineEnd(State state, boolean atStart) {
+            begin();
+            for (int pc : state.pcs) {
+                addClosure(pc, atStart, true);
+            }
+            return intern();
+        }
+
+        private void begin() {
+            generation++;
+            size = 0;
+            isMatch = false;
+            hasLineEnd = false;
+        }
+
+        /**
+         * Adds the instructions reached from pc without reading a character.
+         */
+        private void addClosure(int start, boolean atStart, boolean atEnd) {
+            int top = 0;
+            if (marks[start] != generation) {
+                marks[start] = generation;
+                stack[top++] = start;
+            }
+            while (top > 0) {
+                int pc = stack[--top];
+                int first = NO_TARGET;
+                int second = NO_TARGET;
+                switch (ops[pc]) {
+                case SPLIT:
+                    first = args[pc];
+                    second = alts[pc];
+                    break;
+                case JUMP:
+                    first = args[pc];
+                    break;
+                case LINE_START:
+                    first = atStart ? pc + 1 : NO_TARGET;
+                    break;
+                case LINE_END:
+                    if (atEnd) {
+                        first = pc + 1;
+                    } else {
+                        reached[size++] = pc;
+                        hasLineEnd = true;
+                    }
+                    break;
+                case MATCH:
+                    reached[size++] = pc;
+                    isMatch = true;
+                    break;
+                default:
+                    reached[size++] = pc;
+                    break;
+                }
+                top = push(first, top);
+                top = push(second, top);
+            }
+        }
+
+        private int push(int pc, int top) {
+            if (pc == NO_TARGET || marks[pc] == generation) {
+                return top;
+            }
+            marks[pc] = generation;
+            stack[top] = pc;
+            return top + 1;
+        }
+
+        private State intern() {
+            int[] pcs = Arrays.copyOf(reached, size);
+            Arrays.sort(pcs);
+            Key key = new Key(pcs);
+            State state = states.get(key);
+            if (state == null) {
+                if (states.size() >= MAX_STATES) {
+                    // Drops the states built so far, which only the state being left still refers to.
+                    states.clear();
+                    Arrays.fill(initial.next, null);
+                }
+                state = new State(pcs, isMatch, hasLineEnd);
+                states.put(key, state);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * A set of instructions as a key of a map.
+     */
+    private static final class Key {
+        private final int[] pcs;
+        private final int hash;
+
+        private Key(int[] pcs) {
+            this.pcs = pcs;
+            this.hash = Arrays.hashCode(pcs);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(pcs, ((Key) other).pcs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A set of characters given by ranges, which may be complemented.
+     */
+    private static final class CharClass {
+        private final int[] ranges;
+        private final boolean isNegated;
+
+        private CharClass(int[] ranges, boolean isNegated) {
+            this.ranges = ranges;
+            this.isNegated = isNegated;
+        }
+
+        /**
+         * Checks if the class has a character, which is folded to lower case if case is ignored. Ignoring case
+         * puts both cases of an ASCII letter in the class if either is, before it is complemented.
+         */
+        private boolean contains(int codePoint, boolean isCaseInsensitive) {
+            boolean isIn = inRanges(codePoint)
+                    || isCaseInsensitive && codePoint >= 'a' && codePoint <= 'z' && inRanges(codePoint - CASE_OFFSET);
+            return isIn != isNegated;
+        }
+
+        private boolean inRanges(int codePoint) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (codePoint >= ranges[i] && codePoint <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A node of the syntax tree of an expression.
+     */
+    private static final class Node {
+        private static final int LITERAL = 0;
+        private static final int CLASS = 1;
+        private static final int ANY = 2;
+        private static final int LINE_START = 3;
+        private static final int LINE_END = 4;
+        private static final int CONCATENATION = 5;
+        private static final int ALTERNATION = 6;
+        private static final int REPETITION = 7;
+
+        private final int kind;
+        private final int value;
+        private final CharClass charClass;
+        private final List<Node> children;
+        private final int min;
+        private final int max;
+
+        private Node(int kind, int value, CharClass charClass, List<Node> children, int min, int max) {
+            this.kind = kind;
+            this.value = value;
+            this.charClass = charClass;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+        }
+
+        private Node(int kind, int value) {
+            this(kind, value, null, null, 0, 0);
+        }
+
+        private Node(CharClass charClass) {
+            this(CLASS, 0, charClass, null, 0, 0);
+        }
+
+        private Node(int kind, List<Node> children) {
+            this(kind, 0, null, children, 0, 0);
+        }
+
+        private Node(Node child, int min, int max) {
+            this(REPETITION, 0, null, List.of(child), min, max);
+        }
+
+        private boolean isAnchor() {
+            return kind == LINE_START || kind == LINE_END;
+        }
+    }
+
+    /**
+     * The instructions of a program as they are emitted.
+     */
+    private static final class Program {
+        private int[] ops = new int[16];
+        private int[] args = new int[16];
+        private int[] alts = new int[16];
+        private final List<CharClass> classes = new ArrayList<>();
+        private int size;
+
+        private int add(int op, int arg, int alt) throws UnsupportedRegexException {
+            if (size == MAX_INSTRUCTIONS) {
+                throw new UnsupportedRegexException();
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                args = Arrays.copyOf(args, size * 2);
+                alts = Arrays.copyOf(alts, size * 2);
+            }
+            ops[size] = op;
+            args[size] = arg;
+            alts[size] = alt;
+            return size++;
+        }
+
+        private void emit(Node node) throws UnsupportedRegexException {
+            switch (node.kind) {
+            case Node.LITERAL:
+                add(CHAR, node.value, 0);
+                break;
+            case Node.CLASS:
+                classes.add(node.charClass);
+                add(CLASS, classes.size() - 1, 0);
+                break;
+            case Node.ANY:
+                add(ANY, 0, 0);
+                break;
+            case Node.LINE_START:
+                add(LINE_START, 0, 0);
+                break;
+            case Node.LINE_END:
+                add(LINE_END, 0, 0);
+                break;
+            case Node.CONCATENATION:
+                for (Node child : node.children) {
+                    emit(child);
+                }
+                break;
+            case Node.ALTERNATION:
+                emitAlternation(node.children);
+                break;
+            default:
+                emitRepetition(node.children.get(0), node.min, node.max);
+                break;
+            }
+        }
+
+        private void emitAlternation(List<Node> children) throws UnsupportedRegexException {
+            List<Integer> jumps = new ArrayList<>();
+            for (int i = 0; i < children.size() - 1; i++) {
+                int split = add(SPLIT, size + 1, 0);
+                emit(children.get(i));
+                jumps.add(add(JUMP, 0, 0));
+                alts[split] = size;
+            }
+            if (!children.isEmpty()) {
+                emit(children.get(children.size() - 1));
+            }
+            for (int jump : jumps) {
+                args[jump] = size;
+            }
+        }
+
+        private void emitRepetition(Node child, int min, int max) throws UnsupportedRegexException {
+            for (int i = 0; i < min; i++) {
+                emit(child);
+            }
+            if (max == INFINITE) {
+                int loop = add(SPLIT, size + 1, 0);
+                emit(child);
+                add(JUMP, loop, 0);
+                alts[loop] = size;
+                return;
+            }
+            List<Integer> splits = new ArrayList<>();
+            for (int i = min; i < max; i++) {
+                splits.add(add(SPLIT, size + 1, 0));
+                emit(child);
+            }
+            for (int split : splits) {
+                alts[split] = size;
+            }
+        }
+    }
+
+    /**
+     * Parses an expression into a syntax tree, or finds that it is not supported.
+     */
+    private static final class Parser {
+        private final String regex;
+        private final boolean isCaseInsensitive;
+        private int index;
+
+        private Parser(String regex, boolean isCaseInsensitive) {
+            this.regex = regex;
+            this.isCaseInsensitive = isCaseInsensitive;
+        }
+
+        private Node parse() throws UnsupportedRegexException {
+            Node node = parseAlternation();
+            if (index < regex.length()) {
+                throw new UnsupportedRegexException();
+            }
+            return node;
+        }
+
+        private Node parseAlternation() throws UnsupportedRegexException {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (index < regex.length() && regex.charAt(index) == '|') {
+                index++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Node(Node.ALTERNATION, alternatives);
+        }
+
+        private Node parseConcatenation() throws UnsupportedRegexException {
+            List<Node> nodes = new ArrayList<>();
+            while (index < regex.length() && regex.charAt(index) != '|' && regex.charAt(index) != ')') {
+                nodes.add(parseQuantifier(parseAtom()));
+            }
+            return new Node(Node.CONCATENATION, nodes);
+        }
+
+        private Node parseQuantifier(Node atom) throws UnsupportedRegexException {
+            if (index == regex.length() || QUANTIFIERS.indexOf(regex.charAt(index)) < 0) {
+                return atom;
+            }
+            if (atom.isAnchor()) {
+                throw new UnsupportedRegexException();
+            }
+            char chr = regex.charAt(index++);
+            Node node;
+            if (chr == '*') {
+                node = new Node(atom, 0, INFINITE);
+            } else if (chr == '+') {
+                node = new Node(atom, 1, INFINITE);
+            } else if (chr == '?') {
+                node = new Node(atom, 0, 1);
+            } else {
+                int min = parseNumber();
+                int max = min;
+                if (regex.charAt(index) == ',') {
+                    index++;
+                    max = regex.charAt(index) == '}' ? INFINITE : parseNumber();
+                }
+                index++; // the closing brace
+                node = new Node(atom, min, max);
+            }
+            if (index < regex.length() && regex.charAt(index) == '?') {
+                index++; // reluctant, which does not change whether a line matches
+            }
+            if (index < regex.length() && QUANTIFIERS.indexOf(regex.charAt(index)) >= 0) {
+                // possessive, or repeated quantifiers
+                throw new UnsupportedRegexException();
+            }
+            return node;
+        }
+
+        private int parseNumber() throws UnsupportedRegexException {
+            int start = index;
+            while (index < regex.length() && Character.isDigit(regex.charAt(index))) {
+                index++;
+            }
+            if (index == start || index - start > 4 || index == regex.length()) {
+                throw new UnsupportedRegexException();
+            }
+            return Integer.parseInt(regex.substring(start, index));
+        }
+
+        private Node parseAtom() throws UnsupportedRegexException {
+            int codePoint = regex.codePointAt(index);
+            index += Character.charCount(codePoint);
+            switch (codePoint) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return new Node(parseClass());
+            case '.':
+                return new Node(Node.ANY, 0);
+            case '^':
+                return new Node(Node.LINE_START, 0);
+            case '$':
+                return new Node(Node.LINE_END, 0);
+            case ESCAPE:
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedRegexException();
+            default:
+                return literal(codePoint);
+            }
+        }
+
+        private Node parseGroup() throws UnsupportedRegexException {
+            if (index < regex.length() && regex.charAt(index) == '?') {
+                if (index + 1 == regex.length() || regex.charAt(index + 1) != ':') {
+                    throw new UnsupportedRegexException();
+                }
+                index += 2;
+            }
+            Node node = parseAlternation();
+            if (index == regex.length()) {
+                throw new UnsupportedRegexException();
+            }
+            index++; // the closing parenthesis
+            return node;
+        }
+
+        private Node parseEscape() throws UnsupportedRegexException {
+            CharClass predefined = parsePredefinedClass();
+            if (predefined != null) {
+                return new Node(predefined);
+            }
+            return literal(parseEscapedChar());
+        }
+
+        private Node literal(int codePoint) {
+            return new Node(Node.LITERAL, isCaseInsensitive && codePoint >= 'A' && codePoint <= 'Z'
+                    ? codePoint + CASE_OFFSET : codePoint);
+        }
+
+        /**
+         * Returns the class of the escape at index, such as \d, or null if it is not a class.
+         */
+        private CharClass parsePredefinedClass() throws UnsupportedRegexException {
+            if (index == regex.length()) {
+                throw new UnsupportedRegexException();
+            }
+            int[] ranges;
+            char chr = regex.charAt(index);
+            switch (Character.toLowerCase(chr)) {
+            case 'd':
+                ranges = new int[]{'0', '9'};
+                break;
+            case 'w':
+                ranges = new int[]{'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+                break;
+            case 's':
+                ranges = new int[]{'\t', '\r', ' ', ' '};
+                break;
+            default:
+                return null;
+            }
+            index++;
+            return new CharClass(ranges, Character.isUpperCase(chr));
+        }
+
+        /**
+         * Returns the character of the escape at index, which is escaped punctuation or a control character.
+         */
+        private int parseEscapedChar() throws UnsupportedRegexException {
+            if (index == regex.length()) {
+                throw new UnsupportedRegexException();
+            }
+            char chr = regex.charAt(index++);
+            switch (chr) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            default:
+                if (chr < ASCII_LIMIT && !Character.isLetterOrDigit(chr)) {
+                    return chr;
+                }
+                throw new UnsupportedRegexException();
+            }
+        }
+
+        /**
+         * Parses a character class after its opening bracket. A hyphen is a character only first or last.
+         */
+        private CharClass parseClass() throws UnsupportedRegexException {
+            boolean isNegated = index < regex.length() && regex.charAt(index) == '^';
+            if (isNegated) {
+                index++;
+            }
+            List<Integer> ranges = new ArrayList<>();
+            boolean isFirst = true;
+            while (true) {
+                if (index == regex.length()) {
+                    throw new UnsupportedRegexException();
+                }
+                char chr = regex.charAt(index);
+                if (chr == ']' && !isFirst) {
+                    index++;
+                    break;
+                }
+                if (chr == '[' || chr == ']' || regex.startsWith("&&", index)) {
+                    throw new UnsupportedRegexException();
+                }
+                if (chr == '-' && !isFirst && !regex.startsWith("-]", index)) {
+                    throw new UnsupportedRegexException();
+                }
+                isFirst = false;
+                if (chr == ESCAPE) {
+                    index++;
+                    CharClass predefined = parsePredefinedClass();
+                    if (predefined != null) {
+                        addClass(ranges, predefined);
+                        continue;
+                    }
+                    index--;
+                }
+                boolean isHyphen = chr == '-';
+                int low = parseClassChar();
+                int high = low;
+                if (!isHyphen && regex.startsWith("-", index) && !regex.startsWith("-]", index)) {
+                    index++;
+                    high = parseClassChar();
+                }
+                ranges.add(low);
+                ranges.add(high);
+            }
+            int[] array = new int[ranges.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ranges.get(i);
+            }
+            return new CharClass(array, isNegated);
+        }
+
+        private int parseClassChar() throws UnsupportedRegexException {
+            if (index == regex.length()) {
+                throw new UnsupportedRegexException();
+            }
+            int codePoint = regex.codePointAt(index);
+            if (codePoint == '[' || codePoint == ']') {
+                throw new UnsupportedRegexException();
+            }
+            index += Character.charCount(codePoint);
+            if (codePoint == ESCAPE) {
+                return parseEscapedChar();
+            }
+            return codePoint;
+        }
+
+        private static void addClass(List<Integer> ranges, CharClass predefined) {
+            if (!predefined.isNegated) {
+                for (int bound : predefined.ranges) {
+                    ranges.add(bound);
+                }
+                return;
+            }
+            int low = 0;
+            for (int i = 0; i < predefined.ranges.length; i += 2) {
+                if (predefined.ranges[i] > low) {
+                    ranges.add(low);
+                    ranges.add(predefined.ranges[i] - 1);
+                }
+                low = predefined.ranges[i + 1] + 1;
+            }
+            ranges.add(low);
+            ranges.add(MAX_CODE_POINT);
+        }
+    }
+
+    /**
+     * Thrown while compiling an expression that is not supported.
+     */
+    private static final class UnsupportedRegexException extends Exception {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,173 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * LiteralSearcher finds a fixed string in text with the Boyer-Moore-Horspool algorithm, for grep patterns
+ * without regular expression metacharacters.
+ * <p>
+ * The literal is compared from its last character backwards, and on a mismatch the search skips ahead by
+ * the distance from the last occurrence of the text character under the end of the literal to the end of
+ * the literal, so most characters of the text are never looked at for literals of a few characters or more.
+ * Ignoring case folds ASCII letters only, like {@link java.util.regex.Pattern#CASE_INSENSITIVE}.
+ * <p>
+ * Text can be searched as characters, or as bytes if the literal is ASCII and encodes to the same bytes in
+ * the platform default charset, in which case its bytes only occur in encoded text where its characters do.
+ */
+public final class LiteralSearcher {
+    private static final int TABLE_SIZE = 256;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int CASE_OFFSET = 'a' - 'A';
+    private static final int NOT_FOUND = -1;
+
+    private final char[] literal;
+    private final byte[] literalBytes;
+    private final boolean isCaseInsensitive;
+    // Shift for each character or byte at the end of the window, by its low byte
+    private final int[] shifts = new int[TABLE_SIZE];
+    // Folded value of each byte
+    private final byte[] folds = new byte[TABLE_SIZE];
+
+    /**
+     * Constructor for LiteralSearcher.
+     *
+     * @param literal           String to search for
+     * @param isCaseInsensitive Boolean option to ignore differences in the case of ASCII letters
+     */
+    public LiteralSearcher(String literal, boolean isCaseInsensitive) {
+        this.isCaseInsensitive = isCaseInsensitive;
+        this.literal = new char[literal.length()];
+        for (int i = 0; i < literal.length(); i++) {
+            this.literal[i] = fold(literal.charAt(i));
+        }
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            folds[i] = (byte) fold((char) i);
+        }
+        Arrays.fill(shifts, Math.max(1, this.literal.length));
+        int last = this.literal.length - 1;
+        for (int i = 0; i < last; i++) {
+            // Characters sharing a low byte keep the smallest shift of any of them, which is still safe.
+            shifts[this.literal[i] & BYTE_MASK] = last - i;
+        }
+        this.literalBytes = toAsciiBytes(literal);
+    }
+
+    /**
+     * Checks if text can be searched as bytes encoded with the platform default charset.
+     *
+     * @return true if {@link #indexOf(byte[], int, int)} can be used, false otherwise
+     */
+    public boolean isByteSearchable() {
+        return literalBytes != null;
+    }
+
+    /**
+     * Finds the first occurrence of the literal in a range of characters.
+     *
+     * @param text Text to search
+     * @param from Index of the first character to search
+     * @param to   Index after the last character to search
+     * @return Index of the first occurrence at or after {@code from}, or -1 if there is none
+     */
+    public int indexOf(CharSequence text, int from, int to) {
+        int last = literal.length - 1;
+        int index = from;
+        while (index + last < to) {
+            char end = fold(text.charAt(index + last));
+            int offset = last;
+            while (fold(text.charAt(index + offset)) == literal[offset]) {
+                if (offset == 0) {
+                    return index;
+                }
+                offset--;
+            }
+            index += shifts[end & BYTE_MASK];
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Finds the first occurrence of the literal in a range of bytes. Only valid if {@link #isByteSearchable()}.
+     *
+     * @param bytes Array holding the text to search
+     * @param from  Index of the first byte to search
+     * @param to    Index after the last byte to search
+     * @return Index of the first occurrence at or after {@code from}, or -1 if there is none
+     */
+    public int indexOf(byte[] bytes, int from, int to) {
+        byte[] pattern = literalBytes;
+        int last = pattern.length - 1;
+        int index = from;
+        while (index + last < to) {
+            byte end = folds[bytes[index + last] & BYTE_MASK];
+            int offset = last;
+            while (folds[bytes[index + offset] & BYTE_MASK] == pattern[offset]) {
+                if (offset == 0) {
+                    return index;
+                }
+                offset--;
+            }
+            index += shifts[end & BYTE_MASK];
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Finds the first occurrence of the literal in a range of a buffer, such as a mapped file. Only valid if
+     * {@link #isByteSearchable()}.
+     *
+     * @param buffer ByteBuffer holding the text to search, read with absolute gets
+     * @param from   Index of the first byte to search
+     * @param to     Index after the last byte to search
+     * @return Index of the first occurrence at or after {@code from}, or -1 if there is none
+     */
+    public int indexOf(ByteBuffer buffer, int from, int to) {
+        byte[] pattern = literalBytes;
+        int last = pattern.length - 1;
+        int index = from;
+        while (index + last < to) {
+            byte end = folds[buffer.get(index + last) & BYTE_MASK];
+            int offset = last;
+            while (folds[buffer.get(index + offset) & BYTE_MASK] == pattern[offset]) {
+                if (offset == 0) {
+                    return index;
+                }
+                offset--;
+            }
+            index += shifts[end & BYTE_MASK];
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Checks if a line contains the literal.
+     *
+     * @param line Line to search
+     * @return true if the literal occurs in the line, false otherwise
+     */
+    public boolean contains(CharSequence line) {
+        return indexOf(line, 0, line.length()) != NOT_FOUND;
+    }
+
+    private char fold(char chr) {
+        return isCaseInsensitive && chr >= 'A' && chr <= 'Z' ? (char) (chr + CASE_OFFSET) : chr;
+    }
+
+    /**
+     * Returns the folded bytes of the literal, or null if they cannot be searched for in encoded text.
+     */
+    private byte[] toAsciiBytes(String text) {
+        byte[] ascii = new byte[text.length()];
+        byte[] folded = new byte[literal.length];
+        for (int i = 0; i < literal.length; i++) {
+            if (text.charAt(i) >= ASCII_LIMIT) {
+                return null;
+            }
+            ascii[i] = (byte) text.charAt(i);
+            folded[i] = (byte) literal[i];
+        }
+        return Arrays.equals(ascii, text.getBytes()) ? folded : null;
+    }
+}
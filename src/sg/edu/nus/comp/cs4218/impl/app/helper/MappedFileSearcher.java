@@ -0,0 +1,210 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepPattern.LineFinder;
+import sg.edu.nus.comp.cs4218.impl.util.FileRangeInputStream;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+/**
+ * MappedFileSearcher searches a range of a file for grep by memory-mapping it and looking for the byte filter
+ * of the pattern first, instead of reading and decoding it line by line.
+ * <p>
+ * The whole mapping is searched for the filter, and only around each occurrence are the boundaries of the
+ * enclosing line found. If the pattern is a literal, that line matches and its bytes are written as they
+ * are. Otherwise only that line is decoded and matched against the regular expression, so the cost of
+ * decoding is proportional to the number of candidate lines rather than the size of the file. Lines are
+ * split the same way as when the file is read as a stream: at {@code '\n'} for literals, and also at a lone
+ * {@code '\r'} for regular expressions.
+ * <p>
+ * The range is mapped in segments of at most {@code MAX_SEGMENT_SIZE} bytes that end at a newline. The rest
+ * of a range with a line too long for a segment is read as a stream instead.
+ */
+public final class MappedFileSearcher {
+    // Smaller files are read as a stream, which costs less than mapping them.
+    public static final long MIN_FILE_SIZE = 1 << 20;
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    private static final int BOUNDARY_BUFFER_SIZE = 8 * 1024;
+    private static final int INITIAL_LINE_SIZE = 256;
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final String STRING_CARRIAGE_RETURN = "\r";
+    private static final int NOT_FOUND = -1;
+
+    private final GrepPattern pattern;
+    private final LineFinder finder;
+    private final String prefix;
+    private final LineWriter writer;
+    private final long maxCount;
+    private byte[] line = new byte[INITIAL_LINE_SIZE];
+    private long count;
+
+    private MappedFileSearcher(GrepPattern pattern, String prefix, LineWriter writer, long maxCount) {
+        this.pattern = pattern;
+        this.finder = pattern.isByteSearchable() ? null : pattern.newFinder();
+        this.prefix = prefix;
+        this.writer = writer;
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * Checks if files can be searched for a pattern by mapping them.
+     *
+     * @param compiledPattern pattern to match lines against
+     * @return true if the pattern has a byte filter, false otherwise
+     */
+    public static boolean isSupported(GrepPattern compiledPattern) {
+        return compiledPattern.hasByteFilter();
+    }
+
+    /**
+     * Writes each line of a range of a file that matches the pattern to writer, prefixed with prefix.
+     *
+     * @param compiledPattern pattern to match lines against, which must be supported
+     * @param prefix          text to write before each matching line
+     * @param channel         FileChannel of the file to search
+     * @param start           Position of the first byte of the range, at the start of a line
+     * @param end             Position after the last byte of the range, at the end of a line
+     * @param writer          a LineWriter for the matching lines, or null to only count them
+     * @return the number of matching lines
+     * @throws GrepException If the rest of the range has to be read as a stream and cannot be
+     * @throws IOException   If the file cannot be mapped or the matching lines cannot be written
+     */
+    public static long writeMatchingLines(GrepPattern compiledPattern, String prefix, FileChannel channel,
+                                          long start, long end, LineWriter writer)
+            throws GrepException, IOException {
+        return writeMatchingLines(compiledPattern, prefix, channel, start, end, writer, GrepOutput.NO_LIMIT);
+    }
+
+    /**
+     * Writes each line of a range of a file that matches the pattern to writer, prefixed with prefix, and
+     * stops once maxCount lines have matched.
+     *
+     * @param compiledPattern pattern to match lines against, which must be supported
+     * @param prefix          text to write before each matching line
+     * @param channel         FileChannel of the file to search
+     * @param start           Position of the first byte of the range, at the start of a line
+     * @param end             Position after the last byte of the range, at the end of a line
+     * @param writer          a LineWriter for the matching lines, or null to only count them
+     * @param maxCount        the maximum number of matching lines to find
+     * @return the number of matching lines, at most maxCount
+     * @throws GrepException If the rest of the range has to be read as a stream and cannot be
+     * @throws IOException   If the file cannot be mapped or the matching lines cannot be written
+     */
+    public static long writeMatchingLines(GrepPattern compiledPattern, String prefix, FileChannel channel,
+                                          long start, long end, LineWriter writer, long maxCount)
+            throws GrepException, IOException {
+        MappedFileSearcher searcher = new MappedFileSearcher(compiledPattern, prefix, writer, maxCount);
+        long position = start;
+        while (position < end && searcher.count < maxCount) {
+            long segmentEnd = end - position <= MAX_SEGMENT_SIZE ? end
+                    : lineEnd(channel, position + MAX_SEGMENT_SIZE, end);
+            if (segmentEnd - position > MAX_SEGMENT_SIZE) {
+                return searcher.count + GrepApplicationHelper.writeMatchingLines(compiledPattern, prefix,
+                        new FileRangeInputStream(channel, position, end), writer, maxCount - searcher.count);
+            }
+            searcher.search(channel.map(FileChannel.MapMode.READ_ONLY, position, segmentEnd - position));
+            position = segmentEnd;
+        }
+        return searcher.count;
+    }
+
+    /**
+     * Returns the end of the line holding the byte just before {@code from}, which is the position just
+     * after its newline, or {@code end} if there is no newline before it.
+     *
+     * @param channel FileChannel to read from
+     * @param from    Position just after the first byte to look at
+     * @param end     Position after the last byte to look at
+     * @return Position after the newline that ends the line
+     * @throws IOException If the file cannot be read
+     */
+    static long lineEnd(FileChannel channel, long from, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+        long position = from - 1;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(BOUNDARY_BUFFER_SIZE, end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == NEWLINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    private void search(ByteBuffer buffer) throws IOException {
+        int limit = buffer.limit();
+        int from = 0;
+        while (from < limit && count < maxCount) {
+            int index = pattern.findFilter(buffer, from, limit);
+            if (index == NOT_FOUND) {
+                return;
+            }
+            int start = index;
+            while (start > from && buffer.get(start - 1) != NEWLINE) {
+                start--;
+            }
+            int newline = index;
+            while (newline < limit && buffer.get(newline) != NEWLINE) {
+                newline++;
+            }
+            int end = newline > start && buffer.get(newline - 1) == CARRIAGE_RETURN ? newline - 1 : newline;
+            if (finder == null) {
+                writeLine(buffer, start, end);
+            } else {
+                copyLine(buffer, start, end);
+                matchDecoded(new String(line, 0, end - start));
+            }
+            from = newline + 1;
+        }
+    }
+
+    private void copyLine(ByteBuffer buffer, int start, int end) {
+        if (end - start > line.length) {
+            line = new byte[Math.max(end - start, line.length * 2)];
+        }
+        ByteBuffer source = buffer.duplicate();
+        source.limit(end).position(start);
+        source.get(line, 0, end - start);
+    }
+
+    private void writeLine(ByteBuffer buffer, int start, int end) throws IOException {
+        count++;
+        if (writer != null) {
+            copyLine(buffer, start, end);
+            writer.write(prefix).writeLine(line, 0, end - start);
+        }
+    }
+
+    /**
+     * Matches a decoded candidate line, which is several lines if it has a lone {@code '\r'}.
+     */
+    private void matchDecoded(String text) throws IOException {
+        if (text.indexOf(CARRIAGE_RETURN) == NOT_FOUND) {
+            matchLine(text);
+            return;
+        }
+        for (String part : text.split(STRING_CARRIAGE_RETURN, -1)) {
+            matchLine(part);
+        }
+    }
+
+    private void matchLine(String text) throws IOException {
+        if (count < maxCount && finder.find(text)) {
+            count++;
+            if (writer != null) {
+                writer.write(prefix).writeLine(text);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+/**
+ * MappedFileSorter sorts the lines of a file by memory-mapping it, without creating a String for any line.
+ * <p>
+ * The file is mapped in chunks that end at a line boundary. Each line is referred to by a long holding its
+ * chunk and its offset in the chunk, so the only memory used per line is one long. The lines are sorted by
+ * comparing their bytes in the mapped file with a multikey quicksort like {@link StringRadixSort}, and
+ * written by copying their bytes from the mapped file straight into the buffer of the {@link LineWriter}.
+ * <p>
+ * The UTF-8 byte order of lines is the same as the order of {@link String#compareTo} as long as no line has a
+ * character outside the Basic Multilingual Plane, so only whole lines in plain order can be sorted this way,
+ * and only if the default charset is UTF-8 or US-ASCII. A file is not sorted this way, and nothing is
+ * written, if it is smaller than {@code MIN_FILE_SIZE}, is not valid in the default charset, has a character
+ * outside the Basic Multilingual Plane or has a {@code '\r'}, which would end a line when the file is read as
+ * text.
+ */
+public final class MappedFileSorter {
+    // Smaller files are read as Strings, which costs less than mapping them.
+    public static final long MIN_FILE_SIZE = 1 << 20;
+    // Largest size of a single mapping.
+    private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+    // A line is a long with its chunk in the high bits and its offset in the chunk in the low bits.
+    private static final int OFFSET_BITS = 31;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final int INITIAL_LINES = 1 << 10;
+    // Largest number of lines the array of lines can hold.
+    private static final int MAX_LINES = Integer.MAX_VALUE - 8;
+    // Partitions this small are sorted with an insertion sort.
+    private static final int INSERTION_SORT_SIZE = 16;
+    private static final int END_OF_LINE = -1;
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final ByteBuffer[] chunks;
+    private final boolean isAscii;
+    private long[] lines = new long[INITIAL_LINES];
+    private int lineCount;
+
+    private MappedFileSorter(ByteBuffer[] chunks, boolean isAscii) {
+        this.chunks = chunks;
+        this.isAscii = isAscii;
+    }
+
+    /**
+     * Checks if lines in the given order can be sorted by their bytes.
+     *
+     * @param order SortOrder giving the order of lines
+     * @return true if whole lines are compared in plain order and the default charset is UTF-8 or US-ASCII
+     */
+    public static boolean isSupported(SortOrder order) {
+        Charset charset = Charset.defaultCharset();
+        return !order.hasKeyFields() && !order.isFirstWordNumber() && !order.isCaseIndependent()
+                && (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Maps the file and finds its lines, if it can be sorted by its bytes.
+     *
+     * @param file Path of the file to sort
+     * @return MappedFileSorter of the file, or null if the file cannot be sorted by its bytes
+     * @throws IOException If the file cannot be read
+     */
+    public static MappedFileSorter open(Path file) throws IOException {
+        return open(file, MIN_FILE_SIZE, MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Maps the file and finds its lines, if it is at least {@code minFileSize} bytes and can be sorted by its
+     * bytes, mapping at most {@code maxChunkSize} bytes at a time.
+     */
+    static MappedFileSorter open(Path file, long minFileSize, int maxChunkSize) throws IOException {
+        MappedFileSorter sorter;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < minFileSize) {
+                return null;
+            }
+            ByteBuffer[] chunks = map(channel, maxChunkSize);
+            if (chunks == null) {
+                return null;
+            }
+            sorter = new MappedFileSorter(chunks, Charset.defaultCharset().equals(StandardCharsets.US_ASCII));
+        }
+        return sorter.index() ? sorter : null;
+    }
+
+    /**
+     * Sorts the lines of the file and writes them in the given order. With -u, only the first of identical
+     * lines is written.
+     *
+     * @param writer LineWriter to write the sorted lines to
+     * @param order  SortOrder giving the order of lines, which must be supported
+     * @throws IOException If the lines cannot be written
+     */
+    public void writeTo(LineWriter writer, SortOrder order) throws IOException {
+        sort(0, lineCount, 0);
+        write(writer, order);
+    }
+
+    /**
+     * Maps the file in chunks of at most {@code maxChunkSize} bytes that end at a line boundary.
+     *
+     * @return Array of chunks, or null if a line does not fit in a chunk
+     */
+    private static ByteBuffer[] map(FileChannel channel, int maxChunkSize) throws IOException {
+        long size = channel.size();
+        List<ByteBuffer> chunks = new ArrayList<>();
+        long position = 0;
+        while (position < size) {
+            int length = (int) Math.min(maxChunkSize, size - position);
+            ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (position + length < size) {
+                int end = length;
+                while (end > 0 && chunk.get(end - 1) != NEWLINE) {
+                    end--;
+                }
+                if (end == 0) {
+                    return null;
+                }
+                length = end;
+                chunk.limit(length);
+            }
+            chunks.add(chunk.slice());
+            position += length;
+        }
+        return chunks.toArray(new ByteBuffer[0]);
+    }
+
+    /**
+     * Finds the start of every line, checking that the bytes are valid UTF-8, or ASCII if the default charset is
+     * US-ASCII, without a character outside the Basic Multilingual Plane or a {@code '\r'}.
+     *
+     * @return true if the lines can be sorted by their bytes, false otherwise
+     */
+    private boolean index() {
+        for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+            ByteBuffer chunk = chunks[chunkIndex];
+            int limit = chunk.limit();
+            int lineStart = 0;
+            int index = 0;
+            while (index < limit) {
+                byte value = chunk.get(index);
+                if (value == NEWLINE) {
+                    if (lineCount == MAX_LINES) {
+                        return false;
+                    }
+                    addLine(chunkIndex, lineStart);
+                    lineStart = index + 1;
+                    index++;
+                } else if (value == CARRIAGE_RETURN) {
+                    return false;
+                } else if (value >= 0) {
+                    index++;
+                } else {
+                    int length = isAscii ? 0 : sequenceLength(chunk, index, limit);
+                    if (length == 0) {
+                        return false;
+                    }
+                    index += length;
+                }
+            }
+            if (lineStart < limit) {
+                if (lineCount == MAX_LINES) {
+                    return false;
+                }
+                addLine(chunkIndex, lineStart);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the length of the UTF-8 sequence of two or three bytes starting at {@code index}, or 0 if it is
+     * not a valid sequence of two or three bytes.
+     */
+    private static int sequenceLength(ByteBuffer chunk, int index, int limit) {
+        int lead = chunk.get(index) & 0xFF;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            return index + 1 < limit && isContinuation(chunk.get(index + 1), 0x80, 0xBF) ? 2 : 0;
+        }
+        if (lead < 0xE0 || lead > 0xEF || index + 2 >= limit) {
+            return 0;
+        }
+        // Overlong encodings and encoded surrogates are not valid UTF-8.
+        int min = lead == 0xE0 ? 0xA0 : 0x80;
+        int max = lead == 0xED ? 0x9F : 0xBF;
+        return isContinuation(chunk.get(index + 1), min, max) && isContinuation(chunk.get(index + 2), 0x80, 0xBF)
+                ? 3
+                : 0;
+    }
+
+    private static boolean isContinuation(byte value, int min, int max) {
+        int unsigned = value & 0xFF;
+        return unsigned >= min && unsigned <= max;
+    }
+
+    private void addLine(int chunkIndex, int offset) {
+        if (lineCount == lines.length) {
+            lines = Arrays.copyOf(lines, (int) Math.min(lines.length * 2L, MAX_LINES));
+        }
+        lines[lineCount++] = (long) chunkIndex << OFFSET_BITS | offset;
+    }
+
+    /**
+     * Writes the sorted lines, in reverse order with -r, and only the first of identical lines with -u.
+     */
+    private void write(LineWriter writer, SortOrder order) throws IOException {
+        ByteBuffer[] views = new ByteBuffer[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            views[i] = chunks[i].duplicate();
+        }
+        long previous = -1;
+        for (int i = 0; i < lineCount; i++) {
+            long line = order.isReverseOrder() ? lines[lineCount - 1 - i] : lines[i];
+            if (order.isUnique() && previous != -1 && compareFrom(previous, line, 0) == 0) {
+                continue;
+            }
+            previous = line;
+            ByteBuffer view = views[(int) (line >>> OFFSET_BITS)];
+            int start = (int) (line & OFFSET_MASK);
+            int end = start;
+            while (end < view.limit() && view.get(end) != NEWLINE) {
+                end++;
+            }
+            view.limit(end).position(start);
+            writer.writeLine(view);
+            view.clear();
+        }
+    }
+
+    /**
+     * Sorts the range [start, end) of the lines, which all share their first {@code depth} bytes.
+     * <p>
+     * Only the two smaller of the three partitions are sorted by recursing, and the largest by looping, so each
+     * recursive call sorts at most half of the lines of its caller and the stack holds at most about
+     * log2(lineCount) calls, however long the common prefixes are.
+     */
+    private void sort(int start, int end, int depth) {
+        int low = start;
+        int high = end;
+        int index = depth;
+        while (high - low > INSERTION_SORT_SIZE) {
+            swap(low, medianOfThree(low, low + (high - low) / 2, high - 1, index));
+            int pivot = byteAt(lines[low], index);
+            int lessEnd = low;
+            int greaterStart = high;
+            int current = low + 1;
+            while (current < greaterStart) {
+                int value = byteAt(lines[current], index);
+                if (value < pivot) {
+                    swap(lessEnd++, current++);
+                } else if (value > pivot) {
+                    swap(current, --greaterStart);
+                } else {
+                    current++;
+                }
+            }
+
+            int lessSize = lessEnd - low;
+            int greaterSize = high - greaterStart;
+            // The lines equal to the pivot have all ended if it is END_OF_LINE, so they are identical.
+            int equalSize = pivot == END_OF_LINE ? 0 : greaterStart - lessEnd;
+            if (equalSize >= lessSize && equalSize >= greaterSize) {
+                sort(low, lessEnd, index);
+                sort(greaterStart, high, index);
+                low = lessEnd;
+                high = greaterStart;
+                index++;
+                continue;
+            }
+            if (equalSize > 0) {
+                sort(lessEnd, greaterStart, index + 1);
+            }
+            if (lessSize >= greaterSize) {
+                sort(greaterStart, high, index);
+                high = lessEnd;
+            } else {
+                sort(low, lessEnd, index);
+                low = greaterStart;
+            }
+        }
+        insertionSort(low, high, index);
+    }
+
+    private void insertionSort(int start, int end, int depth) {
+        for (int i = start + 1; i < end; i++) {
+            long line = lines[i];
+            int j = i;
+            while (j > start && compareFrom(lines[j - 1], line, depth) > 0) {
+                lines[j] = lines[j - 1];
+                j--;
+            }
+            lines[j] = line;
+        }
+    }
+
+    /**
+     * Compares two lines by their unsigned bytes, given that they share their first {@code depth} bytes.
+     */
+    private int compareFrom(long line1, long line2, int depth) {
+        for (int i = depth; ; i++) {
+            int value1 = byteAt(line1, i);
+            int value2 = byteAt(line2, i);
+            if (value1 != value2 || value1 == END_OF_LINE) {
+                return value1 - value2;
+            }
+        }
+    }
+
+    private int medianOfThree(int first, int second, int third, int depth) {
+        int value1 = byteAt(lines[first], depth);
+        int value2 = byteAt(lines[second], depth);
+        int value3 = byteAt(lines[third], depth);
+        if (value1 < value2) {
+            if (value2 < value3) {
+                return second;
+            }
+            return value1 < value3 ? third : first;
+        }
+        if (value1 < value3) {
+            return first;
+        }
+        return value2 < value3 ? third : second;
+    }
+
+    /**
+     * Returns the unsigned byte of the line at {@code index}, or {@code END_OF_LINE} if the line is shorter.
+     * A line never contains a newline, so reaching one means the line has ended.
+     */
+    private int byteAt(long line, int index) {
+        ByteBuffer chunk = chunks[(int) (line >>> OFFSET_BITS)];
+        int position = (int) (line & OFFSET_MASK) + index;
+        if (position >= chunk.limit()) {
+            return END_OF_LINE;
+        }
+        byte value = chunk.get(position);
+        return value == NEWLINE ? END_OF_LINE : value & 0xFF;
+    }
+
+    private void swap(int index1, int index2) {
+        long temp = lines[index1];
+        lines[index1] = lines[index2];
+        lines[index2] = temp;
+    }
+}
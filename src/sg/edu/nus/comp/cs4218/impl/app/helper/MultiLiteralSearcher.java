@@ -0,0 +1,278 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MultiLiteralSearcher finds any of a set of fixed strings in text at once with an Aho-Corasick automaton,
+ * for grep with several literal patterns.
+ * <p>
+ * The literals are put in a trie of their bytes, and each state of the trie gets a failure link to the state
+ * of the longest proper suffix of its string that is also in the trie, and is marked if a literal ends there or
+ * at any state its failure links lead to. Text is then read one byte at a time, following an edge of the
+ * trie if there is one and failure links until there is otherwise, so each byte is read once and the work
+ * done for all bytes is linear in the length of the text, however many literals there are. Edges are kept in
+ * one hash table keyed by state and byte, except for those of the root, which are in an array.
+ * <p>
+ * Only ASCII literals without line breaks are supported, which encode to the same bytes in the platform
+ * default charset, so text can be searched as bytes, or as characters with each non-ASCII character read as
+ * a byte that is in no literal. Ignoring case folds ASCII letters only, like {@link LiteralSearcher}.
+ */
+public final class MultiLiteralSearcher {
+    private static final int TABLE_SIZE = 256;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int NON_ASCII = ASCII_LIMIT;
+    private static final int CASE_OFFSET = 'a' - 'A';
+    private static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+    private static final int NOT_FOUND = -1;
+    private static final String LINE_BREAKS = "\n\r";
+
+    private final boolean isCaseInsensitive;
+    // Folded value of each byte
+    private final int[] folds = new int[TABLE_SIZE];
+    // State after the root for each byte, which is the root itself if it has no edge for the byte
+    private final int[] rootNext = new int[TABLE_SIZE];
+    private final EdgeTable edges = new EdgeTable();
+    private int[] fail;
+    private boolean[] isMatch;
+    private int stateCount = 1;
+
+    /**
+     * Constructor for MultiLiteralSearcher.
+     *
+     * @param literals          Strings to search for, each of which must be supported and not empty
+     * @param isCaseInsensitive Boolean option to ignore differences in the case of ASCII letters
+     */
+    public MultiLiteralSearcher(List<String> literals, boolean isCaseInsensitive) {
+        this.isCaseInsensitive = isCaseInsensitive;
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            folds[i] = fold(i);
+        }
+        int maxStates = 1;
+        for (String literal : literals) {
+            if (literal.isEmpty() || !isSupported(literal)) {
+                throw new IllegalArgumentException("Unsupported literal: " + literal);
+            }
+            maxStates += literal.length();
+        }
+        isMatch = new boolean[maxStates];
+        int[] parents = new int[maxStates];
+        int[] labels = new int[maxStates];
+        for (String literal : literals) {
+            addLiteral(literal, parents, labels);
+        }
+        isMatch = Arrays.copyOf(isMatch, stateCount);
+        linkFailures(parents, labels);
+    }
+
+    /**
+     * Checks if a literal can be searched for.
+     *
+     * @param literal String to search for
+     * @return true if the literal is ASCII, encodes to the same bytes in the platform default charset and has
+     * no line breaks, false otherwise
+     */
+    public static boolean isSupported(String literal) {
+        byte[] ascii = new byte[literal.length()];
+        for (int i = 0; i < literal.length(); i++) {
+            char chr = literal.charAt(i);
+            if (chr >= ASCII_LIMIT || LINE_BREAKS.indexOf(chr) >= 0) {
+                return false;
+            }
+            ascii[i] = (byte) chr;
+        }
+        return Arrays.equals(ascii, literal.getBytes());
+    }
+
+    /**
+     * Finds the first occurrence of any literal in a range of bytes.
+     *
+     * @param bytes Array holding the text to search
+     * @param from  Index of the first byte to search
+     * @param to    Index after the last byte to search
+     * @return Index of the last byte of the occurrence that ends first, or -1 if there is none
+     */
+    public int indexOf(byte[] bytes, int from, int to) {
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, folds[bytes[i] & BYTE_MASK]);
+            if (isMatch[state]) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Finds the first occurrence of any literal in a range of a buffer, such as a mapped file.
+     *
+     * @param buffer ByteBuffer holding the text to search, read with absolute gets
+     * @param from   Index of the first byte to search
+     * @param to     Index after the last byte to search
+     * @return Index of the last byte of the occurrence that ends first, or -1 if there is none
+     */
+    public int indexOf(ByteBuffer buffer, int from, int to) {
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, folds[buffer.get(i) & BYTE_MASK]);
+            if (isMatch[state]) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Checks if a line contains any literal.
+     *
+     * @param line Line to search
+     * @return true if a literal occurs in the line, false otherwise
+     */
+    public boolean contains(CharSequence line) {
+        int state = ROOT;
+        for (int i = 0; i < line.length(); i++) {
+            char chr = line.charAt(i);
+            state = next(state, chr < ASCII_LIMIT ? folds[chr] : NON_ASCII);
+            if (isMatch[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the state after reading a folded byte in a state.
+     */
+    private int next(int state, int value) {
+        int current = state;
+        while (current != ROOT) {
+            int target = edges.get(current, value);
+            if (target != NO_STATE) {
+                return target;
+            }
+            current = fail[current];
+        }
+        return rootNext[value];
+    }
+
+    private void addLiteral(String literal, int[] parents, int[] labels) {
+        int state = ROOT;
+        for (int i = 0; i < literal.length(); i++) {
+            int value = folds[literal.charAt(i)];
+            int target = state == ROOT ? rootNext[value] : edges.get(state, value);
+            if (target == ROOT || target == NO_STATE) {
+                target = stateCount++;
+                parents[target] = state;
+                labels[target] = value;
+                if (state == ROOT) {
+                    rootNext[value] = target;
+                } else {
+                    edges.put(state, value, target);
+                }
+            }
+            state = target;
+        }
+        isMatch[state] = true;
+    }
+
+    /**
+     * Sets the failure link of each state in order of depth, as the link of a state depends on those of
+     * shallower states, which are not always created first when there are several literals.
+     */
+    private void linkFailures(int[] parents, int[] labels) {
+        int[] depths = new int[stateCount];
+        for (int state = 1; state < stateCount; state++) {
+            // A parent is always created before its children.
+            depths[state] = depths[parents[state]] + 1;
+        }
+        Integer[] order = new Integer[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            order[state] = state;
+        }
+        Arrays.sort(order, (s1, s2) -> Integer.compare(depths[s1], depths[s2]));
+        fail = new int[stateCount];
+        for (int state : order) {
+            int parent = parents[state];
+            if (state == ROOT || parent == ROOT) {
+                continue;
+            }
+            fail[state] = next(fail[parent], labels[state]);
+            isMatch[state] |= isMatch[fail[state]];
+        }
+    }
+
+    private int fold(int value) {
+        return isCaseInsensitive && value >= 'A' && value <= 'Z' ? value + CASE_OFFSET : value;
+    }
+
+    /**
+     * Open addressing hash table of the edges of the trie, from a state and a byte to the next state.
+     */
+    private static final class EdgeTable {
+        private static final int INITIAL_CAPACITY = 64;
+        private static final long EMPTY = -1;
+        private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+        private long[] keys = newKeys(INITIAL_CAPACITY);
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+
+        private int get(int state, int value) {
+            long key = toKey(state, value);
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return NO_STATE;
+        }
+
+        private void put(int state, int value, int target) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            insert(toKey(state, value), target);
+            size++;
+        }
+
+        private void insert(long key, int target) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = target;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static long toKey(int state, int value) {
+            return (long) state << Byte.SIZE | value;
+        }
+
+        private static int slot(long key, int mask) {
+            return (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+        }
+    }
+}
@@ -6,11 +6,13 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_TAB;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import sg.edu.nus.comp.cs4218.exception.PasteException;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 public final class PasteApplicationHelper {
 
@@ -62,6 +64,55 @@ public final class PasteApplicationHelper {
         return String.join(STRING_NEWLINE, mergedLines);
     }
 
+    /**
+     * Writes the lists merged in serial to {@code writer}, one row per list, in the same format as
+     * {@link #mergeInSerial(List)}.
+     *
+     * @param listOfFiles List of Lists of Strings representing the data from multiple files to be merged
+     * @param writer      LineWriter to write the merged rows to
+     * @throws IOException If the rows cannot be written
+     */
+    public static void writeInSerial(List<List<String>> listOfFiles, LineWriter writer) throws IOException {
+        for (List<String> file : listOfFiles) {
+            for (int i = 0; i < file.size(); i++) {
+                if (i > 0) {
+                    writer.write(STRING_TAB);
+                }
+                writer.write(file.get(i));
+            }
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Writes the lists merged in parallel to {@code writer}, one row at a time, in the same format as
+     * {@link #mergeInParallel(List)}. Rows are written directly from the lists without building the
+     * transposed lists first.
+     *
+     * @param listOfFiles A List of Lists of Strings representing the data to be merged in parallel
+     * @param writer      LineWriter to write the merged rows to
+     * @throws IOException If the rows cannot be written
+     */
+    public static void writeInParallel(List<List<String>> listOfFiles, LineWriter writer) throws IOException {
+        int maxFileLength = listOfFiles.stream()
+                .mapToInt(List::size)
+                .max()
+                .orElse(0);
+
+        for (int i = 0; i < maxFileLength; i++) {
+            for (int j = 0; j < listOfFiles.size(); j++) {
+                if (j > 0) {
+                    writer.write(STRING_TAB);
+                }
+                List<String> file = listOfFiles.get(j);
+                if (i < file.size()) {
+                    writer.write(file.get(i));
+                }
+            }
+            writer.newLine();
+        }
+    }
+
     /**
      * Checks if the specified file is a valid file for pasting.
      *
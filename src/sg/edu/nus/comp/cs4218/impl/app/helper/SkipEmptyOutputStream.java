@@ -0,0 +1,57 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * SkipEmptyOutputStream writes nothing at all if the whole output is one empty line, for applications that
+ * only print their lines when the lines joined together are not empty, such as sort, cut and paste.
+ * <p>
+ * A line separator written before anything else is held back until more output follows it, and is dropped if
+ * none does. All other bytes are passed on as they are written. Closing a SkipEmptyOutputStream flushes it
+ * but does not close the underlying stream, since that stream is usually owned by the shell.
+ */
+public final class SkipEmptyOutputStream extends FilterOutputStream {
+    private static final byte[] NEWLINE_BYTES = STRING_NEWLINE.getBytes();
+
+    private boolean hasOutput;
+    private boolean hasHeldNewline;
+
+    /**
+     * Constructor for SkipEmptyOutputStream.
+     *
+     * @param output OutputStream to write to
+     */
+    public SkipEmptyOutputStream(OutputStream output) {
+        super(output);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (!hasOutput && !hasHeldNewline && Arrays.equals(bytes, offset, offset + length, NEWLINE_BYTES, 0,
+                NEWLINE_BYTES.length)) {
+            hasHeldNewline = true;
+            return;
+        }
+        if (length > 0 && hasHeldNewline) {
+            hasHeldNewline = false;
+            out.write(NEWLINE_BYTES);
+        }
+        hasOutput |= length > 0;
+        out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
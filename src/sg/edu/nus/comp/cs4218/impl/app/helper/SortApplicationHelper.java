@@ -0,0 +1,230 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A helper class that provides the line ordering used by sort.
+ */
+public final class SortApplicationHelper {
+
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    // Below this many lines the cost of starting threads outweighs sorting on one thread.
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    // Fewest lines a single fork/join task sorts on its own.
+    private static final int MIN_TASK_SIZE = 1 << 13;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private SortApplicationHelper() { /* Does nothing*/ }
+
+    /**
+     * Returns the comparator that orders lines based on the given conditions.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @return Comparator of lines in ascending order
+     */
+    public static Comparator<String> getLineComparator(Boolean isFirstWordNumber, Boolean isCaseIndependent) {
+        return getLineComparator(new SortOrder(isFirstWordNumber, false, isCaseIndependent));
+    }
+
+    /**
+     * Returns the comparator that orders lines in the given order before -r is applied.
+     *
+     * @param order SortOrder giving the order of lines
+     * @return Comparator of lines in ascending order
+     */
+    public static Comparator<String> getLineComparator(SortOrder order) {
+        if (order.hasKeyFields()) {
+            return (str1, str2) -> new FieldSortKey(str1, order).compareTo(new FieldSortKey(str2, order));
+        }
+        Boolean isFirstWordNumber = order.isFirstWordNumber();
+        Boolean isCaseIndependent = order.isCaseIndependent();
+        if (!isFirstWordNumber && !isCaseIndependent) {
+            return Comparator.naturalOrder();
+        }
+        return (str1, str2) -> new SortKey(str1, isFirstWordNumber, isCaseIndependent)
+                .compareTo(new SortKey(str2, isFirstWordNumber, isCaseIndependent));
+    }
+
+    /**
+     * Sorts the lines based on the given conditions, using {@code DEFAULT_PARALLELISM} threads for large inputs.
+     * Invoking this function will mutate the list.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param lines             List of Strings of lines
+     * @see #sortLines(Boolean, Boolean, Boolean, List, int)
+     */
+    public static void sortLines(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
+                                 List<String> lines) {
+        sortLines(isFirstWordNumber, isReverseOrder, isCaseIndependent, lines, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Sorts the lines based on the given conditions. Invoking this function will mutate the list.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param lines             List of Strings of lines
+     * @param parallelism       Maximum number of threads to sort with
+     * @see #sortLines(SortOrder, List, int)
+     */
+    public static void sortLines(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
+                                 List<String> lines, int parallelism) {
+        sortLines(new SortOrder(isFirstWordNumber, isReverseOrder, isCaseIndependent), lines, parallelism);
+    }
+
+    /**
+     * Sorts the lines in the given order. Invoking this function will mutate the list.
+     * <p>
+     * The sort is stable and reverse order is applied after sorting, so lines that compare equal keep their
+     * input order, or the opposite of it when sorting in reverse order. With -s -r only the comparison of
+     * lines is reversed, so lines that compare equal keep their input order. With key fields, -n or -f, the
+     * {@link FieldSortKey} or {@link SortKey} of every line is extracted once before sorting instead of on
+     * every comparison; without them the lines are sorted with {@link StringRadixSort}. Lists of at least
+     * {@code PARALLEL_THRESHOLD} lines are split into ranges that are sorted this way on {@code parallelism}
+     * threads and then merged, which gives the same order.
+     *
+     * @param order       SortOrder giving the order of lines
+     * @param lines       List of Strings of lines
+     * @param parallelism Maximum number of threads to sort with
+     */
+    public static void sortLines(SortOrder order, List<String> lines, int parallelism) {
+        Boolean isFirstWordNumber = order.isFirstWordNumber();
+        Boolean isCaseIndependent = order.isCaseIndependent();
+        boolean isReversedAfterSort = order.isInputOrderReversed();
+        if (order.hasKeyFields()) {
+            FieldSortKey[] keys = new FieldSortKey[lines.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new FieldSortKey(lines.get(i), order);
+            }
+            Comparator<FieldSortKey> comparator = keyOrder(order);
+            sort(keys, comparator, (array, start, end) -> Arrays.sort(array, start, end, comparator), parallelism);
+            for (int i = 0; i < keys.length; i++) {
+                lines.set(i, keys[i].getLine());
+            }
+        } else if (isFirstWordNumber || isCaseIndependent) {
+            SortKey[] keys = new SortKey[lines.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new SortKey(lines.get(i), isFirstWordNumber, isCaseIndependent);
+            }
+            Comparator<SortKey> comparator = keyOrder(order);
+            sort(keys, comparator, (array, start, end) -> Arrays.sort(array, start, end, comparator), parallelism);
+            for (int i = 0; i < keys.length; i++) {
+                lines.set(i, keys[i].getLine());
+            }
+        } else {
+            String[] array = lines.toArray(new String[0]);
+            sort(array, Comparator.naturalOrder(), StringRadixSort::sort, parallelism);
+            for (int i = 0; i < array.length; i++) {
+                lines.set(i, array[i]);
+            }
+            // Only identical lines compare equal, so reversing the sorted lines is the same with or without -s.
+            isReversedAfterSort = order.isReverseOrder();
+        }
+        if (isReversedAfterSort) {
+            Collections.reverse(lines);
+        }
+    }
+
+    /**
+     * Returns the order of keys, which is descending with -s -r. Otherwise -r is applied by reversing the
+     * sorted keys, so that keys that compare equal come out in the opposite of their input order.
+     */
+    private static <T extends Comparable<? super T>> Comparator<T> keyOrder(SortOrder order) {
+        return order.isReverseOrder() && order.isStable() ? Comparator.reverseOrder() : Comparator.naturalOrder();
+    }
+
+    /**
+     * Sorts the array stably. If the array has at least {@code PARALLEL_THRESHOLD} elements, ranges of it are
+     * sorted with {@code rangeSorter} on a pool of {@code parallelism} threads and merged with a fork/join merge
+     * sort, otherwise the whole array is sorted with {@code rangeSorter}.
+     *
+     * @param array       Array to sort
+     * @param comparator  Comparator giving the order
+     * @param rangeSorter Stable sort of a range of the array in the order of {@code comparator}
+     * @param parallelism Maximum number of threads to sort with
+     */
+    private static <T> void sort(T[] array, Comparator<? super T> comparator, RangeSorter<T> rangeSorter,
+                                 int parallelism) {
+        if (parallelism <= 1 || array.length < PARALLEL_THRESHOLD) {
+            rangeSorter.sort(array, 0, array.length);
+            return;
+        }
+        int taskSize = Math.max(MIN_TASK_SIZE, array.length / (parallelism * TASKS_PER_THREAD));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new MergeSortTask<>(array, array.clone(), 0, array.length, comparator, rangeSorter,
+                    taskSize));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Sorts the range [start, end) of an array.
+     */
+    private interface RangeSorter<T> {
+        void sort(T[] array, int start, int end);
+    }
+
+    /**
+     * Sorts a range of an array by sorting both halves in parallel and merging them.
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] array;
+        private final T[] buffer;
+        private final int start;
+        private final int end;
+        private final transient Comparator<? super T> comparator;
+        private final transient RangeSorter<T> rangeSorter;
+        private final int taskSize;
+
+        private MergeSortTask(T[] array, T[] buffer, int start, int end, Comparator<? super T> comparator,
+                              RangeSorter<T> rangeSorter, int taskSize) {
+            super();
+            this.array = array;
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.comparator = comparator;
+            this.rangeSorter = rangeSorter;
+            this.taskSize = taskSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= taskSize) {
+                rangeSorter.sort(array, start, end);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new MergeSortTask<>(array, buffer, start, mid, comparator, rangeSorter, taskSize),
+                    new MergeSortTask<>(array, buffer, mid, end, comparator, rangeSorter, taskSize));
+            if (comparator.compare(array[mid - 1], array[mid]) <= 0) {
+                return; // already in order
+            }
+
+            // Merge the halves back into the array, taking from the left half first on ties to stay stable.
+            System.arraycopy(array, start, buffer, start, mid - start);
+            int left = start;
+            int right = mid;
+            int index = start;
+            while (left < mid && right < end) {
+                array[index++] = comparator.compare(buffer[left], array[right]) <= 0
+                        ? buffer[left++]
+                        : array[right++];
+            }
+            System.arraycopy(buffer, left, array, index, mid - left);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * SortKey holds a line, or a region of it, together with the parts of it that sort compares, extracted once
+ * when the key is created so that comparing two keys does not allocate.
+ * <p>
+ * Keys are ordered as follows, and should only be compared with keys created with the same options:
+ * - Without options, the regions are compared as Strings
+ * - With case-independent sorting, the regions are compared in lower case
+ * - When the first word is a number, the first chunk of digits or non-digits of each region is compared
+ *   first, with numeric chunks after non-numeric ones and numeric chunks compared by value. Regions that tie
+ *   are compared by the rest of the region. Case-independent sorting does not apply, and an empty region is
+ *   compared as a String
+ * <p>
+ * Only case-independent keys copy their region, to hold it in lower case.
+ */
+public final class SortKey implements Comparable<SortKey> {
+    // Any number with this many digits or fewer fits in a long.
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int RADIX = 10;
+    private static final int NO_CHUNK = -1;
+
+    private final String line;
+    private final String text; // line as compared, or the region of it in lower case if folded
+    private final int start; // region of text that is compared
+    private final int end;
+    private final int chunkEnd; // end of the first chunk in text, or NO_CHUNK
+    private final boolean isNumeric;
+    private final long value;
+    private final BigInteger bigValue; // value of a numeric chunk too long for a long, otherwise null
+
+    /**
+     * Constructor for SortKey of a whole line.
+     *
+     * @param line              Line to create the key of
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     */
+    public SortKey(String line, Boolean isFirstWordNumber, Boolean isCaseIndependent) {
+        this(line, 0, line.length(), isFirstWordNumber, isCaseIndependent);
+    }
+
+    /**
+     * Constructor for SortKey of the region [start, end) of a line.
+     *
+     * @param line              Line to create the key of
+     * @param start             Index of the first character of the region (inclusive)
+     * @param end               Index of the last character of the region (exclusive)
+     * @param isFirstWordNumber Boolean option to treat the first word of the region as a number
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     */
+    public SortKey(String line, int start, int end, Boolean isFirstWordNumber, Boolean isCaseIndependent) {
+        this.line = line;
+        if (isCaseIndependent && !isFirstWordNumber) {
+            this.text = (start == 0 && end == line.length() ? line : line.substring(start, end))
+                    .toLowerCase(Locale.ROOT);
+            this.start = 0;
+            this.end = text.length();
+        } else {
+            this.text = line;
+            this.start = start;
+            this.end = end;
+        }
+        if (!isFirstWordNumber || start == end) {
+            this.chunkEnd = NO_CHUNK;
+            this.isNumeric = false;
+            this.value = 0;
+            this.bigValue = null;
+            return;
+        }
+
+        boolean isDigit = Character.isDigit(line.charAt(start));
+        int index = start + 1;
+        while (index < end && Character.isDigit(line.charAt(index)) == isDigit) {
+            index++;
+        }
+        this.chunkEnd = index;
+        this.isNumeric = isDigit;
+        if (isDigit && index - start > MAX_LONG_DIGITS) {
+            this.value = 0;
+            this.bigValue = new BigInteger(line.substring(start, index));
+        } else {
+            long number = 0;
+            for (int i = start; isDigit && i < index; i++) {
+                number = number * RADIX + Character.digit(line.charAt(i), RADIX);
+            }
+            this.value = number;
+            this.bigValue = null;
+        }
+    }
+
+    /**
+     * Returns the line this key was created from.
+     *
+     * @return The line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    @Override
+    public int compareTo(SortKey other) {
+        if (chunkEnd == NO_CHUNK || other.chunkEnd == NO_CHUNK) {
+            return compareRegions(text, start, end, other.text, other.start, other.end);
+        }
+
+        int result;
+        if (isNumeric && !other.isNumeric) {
+            return 1;
+        } else if (!isNumeric && other.isNumeric) {
+            return -1;
+        } else if (isNumeric) {
+            result = compareValues(other);
+        } else {
+            result = compareRegions(text, start, chunkEnd, other.text, other.start, other.chunkEnd);
+        }
+        if (result != 0) {
+            return result;
+        }
+        return compareRegions(text, chunkEnd, end, other.text, other.chunkEnd, other.end);
+    }
+
+    private int compareValues(SortKey other) {
+        if (bigValue == null && other.bigValue == null) {
+            return Long.compare(value, other.value);
+        }
+        BigInteger number1 = bigValue == null ? BigInteger.valueOf(value) : bigValue;
+        BigInteger number2 = other.bigValue == null ? BigInteger.valueOf(other.value) : other.bigValue;
+        return number1.compareTo(number2);
+    }
+
+    /**
+     * Compares two regions of Strings in the same way as {@link String#compareTo}.
+     */
+    private static int compareRegions(String str1, int start1, int end1, String str2, int start2, int end2) {
+        int length1 = end1 - start1;
+        int length2 = end2 - start2;
+        int length = Math.min(length1, length2);
+        for (int i = 0; i < length; i++) {
+            char chr1 = str1.charAt(start1 + i);
+            char chr2 = str2.charAt(start2 + i);
+            if (chr1 != chr2) {
+                return chr1 - chr2;
+            }
+        }
+        return length1 - length2;
+    }
+}
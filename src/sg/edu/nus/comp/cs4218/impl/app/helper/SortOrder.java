@@ -0,0 +1,135 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+
+import java.util.List;
+
+/**
+ * SortOrder holds the options that decide the order of lines in sort.
+ * <p>
+ * Without key fields, whole lines are compared using the -n and -f options. With key fields, lines are
+ * compared by each key in turn and, if all keys are equal, by the whole line unless the sort is stable. In
+ * both cases -r reverses the sorted lines, so lines that compare equal come out in the opposite of their
+ * input order, unless the sort is stable: -s -r reverses only the comparison of lines, so that lines that
+ * compare equal keep their input order.
+ * <p>
+ * With -u, lines whose keys are all equal are not compared by the whole line, so that only one of them is
+ * output.
+ */
+public final class SortOrder {
+    private final Boolean isFirstWordNumber;
+    private final Boolean isReverseOrder;
+    private final Boolean isCaseIndependent;
+    private final List<KeyField> keyFields;
+    private final int separator;
+    private final Boolean isStable;
+    private final Boolean isUnique;
+
+    /**
+     * Constructor for SortOrder that compares whole lines.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     */
+    public SortOrder(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent) {
+        this(isFirstWordNumber, isReverseOrder, isCaseIndependent, List.of(), NO_SEPARATOR, false);
+    }
+
+    /**
+     * Constructor for SortOrder that outputs every line.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param keyFields         Keys to compare lines by, or an empty list to compare whole lines
+     * @param separator         Field separator, or {@code NO_SEPARATOR} to separate fields by blanks
+     * @param isStable          Boolean option to keep the input order of lines whose keys are all equal
+     */
+    public SortOrder(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
+                     List<KeyField> keyFields, int separator, Boolean isStable) {
+        this(isFirstWordNumber, isReverseOrder, isCaseIndependent, keyFields, separator, isStable, false);
+    }
+
+    /**
+     * Constructor for SortOrder.
+     *
+     * @param isFirstWordNumber Boolean option to treat the first word of a line as a number
+     * @param isReverseOrder    Boolean option to sort in reverse order
+     * @param isCaseIndependent Boolean option to perform case-independent sorting
+     * @param keyFields         Keys to compare lines by, or an empty list to compare whole lines
+     * @param separator         Field separator, or {@code NO_SEPARATOR} to separate fields by blanks
+     * @param isStable          Boolean option to keep the input order of lines whose keys are all equal
+     * @param isUnique          Boolean option to output only the first of the lines that compare equal
+     */
+    public SortOrder(Boolean isFirstWordNumber, Boolean isReverseOrder, Boolean isCaseIndependent,
+                     List<KeyField> keyFields, int separator, Boolean isStable, Boolean isUnique) {
+        this.isFirstWordNumber = isFirstWordNumber;
+        this.isReverseOrder = isReverseOrder;
+        this.isCaseIndependent = isCaseIndependent;
+        this.keyFields = List.copyOf(keyFields);
+        this.separator = separator;
+        this.isStable = isStable;
+        this.isUnique = isUnique;
+    }
+
+    public Boolean isFirstWordNumber() {
+        return isFirstWordNumber;
+    }
+
+    public Boolean isReverseOrder() {
+        return isReverseOrder;
+    }
+
+    public Boolean isCaseIndependent() {
+        return isCaseIndependent;
+    }
+
+    public List<KeyField> getKeyFields() {
+        return keyFields;
+    }
+
+    public int getSeparator() {
+        return separator;
+    }
+
+    public Boolean isStable() {
+        return isStable;
+    }
+
+    public Boolean isUnique() {
+        return isUnique;
+    }
+
+    /**
+     * Checks if lines that compare equal come out in the opposite of their input order, which they do with -r
+     * unless the sort is stable.
+     *
+     * @return true if -r is given without -s, false otherwise
+     */
+    public boolean isInputOrderReversed() {
+        return isReverseOrder && !isStable;
+    }
+
+    /**
+     * Checks if lines are compared by key fields instead of as a whole.
+     *
+     * @return true if any key field is given, false otherwise
+     */
+    public boolean hasKeyFields() {
+        return !keyFields.isEmpty();
+    }
+
+    /**
+     * Checks if only identical lines compare equal, so that lines that compare equal cannot be told apart in
+     * the output. This holds for plain whole lines, and for key fields that fall back to comparing whole lines.
+     *
+     * @return true if lines that compare equal are always identical, false otherwise
+     */
+    public boolean isTotal() {
+        if (hasKeyFields()) {
+            return !isStable && !isUnique;
+        }
+        return !isFirstWordNumber && !isCaseIndependent;
+    }
+}
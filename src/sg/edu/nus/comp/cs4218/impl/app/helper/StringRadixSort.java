@@ -0,0 +1,133 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+/**
+ * StringRadixSort sorts Strings in the order of {@link String#compareTo} with a multikey quicksort, which is a
+ * most-significant-digit radix sort that partitions on one character at a time.
+ * <p>
+ * Strings sharing a prefix have each character of the prefix examined once per partitioning step instead of
+ * once per comparison, which makes it much faster than a comparison sort for long lines with common
+ * prefixes, such as log lines. Small partitions are finished with an insertion sort that starts comparing
+ * at the current depth.
+ * <p>
+ * The sort is not stable, but Strings that compare equal are identical, so the result is the same as that
+ * of a stable sort.
+ */
+public final class StringRadixSort {
+    // Partitions this small are sorted with an insertion sort.
+    private static final int INSERTION_SORT_SIZE = 16;
+    private static final int END_OF_STRING = -1;
+
+    private StringRadixSort() { /* Does nothing*/ }
+
+    /**
+     * Sorts the array.
+     *
+     * @param array Array of Strings to sort
+     */
+    public static void sort(String... array) {
+        sort(array, 0, array.length);
+    }
+
+    /**
+     * Sorts the range [start, end) of the array.
+     *
+     * @param array Array of Strings to sort
+     * @param start Index of the first String to sort (inclusive)
+     * @param end   Index of the last String to sort (exclusive)
+     */
+    public static void sort(String[] array, int start, int end) {
+        sort(array, start, end, 0);
+    }
+
+    /**
+     * Sorts the range [start, end) of the array, whose Strings all share their first {@code depth} characters.
+     */
+    private static void sort(String[] array, int start, int end, int depth) {
+        int low = start;
+        int high = end;
+        int index = depth;
+        // The partition of Strings equal to the pivot at this depth is sorted by looping instead of
+        // recursing, so long common prefixes do not use up the stack.
+        while (high - low > INSERTION_SORT_SIZE) {
+            swap(array, low, medianOfThree(array, low, low + (high - low) / 2, high - 1, index));
+            int pivot = charAt(array[low], index);
+            int lessEnd = low;
+            int greaterStart = high;
+            int current = low + 1;
+            while (current < greaterStart) {
+                int chr = charAt(array[current], index);
+                if (chr < pivot) {
+                    swap(array, lessEnd++, current++);
+                } else if (chr > pivot) {
+                    swap(array, current, --greaterStart);
+                } else {
+                    current++;
+                }
+            }
+
+            sort(array, low, lessEnd, index);
+            sort(array, greaterStart, high, index);
+            if (pivot == END_OF_STRING) {
+                return; // the Strings equal to the pivot have all ended, so they are identical
+            }
+            low = lessEnd;
+            high = greaterStart;
+            index++;
+        }
+        insertionSort(array, low, high, index);
+    }
+
+    private static void insertionSort(String[] array, int start, int end, int depth) {
+        for (int i = start + 1; i < end; i++) {
+            String str = array[i];
+            int j = i;
+            while (j > start && compareFrom(array[j - 1], str, depth) > 0) {
+                array[j] = array[j - 1];
+                j--;
+            }
+            array[j] = str;
+        }
+    }
+
+    /**
+     * Compares two Strings in the same way as {@link String#compareTo}, given that they share their first
+     * {@code depth} characters.
+     */
+    private static int compareFrom(String str1, String str2, int depth) {
+        int length = Math.min(str1.length(), str2.length());
+        for (int i = depth; i < length; i++) {
+            char chr1 = str1.charAt(i);
+            char chr2 = str2.charAt(i);
+            if (chr1 != chr2) {
+                return chr1 - chr2;
+            }
+        }
+        return str1.length() - str2.length();
+    }
+
+    private static int medianOfThree(String[] array, int first, int second, int third, int depth) {
+        int chr1 = charAt(array[first], depth);
+        int chr2 = charAt(array[second], depth);
+        int chr3 = charAt(array[third], depth);
+        if (chr1 < chr2) {
+            if (chr2 < chr3) {
+                return second;
+            }
+            return chr1 < chr3 ? third : first;
+        }
+        if (chr1 < chr3) {
+            return first;
+        }
+        return chr2 < chr3 ? third : second;
+    }
+
+    private static int charAt(String str, int index) {
+        return index < str.length() ? str.charAt(index) : END_OF_STRING;
+    }
+
+    private static void swap(String[] array, int index1, int index2) {
+        String temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+}
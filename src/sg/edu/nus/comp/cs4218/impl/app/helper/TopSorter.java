@@ -0,0 +1,90 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * TopSorter keeps the first lines of the sorted output of the lines added to it, without keeping the other
+ * lines.
+ * <p>
+ * The lines are held in a sorted set of at most {@code limit} lines in output order, so each line added
+ * takes O(log limit) time and the memory used does not depend on the number of lines added. Lines that
+ * compare equal are ranked by the order they were added in, so the output is identical to the start of the
+ * output of {@link SortApplicationHelper#sortLines(SortOrder, List, int)}. With -u, a line that compares
+ * equal to a line already kept is not kept, so only the first of the lines that compare equal is output.
+ */
+public final class TopSorter {
+    private final SortOrder order;
+    private final int limit;
+    private final Comparator<Entry> outputOrder;
+    private final TreeSet<Entry> kept;
+    private long count;
+
+    /**
+     * Constructor for TopSorter.
+     *
+     * @param order SortOrder giving the order of lines
+     * @param limit Number of lines to keep
+     */
+    public TopSorter(SortOrder order, int limit) {
+        this.order = order;
+        this.limit = limit;
+        // With -s -r only the keys are compared in reverse, so equal lines added earlier are still output first.
+        boolean isKeyOrderReversed = order.isReverseOrder() && order.isStable();
+        Comparator<Entry> sortedOrder = (entry1, entry2) -> {
+            int result = isKeyOrderReversed ? entry2.key.compareTo(entry1.key) : entry1.key.compareTo(entry2.key);
+            return result != 0 || order.isUnique() ? result : Long.compare(entry1.index, entry2.index);
+        };
+        // Otherwise with -r the sorted lines are reversed, so equal lines added later are output first.
+        this.outputOrder = order.isInputOrderReversed() ? sortedOrder.reversed() : sortedOrder;
+        this.kept = new TreeSet<>(outputOrder);
+    }
+
+    /**
+     * Adds a line, keeping it only if it is among the first {@code limit} lines of the output so far.
+     *
+     * @param line Line to add
+     */
+    public void add(String line) {
+        if (limit == 0) {
+            return;
+        }
+        Entry entry = new Entry(new FieldSortKey(line, order), count++);
+        if (kept.size() == limit && outputOrder.compare(entry, kept.last()) >= 0) {
+            return;
+        }
+        // With -u this keeps the line already kept if the lines compare equal.
+        if (kept.add(entry) && kept.size() > limit) {
+            kept.pollLast();
+        }
+    }
+
+    /**
+     * Returns the lines kept, in sorted order.
+     *
+     * @return List of at most {@code limit} lines
+     */
+    public List<String> getLines() {
+        List<String> lines = new ArrayList<>(kept.size());
+        for (Entry entry : kept) {
+            lines.add(entry.key.getLine());
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * A line added to the sorter, with its position among the lines added.
+     */
+    private static final class Entry {
+        private final FieldSortKey key;
+        private final long index;
+
+        private Entry(FieldSortKey key, long index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import java.io.IOException;
+
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMerger.LineSink;
+
+/**
+ * UniqueLineSink passes on one line of each run of consecutive lines that compare equal, for sort -u.
+ * <p>
+ * Lines are compared by their {@link FieldSortKey} in a unique {@link SortOrder}, so lines whose keys are all
+ * equal are in the same run. Either the first or the last line of each run is kept, so that the line kept is
+ * the one that came first in the input whether or not the run is in reverse input order. {@link #finish()}
+ * must be called after the last line to pass on the line kept from the last run.
+ */
+public final class UniqueLineSink implements LineSink {
+    private final SortOrder order;
+    private final boolean isLastKept;
+    private final LineSink sink;
+    private FieldSortKey kept;
+
+    /**
+     * Constructor for UniqueLineSink.
+     *
+     * @param order      SortOrder to compare lines in
+     * @param isLastKept Boolean option to keep the last line of each run instead of the first
+     * @param sink       LineSink to pass the lines kept to
+     */
+    public UniqueLineSink(SortOrder order, boolean isLastKept, LineSink sink) {
+        this.order = order;
+        this.isLastKept = isLastKept;
+        this.sink = sink;
+    }
+
+    @Override
+    public void accept(String line) throws IOException {
+        FieldSortKey key = new FieldSortKey(line, order);
+        if (kept == null) {
+            kept = key;
+            return;
+        }
+        if (kept.compareTo(key) != 0) {
+            sink.accept(kept.getLine());
+            kept = key;
+        } else if (isLastKept) {
+            kept = key;
+        }
+    }
+
+    /**
+     * Passes on the line kept from the last run, if any.
+     *
+     * @throws IOException If the sink fails
+     */
+    public void finish() throws IOException {
+        if (kept != null) {
+            sink.accept(kept.getLine());
+            kept = null;
+        }
+    }
+}
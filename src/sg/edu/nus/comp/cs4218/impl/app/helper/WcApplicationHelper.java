@@ -8,10 +8,11 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import sg.edu.nus.comp.cs4218.exception.WcException;
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
 
 public final class WcApplicationHelper {
 
-    private static final String NUMBER_FORMAT = " %7d";
+    private static final int NUMBER_WIDTH = 7;
     private static final int LINES_INDEX = 0;
     private static final int WORDS_INDEX = 1;
     private static final int BYTES_INDEX = 2;
@@ -74,15 +75,50 @@ public final class WcApplicationHelper {
     public static String formatCount(Boolean isLines, Boolean isWords, Boolean isBytes, long... count) {
         StringBuilder stringBuilder = new StringBuilder();
         if (isLines) {
-            stringBuilder.append(String.format(NUMBER_FORMAT, count[0]));
+            appendNumber(stringBuilder, count[LINES_INDEX]);
         }
         if (isWords) {
-            stringBuilder.append(String.format(NUMBER_FORMAT, count[1]));
+            appendNumber(stringBuilder, count[WORDS_INDEX]);
         }
         if (isBytes) {
-            stringBuilder.append(String.format(NUMBER_FORMAT, count[2]));
+            appendNumber(stringBuilder, count[BYTES_INDEX]);
         }
 
         return stringBuilder.toString();
     }
+
+    /**
+     * Writes the counts based on the specified options, in the same format as {@link #formatCount}.
+     *
+     * @param writer  LineWriter to write the counts to
+     * @param isBytes Boolean option to count the number of Bytes
+     * @param isLines Boolean option to count the number of lines
+     * @param isWords Boolean option to count the number of words
+     * @param count   An array containing the counts of lines, words, and bytes, in that order
+     * @throws IOException If the counts cannot be written
+     */
+    public static void writeCount(LineWriter writer, Boolean isLines, Boolean isWords, Boolean isBytes,
+                                  long... count) throws IOException {
+        if (isLines) {
+            writer.write(' ').writeLong(count[LINES_INDEX], NUMBER_WIDTH);
+        }
+        if (isWords) {
+            writer.write(' ').writeLong(count[WORDS_INDEX], NUMBER_WIDTH);
+        }
+        if (isBytes) {
+            writer.write(' ').writeLong(count[BYTES_INDEX], NUMBER_WIDTH);
+        }
+    }
+
+    /**
+     * Appends a space and the number right-aligned to {@code NUMBER_WIDTH}, i.e. {@code " %7d"}.
+     */
+    private static void appendNumber(StringBuilder stringBuilder, long number) {
+        String digits = Long.toString(number);
+        stringBuilder.append(' ');
+        for (int i = digits.length(); i < NUMBER_WIDTH; i++) {
+            stringBuilder.append(' ');
+        }
+        stringBuilder.append(digits);
+    }
 }
@@ -1,6 +1,19 @@
 package sg.edu.nus.comp.cs4218.impl.parser;
 
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.END_OF_FIELD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_END_FIELD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_MISSING_ARG;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.KeyField;
 
 /**
  * SortArgsParser is a class to parse the arguments for sort command.
@@ -9,6 +22,35 @@ public class SortArgsParser extends ArgsParser {
     public static final char FLAG_FIRST_NUM = 'n';
     public static final char FLAG_REV_ORDER = 'r';
     public static final char FLAG_CASE_IGNORE = 'f';
+    public static final char FLAG_BUFFER_SIZE = 'S';
+    public static final char FLAG_TEMP_DIR = 'T';
+    public static final char FLAG_KEY = 'k';
+    public static final char FLAG_SEPARATOR = 't';
+    public static final char FLAG_STABLE = 's';
+    public static final char FLAG_MERGE = 'm';
+    public static final char FLAG_CHECK = 'c';
+    public static final char FLAG_CHECK_QUIET = 'C';
+    public static final char FLAG_UNIQUE = 'u';
+    public static final long NO_BUFFER_SIZE = -1;
+    public static final int NO_PARALLELISM = -1;
+    public static final int NO_TOP_COUNT = -1;
+    private static final String OPTION_PARALLEL = "--parallel=";
+    private static final String OPTION_TOP = "--top=";
+    private static final String SIZE_SUFFIXES = "bKMGT";
+    private static final long KIBIBYTE = 1024;
+    private static final int PERCENT = 100;
+    // F[.C][OPTS] for POS1 and POS2 of -k, where OPTS are any of the key options b, f, n and r
+    private static final Pattern KEY_POSITION = Pattern.compile("(\\d+)(?:\\.(\\d+))?([bfnr]*)");
+    private static final String FLAG_VALUE_FLAGS = new String(new char[]{
+        FLAG_BUFFER_SIZE, FLAG_TEMP_DIR, FLAG_KEY, FLAG_SEPARATOR
+    });
+
+    private long bufferSize = NO_BUFFER_SIZE;
+    private String tempDir;
+    private int parallelism = NO_PARALLELISM;
+    private int topCount = NO_TOP_COUNT;
+    private final List<KeyField> keyFields = new ArrayList<>();
+    private int separator = NO_SEPARATOR;
 
     /**
      * Constructor for SortArgsParser. Initializes legal flags for sort command.
@@ -18,6 +60,74 @@ public class SortArgsParser extends ArgsParser {
         legalFlags.add(FLAG_FIRST_NUM);
         legalFlags.add(FLAG_REV_ORDER);
         legalFlags.add(FLAG_CASE_IGNORE);
+        legalFlags.add(FLAG_BUFFER_SIZE);
+        legalFlags.add(FLAG_TEMP_DIR);
+        legalFlags.add(FLAG_KEY);
+        legalFlags.add(FLAG_SEPARATOR);
+        legalFlags.add(FLAG_STABLE);
+        legalFlags.add(FLAG_MERGE);
+        legalFlags.add(FLAG_CHECK);
+        legalFlags.add(FLAG_CHECK_QUIET);
+        legalFlags.add(FLAG_UNIQUE);
+    }
+
+    /**
+     * Separates command flags from non-flag arguments given a tokenized command.
+     * <p>
+     * Assumptions:
+     * - The value of -S, -T, -k or -t is the rest of the same argument if there is any (e.g. -S64M),
+     *   otherwise the next argument (e.g. -S 64M)
+     * - -k can be given more than once, and the keys are compared in the order given
+     * - The number of threads and the number of lines to output are given as single arguments --parallel=N
+     *   and --top=N
+     * - If an option is given more than once, the last value is used
+     *
+     * @param args
+     */
+    @Override
+    public void parse(String... args) throws InvalidArgsException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.length() <= 1 || arg.charAt(0) != CHAR_FLAG_PREFIX) {
+                nonFlagArgs.add(arg);
+                continue;
+            }
+            if (arg.startsWith(OPTION_PARALLEL)) {
+                parallelism = parseNumber(OPTION_PARALLEL, arg.substring(OPTION_PARALLEL.length()), 1);
+                continue;
+            }
+            if (arg.startsWith(OPTION_TOP)) {
+                topCount = parseNumber(OPTION_TOP, arg.substring(OPTION_TOP.length()), 0);
+                continue;
+            }
+            for (int j = 1; j < arg.length(); j++) {
+                char flag = arg.charAt(j);
+                flags.add(flag);
+                if (FLAG_VALUE_FLAGS.indexOf(flag) < 0) {
+                    continue;
+                }
+                String value;
+                if (j + 1 < arg.length()) {
+                    value = arg.substring(j + 1);
+                } else if (i + 1 < args.length) {
+                    value = args[++i];
+                } else {
+                    throw new InvalidArgsException(ERR_MISSING_ARG);
+                }
+                if (flag == FLAG_BUFFER_SIZE) {
+                    bufferSize = parseSize(value);
+                } else if (flag == FLAG_TEMP_DIR) {
+                    tempDir = value;
+                } else if (flag == FLAG_KEY) {
+                    keyFields.add(parseKeyField(value));
+                } else {
+                    separator = parseSeparator(value);
+                }
+                break;
+            }
+        }
+
+        validateArgs();
     }
 
     /**
@@ -47,6 +157,110 @@ public class SortArgsParser extends ArgsParser {
         return flags.contains(FLAG_CASE_IGNORE);
     }
 
+    /**
+     * Checks if stable flag is present in the parsed flags.
+     *
+     * @return true if stable flag is present, false otherwise
+     */
+    public Boolean isStable() {
+        return flags.contains(FLAG_STABLE);
+    }
+
+    /**
+     * Checks if merge flag is present in the parsed flags.
+     *
+     * @return true if merge flag is present, false otherwise
+     */
+    public Boolean isMerge() {
+        return flags.contains(FLAG_MERGE);
+    }
+
+    /**
+     * Checks if the unique flag is present in the parsed flags.
+     *
+     * @return true if -u is present, false otherwise
+     */
+    public Boolean isUnique() {
+        return flags.contains(FLAG_UNIQUE);
+    }
+
+    /**
+     * Checks if either check flag is present in the parsed flags.
+     *
+     * @return true if -c or -C is present, false otherwise
+     */
+    public Boolean isCheck() {
+        return flags.contains(FLAG_CHECK) || flags.contains(FLAG_CHECK_QUIET);
+    }
+
+    /**
+     * Checks if the quiet check flag is present in the parsed flags.
+     *
+     * @return true if -C is present, false otherwise
+     */
+    public Boolean isQuietCheck() {
+        return flags.contains(FLAG_CHECK_QUIET);
+    }
+
+    /**
+     * Returns the keys given with -k in the order given. Keys without options of their own use the -n and -f
+     * options, but not -r, which reverses the whole sorted output instead.
+     *
+     * @return List of keys, which is empty if -k is not given
+     */
+    public List<KeyField> getKeyFields() {
+        List<KeyField> fields = new ArrayList<>();
+        for (KeyField field : keyFields) {
+            fields.add(field.hasOptions() ? field : field.withOptions(isFirstWordNumber(), isCaseIndependent()));
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the field separator given with -t.
+     *
+     * @return the separator, or {@code NO_SEPARATOR} if -t is not given
+     */
+    public int getSeparator() {
+        return separator;
+    }
+
+    /**
+     * Returns the main memory buffer size given with -S in bytes.
+     *
+     * @return the buffer size, or {@code NO_BUFFER_SIZE} if -S is not given
+     */
+    public long getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the directory given with -T for temporary files.
+     *
+     * @return the directory, or null if -T is not given
+     */
+    public String getTempDir() {
+        return tempDir;
+    }
+
+    /**
+     * Returns the maximum number of threads given with --parallel.
+     *
+     * @return the number of threads, or {@code NO_PARALLELISM} if --parallel is not given
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the number of lines given with --top to output from the start of the sorted lines.
+     *
+     * @return the number of lines, or {@code NO_TOP_COUNT} if --top is not given
+     */
+    public int getTopCount() {
+        return topCount;
+    }
+
     /**
      * Returns a list of file names to be sorted.
      * 
@@ -55,4 +269,143 @@ public class SortArgsParser extends ArgsParser {
     public List<String> getFileNames() {
         return nonFlagArgs;
     }
+
+    /**
+     * Converts a size in the format of GNU sort's -S option into bytes.
+     * <p>
+     * Assumptions:
+     * - A number without suffix is in kibibytes
+     * - The suffixes b, K, M, G and T (case-insensitive except for b) multiply by powers of 1024
+     * - A number followed by % is a percentage of the maximum heap size
+     *
+     * @param value the size to convert
+     * @return the size in bytes
+     * @throws InvalidArgsException If the size is not a positive number with a valid suffix
+     */
+    private long parseSize(String value) throws InvalidArgsException {
+        String digits = value;
+        long multiplier = KIBIBYTE;
+        boolean isPercent = false;
+        if (!value.isEmpty() && !Character.isDigit(value.charAt(value.length() - 1))) {
+            char suffix = value.charAt(value.length() - 1);
+            digits = value.substring(0, value.length() - 1);
+            if (suffix == '%') {
+                isPercent = true;
+            } else if (suffix == 'b') {
+                multiplier = 1;
+            } else {
+                int power = SIZE_SUFFIXES.indexOf(String.valueOf(suffix).toUpperCase(Locale.ROOT));
+                if (power <= 0) {
+                    throw new InvalidArgsException(String.format("invalid -S argument '%s'", value));
+                }
+                multiplier = 1L << (10 * power);
+            }
+        }
+
+        long number;
+        try {
+            number = Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            throw new InvalidArgsException(String.format("invalid -S argument '%s'", value), e);
+        }
+        if (number <= 0 || isPercent && number > PERCENT) {
+            throw new InvalidArgsException(String.format("invalid -S argument '%s'", value));
+        }
+        if (isPercent) {
+            return Runtime.getRuntime().maxMemory() / PERCENT * number;
+        }
+        return number > Long.MAX_VALUE / multiplier ? Long.MAX_VALUE : number * multiplier;
+    }
+
+    /**
+     * Converts the value of a long option such as --parallel=N into a number.
+     *
+     * @param option  the option, used in the error message
+     * @param value   the value to convert
+     * @param minimum the smallest valid number
+     * @return the number
+     * @throws InvalidArgsException If the value is not an integer of at least {@code minimum}
+     */
+    private int parseNumber(String option, String value, int minimum) throws InvalidArgsException {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidArgsException(String.format("invalid number after '%s': '%s'", option, value), e);
+        }
+        if (number < minimum) {
+            throw new InvalidArgsException(String.format("invalid number after '%s': '%s'", option, value));
+        }
+        return number;
+    }
+
+    /**
+     * Converts the value of -k, POS1[,POS2] where each POS is F[.C][OPTS], into a key.
+     * <p>
+     * Assumptions:
+     * - F is numbered from 1, and C is numbered from 1 in POS1 and from 0 (the end of the field) in POS2
+     * - The options b, f, n and r apply to the whole key, except for b which only applies to its own POS
+     *
+     * @param value the value to convert
+     * @return the key
+     * @throws InvalidArgsException If the value is not a valid key
+     */
+    private KeyField parseKeyField(String value) throws InvalidArgsException {
+        String[] positions = value.split(",", -1);
+        if (positions.length > 2) {
+            throw new InvalidArgsException(String.format("invalid -k argument '%s'", value));
+        }
+        Matcher start = KEY_POSITION.matcher(positions[0]);
+        Matcher end = positions.length > 1 ? KEY_POSITION.matcher(positions[1]) : null;
+        if (!start.matches() || end != null && !end.matches()) {
+            throw new InvalidArgsException(String.format("invalid -k argument '%s'", value));
+        }
+
+        int startField = parseKeyNumber(start.group(1), value);
+        int startChar = start.group(2) == null ? 1 : parseKeyNumber(start.group(2), value);
+        if (startField == 0 || startChar == 0) {
+            throw new InvalidArgsException(String.format("invalid -k argument '%s'", value));
+        }
+        int endField = NO_END_FIELD;
+        int endChar = END_OF_FIELD;
+        String options = start.group(3);
+        String endOptions = "";
+        if (end != null) {
+            endField = parseKeyNumber(end.group(1), value);
+            endChar = end.group(2) == null ? END_OF_FIELD : parseKeyNumber(end.group(2), value);
+            endOptions = end.group(3);
+            if (endField == 0) {
+                throw new InvalidArgsException(String.format("invalid -k argument '%s'", value));
+            }
+        }
+        String allOptions = options + endOptions;
+        return new KeyField(startField, startChar, options.indexOf('b') >= 0, endField, endChar,
+                endOptions.indexOf('b') >= 0, allOptions.indexOf(FLAG_FIRST_NUM) >= 0,
+                allOptions.indexOf(FLAG_CASE_IGNORE) >= 0, allOptions.indexOf(FLAG_REV_ORDER) >= 0);
+    }
+
+    private int parseKeyNumber(String number, String value) throws InvalidArgsException {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            throw new InvalidArgsException(String.format("invalid -k argument '%s'", value), e);
+        }
+    }
+
+    /**
+     * Converts the value of -t into a field separator.
+     *
+     * @param value the value to convert
+     * @return the separator
+     * @throws InvalidArgsException If the value is not a single character
+     */
+    private int parseSeparator(String value) throws InvalidArgsException {
+        if (value.isEmpty()) {
+            throw new InvalidArgsException("empty tab");
+        }
+        if (value.length() > 1) {
+            throw new InvalidArgsException(String.format("multi-character tab '%s'", value));
+        }
+        return value.charAt(0);
+    }
 }
@@ -1,5 +1,14 @@
 package sg.edu.nus.comp.cs4218.impl.parser;
 
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_MISSING_ARG;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
+
+import java.util.Locale;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineCounter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMatcher;
+
 /**
  * UniqArgsParser is a class to parse the arguments for uniq command.
  */
@@ -7,7 +16,25 @@ public class UniqArgsParser extends ArgsParser {
     public static final char FLAG_COUNT_OCCUR = 'c';
     public static final char FLAG_DUP_GRP = 'd';
     public static final char FLAG_DUPLICATE = 'D';
+    public static final char FLAG_IGNORE_CASE = 'i';
+    public static final char FLAG_SKIP_FIELDS = 'f';
+    public static final char FLAG_SKIP_CHARS = 's';
+    public static final char FLAG_CHECK_CHARS = 'w';
     public static final char NO_IN_FILE = '-';
+    public static final double NO_FALSE_POSITIVE_RATE = 0;
+    private static final String OPTION_GLOBAL = "--global";
+    private static final String OPTION_BLOOM = "--bloom=";
+    private static final String OPTION_COUNT_ALL = "--count-all";
+    private static final String FLAG_VALUE_FLAGS = new String(new char[]{
+        FLAG_SKIP_FIELDS, FLAG_SKIP_CHARS, FLAG_CHECK_CHARS
+    });
+
+    private boolean isGlobal;
+    private double falsePositiveRate = NO_FALSE_POSITIVE_RATE;
+    private LineCounter.Order countAllOrder;
+    private int skipFields;
+    private int skipChars;
+    private int checkChars = LineMatcher.ALL_CHARS;
 
     /**
      * Constructor for UniqArgsParser. Initializes legal flags for uniq command.
@@ -17,6 +44,74 @@ public class UniqArgsParser extends ArgsParser {
         legalFlags.add(FLAG_COUNT_OCCUR);
         legalFlags.add(FLAG_DUP_GRP);
         legalFlags.add(FLAG_DUPLICATE);
+        legalFlags.add(FLAG_IGNORE_CASE);
+        legalFlags.add(FLAG_SKIP_FIELDS);
+        legalFlags.add(FLAG_SKIP_CHARS);
+        legalFlags.add(FLAG_CHECK_CHARS);
+    }
+
+    /**
+     * Separates command flags from non-flag arguments given a tokenized command.
+     * <p>
+     * Assumptions:
+     * - Global deduplication is given as the single argument --global
+     * - The false-positive rate of the Bloom filter is given as the single argument --bloom=P, where P is
+     *   between 0 and 1 exclusive, and implies --global
+     * - Counting every distinct line is given as the single argument --count-all, optionally followed by
+     *   =count or =key to order the lines by count or by line instead of by first occurrence
+     * - The value of -f, -s or -w is the rest of the same argument if there is any (e.g. -f2), otherwise the
+     *   next argument (e.g. -f 2)
+     * - If an option is given more than once, the last value is used
+     *
+     * @param args
+     */
+    @Override
+    public void parse(String... args) throws InvalidArgsException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.length() <= 1 || arg.charAt(0) != CHAR_FLAG_PREFIX) {
+                nonFlagArgs.add(arg);
+                continue;
+            }
+            if (OPTION_GLOBAL.equals(arg)) {
+                isGlobal = true;
+                continue;
+            }
+            if (arg.startsWith(OPTION_BLOOM)) {
+                isGlobal = true;
+                falsePositiveRate = parseRate(arg.substring(OPTION_BLOOM.length()));
+                continue;
+            }
+            if (arg.startsWith(OPTION_COUNT_ALL)) {
+                countAllOrder = parseCountAllOrder(arg);
+                continue;
+            }
+            for (int j = 1; j < arg.length(); j++) {
+                char flag = arg.charAt(j);
+                flags.add(flag);
+                if (FLAG_VALUE_FLAGS.indexOf(flag) < 0) {
+                    continue;
+                }
+                String value;
+                if (j + 1 < arg.length()) {
+                    value = arg.substring(j + 1);
+                } else if (i + 1 < args.length) {
+                    value = args[++i];
+                } else {
+                    throw new InvalidArgsException(ERR_MISSING_ARG);
+                }
+                if (flag == FLAG_SKIP_FIELDS) {
+                    skipFields = parseCount(value, "invalid number of fields to skip");
+                } else if (flag == FLAG_SKIP_CHARS) {
+                    skipChars = parseCount(value, "invalid number of characters to skip");
+                } else {
+                    checkChars = parseCount(value, "invalid number of characters to compare");
+                }
+                break;
+            }
+        }
+
+        validateArgs();
     }
 
     /**
@@ -30,6 +125,78 @@ public class UniqArgsParser extends ArgsParser {
         return flags.contains(FLAG_COUNT_OCCUR);
     }
 
+    /**
+     * Checks if repeated lines are removed wherever they are instead of only when adjacent.
+     *
+     * @return true if --global or --bloom is given, false otherwise
+     */
+    public Boolean isGlobal() {
+        return isGlobal;
+    }
+
+    /**
+     * Returns the false-positive rate given with --bloom for the Bloom filter of global deduplication.
+     *
+     * @return the rate, or {@code NO_FALSE_POSITIVE_RATE} if --bloom is not given
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Checks if every distinct line is counted wherever it is.
+     *
+     * @return true if --count-all is given, false otherwise
+     */
+    public Boolean isCountAll() {
+        return countAllOrder != null;
+    }
+
+    /**
+     * Returns the order given with --count-all to write the counted lines in.
+     *
+     * @return the order, or null if --count-all is not given
+     */
+    public LineCounter.Order getCountAllOrder() {
+        return countAllOrder;
+    }
+
+    /**
+     * Checks if the ignore case flag is present in the parsed flags.
+     *
+     * @return true if the ignore case flag is present, false otherwise
+     */
+    public Boolean isIgnoreCase() {
+        return flags.contains(FLAG_IGNORE_CASE);
+    }
+
+    /**
+     * Returns the number of fields given with -f to skip before comparing lines.
+     *
+     * @return the number of fields, or 0 if -f is not given
+     */
+    public int getSkipFields() {
+        return skipFields;
+    }
+
+    /**
+     * Returns the number of characters given with -s to skip after the fields before comparing lines.
+     *
+     * @return the number of characters, or 0 if -s is not given
+     */
+    public int getSkipChars() {
+        return skipChars;
+    }
+
+    /**
+     * Returns the number of characters given with -w to compare.
+     *
+     * @return the number of characters, or {@code LineMatcher.ALL_CHARS} if -w is not given
+     */
+    public int getCheckChars() {
+        return checkChars;
+    }
+
     public Boolean isPrintDuplicateOncePerGroup() {
         return flags.contains(FLAG_DUP_GRP);
     }
@@ -71,4 +238,63 @@ public class UniqArgsParser extends ArgsParser {
         // Only consider the 2nd non-flag argument as output file, even if more arguments are provided
         return nonFlagArgs.size() >= 2 ? nonFlagArgs.get(1) : null;
     }
+
+    /**
+     * Converts the value of --bloom into a false-positive rate.
+     *
+     * @param value the value to convert
+     * @return the rate
+     * @throws InvalidArgsException If the value is not a number between 0 and 1 exclusive
+     */
+    private double parseRate(String value) throws InvalidArgsException {
+        String message = String.format("invalid number after '%s': '%s'", OPTION_BLOOM, value);
+        double rate;
+        try {
+            rate = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidArgsException(message, e);
+        }
+        if (!(rate > 0 && rate < 1)) {
+            throw new InvalidArgsException(message);
+        }
+        return rate;
+    }
+
+    /**
+     * Converts --count-all, --count-all=count or --count-all=key into the order to write the counted lines in.
+     *
+     * @param arg the argument to convert
+     * @return the order
+     * @throws InvalidArgsException If the argument has any other value
+     */
+    private LineCounter.Order parseCountAllOrder(String arg) throws InvalidArgsException {
+        if (arg.length() == OPTION_COUNT_ALL.length()) {
+            return LineCounter.Order.INPUT;
+        }
+        String value = arg.substring(OPTION_COUNT_ALL.length() + 1);
+        if (arg.charAt(OPTION_COUNT_ALL.length()) == '='
+                && (value.equals("count") || value.equals("key"))) {
+            return LineCounter.Order.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+        throw new InvalidArgsException(String.format("invalid argument '%s'", arg));
+    }
+
+    /**
+     * Converts the value of -f, -s or -w into a count, treating counts too large for an int as the largest int.
+     *
+     * @param value   the value to convert
+     * @param message the error message if the value is invalid
+     * @return the count
+     * @throws InvalidArgsException If the value is not a non-negative integer
+     */
+    private int parseCount(String value, String message) throws InvalidArgsException {
+        if (value.isEmpty() || !value.chars().allMatch(Character::isDigit)) {
+            throw new InvalidArgsException(String.format("%s: '%s'", message, value));
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * ByteLineReader splits an InputStream into lines without decoding them into Strings.
+ * <p>
+ * Each call to {@link #nextLine()} exposes the current line as a slice ({@link #buffer()},
+ * {@link #offset()}, {@link #length()}) over one reusable buffer. The slice is only valid until the
+ * next call to {@link #nextLine()}. Lines are terminated by {@code '\n'}; a {@code '\r'} directly
+ * before the terminator (or at the end of input) is dropped so that CRLF input gives the same lines
+ * as {@link java.io.BufferedReader#readLine()}.
+ */
+public final class ByteLineReader implements Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int EOF = -1;
+
+    private final InputStream input;
+    private byte[] buffer;
+    private int start; // start of data not yet returned as a line
+    private int limit; // end of valid data in buffer
+    private int scanFrom; // bytes before this index (and after start) are known to contain no newline
+    private boolean isEof;
+    private int lineOffset;
+    private int lineLength;
+
+    /**
+     * Constructor for ByteLineReader with the default buffer size.
+     *
+     * @param input InputStream to read lines from
+     */
+    public ByteLineReader(InputStream input) {
+        this(input, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for ByteLineReader. The buffer grows if a single line does not fit in it.
+     *
+     * @param input      InputStream to read lines from
+     * @param bufferSize Initial size of the buffer in bytes
+     */
+    public ByteLineReader(InputStream input, int bufferSize) {
+        if (input == null) {
+            throw new IllegalArgumentException("InputStream must not be null");
+        }
+        this.input = input;
+        this.buffer = new byte[Math.max(bufferSize, Long.BYTES)];
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return true if a line is available, false if the end of the input has been reached
+     * @throws IOException If an I/O error occurs while reading the input
+     */
+    public boolean nextLine() throws IOException {
+        while (true) {
+            int newline = indexOfNewline(buffer, scanFrom, limit);
+            if (newline != EOF) {
+                setLine(start, newline);
+                start = newline + 1;
+                scanFrom = start;
+                return true;
+            }
+            scanFrom = limit;
+
+            if (isEof) {
+                if (start == limit) {
+                    return false;
+                }
+                setLine(start, limit);
+                start = limit;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Returns the buffer holding the current line. The buffer is reused between lines.
+     *
+     * @return Byte array containing the current line
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the index of the first byte of the current line in {@link #buffer()}.
+     *
+     * @return Offset of the current line
+     */
+    public int offset() {
+        return lineOffset;
+    }
+
+    /**
+     * Returns the number of bytes in the current line, excluding the line terminator.
+     *
+     * @return Length of the current line
+     */
+    public int length() {
+        return lineLength;
+    }
+
+    /**
+     * Decodes the current line using the platform default charset.
+     *
+     * @return The current line as a String
+     */
+    public String lineAsString() {
+        return new String(buffer, lineOffset, lineLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Returns the index of the first {@code '\n'} in {@code buf} within [from, to), scanning eight bytes at a
+     * time.
+     *
+     * @param buf  Bytes to search
+     * @param from Index to start searching from (inclusive)
+     * @param to   Index to stop searching at (exclusive)
+     * @return Index of the first newline, or -1 if there is none
+     */
+    public static int indexOfNewline(byte[] buf, int from, int to) {
+        int index = from;
+        for (; index + Long.BYTES <= to; index += Long.BYTES) {
+            long word = (long) LONG_VIEW.get(buf, index) ^ NEWLINES;
+            // Sets the high bit of every byte that was zero; the lowest such byte is always exact.
+            long found = (word - LOW_BITS) & ~word & HIGH_BITS;
+            if (found != 0) {
+                return index + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; index < to; index++) {
+            if (buf[index] == NEWLINE) {
+                return index;
+            }
+        }
+        return EOF;
+    }
+
+    private void setLine(int from, int end) {
+        int lineEnd = end;
+        if (lineEnd > from && buffer[lineEnd - 1] == CARRIAGE_RETURN) {
+            lineEnd--;
+        }
+        lineOffset = from;
+        lineLength = lineEnd - from;
+    }
+
+    /**
+     * Reads more data into the buffer, compacting or growing it first if there is no free space.
+     */
+    private void fill() throws IOException {
+        if (limit == buffer.length) {
+            int pending = limit - start;
+            if (start == 0) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, pending);
+                buffer = larger;
+            } else {
+                System.arraycopy(buffer, start, buffer, 0, pending);
+            }
+            scanFrom -= start;
+            start = 0;
+            limit = pending;
+        }
+
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read == EOF) {
+            isEof = true;
+        } else if (read == 0) {
+            throw new IOException("Underlying input stream returned zero bytes");
+        } else {
+            limit += read;
+        }
+    }
+}
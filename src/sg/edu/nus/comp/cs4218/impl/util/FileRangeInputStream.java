@@ -0,0 +1,56 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * FileRangeInputStream reads a range of a file with positional reads, which leave the position of the
+ * channel unchanged, so that ranges of one channel can be read on several threads at once. Closing the
+ * stream leaves the channel open.
+ */
+public final class FileRangeInputStream extends InputStream {
+    private static final int EOF = -1;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    /**
+     * Constructor for FileRangeInputStream.
+     *
+     * @param channel FileChannel to read from
+     * @param start   Position of the first byte to read
+     * @param end     Position after the last byte to read
+     */
+    public FileRangeInputStream(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == EOF ? EOF : single[0] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (position >= end) {
+            return EOF;
+        }
+        if (length == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position));
+        int read = channel.read(buffer, position);
+        if (read == EOF) {
+            return EOF;
+        }
+        position += read;
+        return read;
+    }
+}
@@ -0,0 +1,346 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * LineWriter is a buffered, line-oriented sink that lets applications write their output as it is produced
+ * instead of building the whole output as a String first.
+ * <p>
+ * Text is encoded with the platform default charset (the same charset used by {@link String#getBytes()})
+ * through one reusable encoder, and numbers are formatted without creating intermediate Strings.
+ * Closing a LineWriter flushes it but does not close the underlying OutputStream, since that stream is
+ * usually owned by the shell.
+ */
+public final class LineWriter implements Closeable, Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private static final byte[] NEWLINE_BYTES = STRING_NEWLINE.getBytes();
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int MAX_LONG_DIGITS = 20;
+    private static final boolean IS_ASCII_COMPATIBLE = isAsciiCompatible(Charset.defaultCharset());
+
+    private final OutputStream output;
+    private final byte[] buffer;
+    private final ByteBuffer bufferView;
+    private final byte[] digits = new byte[MAX_LONG_DIGITS];
+    private final CharsetEncoder encoder;
+    private int count;
+    private boolean hasWritten;
+
+    /**
+     * Constructor for LineWriter with the default buffer size.
+     *
+     * @param output OutputStream to write to
+     */
+    public LineWriter(OutputStream output) {
+        this(output, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for LineWriter.
+     *
+     * @param output     OutputStream to write to
+     * @param bufferSize Size of the buffer in bytes
+     */
+    public LineWriter(OutputStream output, int bufferSize) {
+        if (output == null) {
+            throw new IllegalArgumentException("OutputStream must not be null");
+        }
+        this.output = output;
+        this.buffer = new byte[Math.max(bufferSize, MAX_LONG_DIGITS)];
+        this.bufferView = ByteBuffer.wrap(buffer);
+        this.encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Writes a range of raw bytes.
+     *
+     * @param bytes  Source bytes
+     * @param offset Index of the first byte to write
+     * @param length Number of bytes to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter write(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return this;
+        }
+        if (length >= buffer.length) {
+            flushBuffer();
+            output.write(bytes, offset, length);
+            hasWritten = true;
+            return this;
+        }
+        if (length > buffer.length - count) {
+            flushBuffer();
+        }
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+        return this;
+    }
+
+    /**
+     * Writes the remaining bytes of a ByteBuffer, such as a range of a mapped file, copying them straight into
+     * the buffer of this LineWriter. The position of the ByteBuffer is advanced to its limit.
+     *
+     * @param bytes ByteBuffer holding the bytes to write between its position and its limit
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            int length = Math.min(bytes.remaining(), buffer.length - count);
+            bytes.get(buffer, count, length);
+            count += length;
+        }
+        return this;
+    }
+
+    /**
+     * Writes raw bytes.
+     *
+     * @param bytes Bytes to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter write(byte... bytes) throws IOException {
+        return write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the given text, encoded with the platform default charset.
+     *
+     * @param text Text to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter write(CharSequence text) throws IOException {
+        final int length = text.length();
+        if (length == 0) {
+            return this;
+        }
+        int index = 0;
+        if (IS_ASCII_COMPATIBLE) {
+            for (; index < length; index++) {
+                char chr = text.charAt(index);
+                if (chr >= ASCII_LIMIT) {
+                    break;
+                }
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                buffer[count++] = (byte) chr;
+            }
+        }
+        if (index < length) {
+            encode(CharBuffer.wrap(text, index, length));
+        }
+        return this;
+    }
+
+    /**
+     * Writes a single character, encoded with the platform default charset.
+     *
+     * @param chr Character to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter write(char chr) throws IOException {
+        if (IS_ASCII_COMPATIBLE && chr < ASCII_LIMIT) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) chr;
+            return this;
+        }
+        return write(String.valueOf(chr));
+    }
+
+    /**
+     * Writes the decimal representation of a number.
+     *
+     * @param value Number to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter writeLong(long value) throws IOException {
+        return writeLong(value, 0);
+    }
+
+    /**
+     * Writes the decimal representation of a number, right-aligned with spaces to at least the given width.
+     * This is equivalent to {@code String.format("%<width>d", value)}.
+     *
+     * @param value Number to write
+     * @param width Minimum number of characters to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter writeLong(long value, int width) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return writePadding(width - Long.toString(value).length()).write(Long.toString(value));
+        }
+        final int start = formatDigits(Math.abs(value), digits);
+        final int numDigits = digits.length - start;
+        final int length = value < 0 ? numDigits + 1 : numDigits;
+        writePadding(width - length);
+        if (value < 0) {
+            write('-');
+        }
+        return write(digits, start, numDigits);
+    }
+
+    /**
+     * Writes the platform line separator.
+     *
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter newLine() throws IOException {
+        return write(NEWLINE_BYTES, 0, NEWLINE_BYTES.length);
+    }
+
+    /**
+     * Writes the given text followed by the platform line separator.
+     *
+     * @param line Text to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter writeLine(CharSequence line) throws IOException {
+        return write(line).newLine();
+    }
+
+    /**
+     * Writes a range of raw bytes followed by the platform line separator.
+     *
+     * @param bytes  Source bytes
+     * @param offset Index of the first byte to write
+     * @param length Number of bytes to write
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter writeLine(byte[] bytes, int offset, int length) throws IOException {
+        return write(bytes, offset, length).newLine();
+    }
+
+    /**
+     * Writes the remaining bytes of a ByteBuffer followed by the platform line separator.
+     *
+     * @param bytes ByteBuffer holding the bytes to write between its position and its limit
+     * @return This LineWriter
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    public LineWriter writeLine(ByteBuffer bytes) throws IOException {
+        return write(bytes).newLine();
+    }
+
+    /**
+     * Writes any buffered bytes and flushes the underlying stream.
+     *
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        output.flush();
+    }
+
+    /**
+     * Flushes this LineWriter. The underlying stream is left open.
+     * <p>
+     * If nothing has been written at all, an empty write is still made so that an unusable stream is reported
+     * the same way whether or not there was any output.
+     *
+     * @throws IOException If the underlying stream cannot be written to
+     */
+    @Override
+    public void close() throws IOException {
+        if (!hasWritten && count == 0) {
+            output.write(NO_BYTES);
+            hasWritten = true;
+        }
+        flush();
+    }
+
+    /**
+     * Formats a non-negative number into the end of {@code dest}.
+     *
+     * @param value Non-negative number to format
+     * @param dest  Array to write ASCII digits into
+     * @return Index of the first digit in {@code dest}
+     */
+    private static int formatDigits(long value, byte... dest) {
+        int index = dest.length;
+        long remaining = value;
+        do {
+            long quotient = remaining / 10;
+            dest[--index] = (byte) ('0' + (remaining - quotient * 10));
+            remaining = quotient;
+        } while (remaining != 0);
+        return index;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        byte[] expected = new byte[ASCII_LIMIT];
+        char[] chars = new char[ASCII_LIMIT];
+        for (int i = 0; i < ASCII_LIMIT; i++) {
+            expected[i] = (byte) i;
+            chars[i] = (char) i;
+        }
+        return Arrays.equals(expected, new String(chars).getBytes(charset));
+    }
+
+    private LineWriter writePadding(int width) throws IOException {
+        for (int i = 0; i < width; i++) {
+            write(' ');
+        }
+        return this;
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        encoder.reset();
+        bufferView.clear().position(count);
+        CoderResult result = encoder.encode(chars, bufferView, true);
+        while (result.isOverflow()) {
+            count = bufferView.position();
+            flushBuffer();
+            bufferView.clear();
+            result = encoder.encode(chars, bufferView, true);
+        }
+        result = encoder.flush(bufferView);
+        while (result.isOverflow()) {
+            count = bufferView.position();
+            flushBuffer();
+            bufferView.clear();
+            result = encoder.flush(bufferView);
+        }
+        count = bufferView.position();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            output.write(buffer, 0, count);
+            count = 0;
+            hasWritten = true;
+        }
+    }
+}
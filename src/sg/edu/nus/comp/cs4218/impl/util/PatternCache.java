@@ -0,0 +1,138 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * PatternCache keeps the most recently used compiled regular expressions, so that commands run one after
+ * another with the same pattern, such as grep in a script or the globs of several arguments, compile it once.
+ * <p>
+ * Patterns are keyed by their expression and flags. Once the cache holds {@code capacity} patterns, the least
+ * recently used one is dropped for each new one. Lookups and updates are synchronized, but patterns are
+ * compiled outside the lock, so threads compiling different patterns do not wait for each other. A
+ * {@link Pattern} is immutable, so the same one can be used by several threads at once.
+ * <p>
+ * The numbers of lookups that found a pattern and that had to compile one are counted, to tell how well the
+ * cache works for a session.
+ */
+public final class PatternCache {
+    public static final int DEFAULT_CAPACITY = 256;
+    private static final PatternCache SHARED = new PatternCache(DEFAULT_CAPACITY);
+
+    private final Map<Key, Pattern> patterns;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor for PatternCache.
+     *
+     * @param capacity Maximum number of patterns to keep
+     */
+    public PatternCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.patterns = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all commands of the shell.
+     *
+     * @return the shared PatternCache
+     */
+    public static PatternCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the compiled pattern for a regular expression and flags, compiling it if it is not cached.
+     *
+     * @param regex Regular expression to compile
+     * @param flags Match flags, as for {@link Pattern#compile(String, int)}
+     * @return the compiled Pattern
+     * @throws java.util.regex.PatternSyntaxException If the expression is not valid, in which case nothing
+     *                                                is cached
+     */
+    public Pattern compile(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        synchronized (this) {
+            Pattern pattern = patterns.get(key);
+            if (pattern != null) {
+                hits++;
+                return pattern;
+            }
+            misses++;
+        }
+        Pattern pattern = Pattern.compile(regex, flags);
+        synchronized (this) {
+            Pattern cached = patterns.putIfAbsent(key, pattern);
+            return cached == null ? pattern : cached;
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found the pattern in the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to compile the pattern.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of patterns in the cache.
+     *
+     * @return the number of cached patterns
+     */
+    public synchronized int size() {
+        return patterns.size();
+    }
+
+    /**
+     * A regular expression together with its flags.
+     */
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+
+        private Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(regex, flags);
+        }
+    }
+}
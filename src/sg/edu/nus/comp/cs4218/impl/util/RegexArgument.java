@@ -113,7 +113,7 @@ public final class RegexArgument {
         List<String> globbedFiles = new LinkedList<>();
 
         if (hasAsterisk) {
-            Pattern regexPattern = Pattern.compile(regex.toString());
+            Pattern regexPattern = PatternCache.shared().compile(regex.toString(), 0);
             String dir;
             String[] tokens = plaintext.toString().replaceAll("\\\\", "/").split("/");
             StringBuilder dirBuilder = new StringBuilder();
@@ -146,6 +146,25 @@ public final class RegexArgument {
         return globbedFiles;
     }
 
+    /**
+     * Compiles a glob, in which only an asterisk is special, into a Pattern that matches the whole names
+     * the glob matches.
+     *
+     * @param glob The glob to compile
+     * @return a Pattern for the glob
+     */
+    public static Pattern compileGlob(String glob) {
+        RegexArgument argument = new RegexArgument();
+        for (char c : glob.toCharArray()) {
+            if (c == CHAR_ASTERISK) {
+                argument.appendAsterisk();
+            } else {
+                argument.append(c);
+            }
+        }
+        return PatternCache.shared().compile(argument.regex.toString(), 0);
+    }
+
     /**
      * Returns whether the string is a regex.
      * 
@@ -84,6 +84,16 @@ public final class StringUtils {
         return new String(arr);
     }
 
+    /**
+     * Removes a single trailing line separator, if present.
+     *
+     * @param str String to remove the line separator from
+     * @return str without its final line separator
+     */
+    public static String removeTrailingNewline(String str) {
+        return str.endsWith(STRING_NEWLINE) ? str.substring(0, str.length() - STRING_NEWLINE.length()) : str;
+    }
+
     /**
      * Tokenizes a string delimited by whitespace.
      *
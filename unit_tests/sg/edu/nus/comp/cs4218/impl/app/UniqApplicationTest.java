@@ -1,9 +1,13 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.fail;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,6 +15,7 @@ import java.nio.file.Path;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -98,4 +103,22 @@ class UniqApplicationTest {
             fail(e.getMessage());
         }
     }
+
+    @Test
+    void run_LeadingAndTrailingBlankLines_KeepsBlankLines() {
+        InputStream stdin = new ByteArrayInputStream("\n\na\na\n\n".getBytes());
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        assertDoesNotThrow(() -> app.run(new String[]{"-c"}, stdin, stdout));
+        assertEquals(String.join(STRING_NEWLINE, "2 ", "2 a", "1 ", ""), stdout.toString());
+    }
+
+    @Test
+    void run_AllRepeatedManyDuplicates_WritesEveryDuplicate() {
+        int count = 100_000;
+        String input = "a\n".repeat(count) + "b\n" + "c\n".repeat(2);
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        assertDoesNotThrow(() -> app.run(new String[]{"-D"}, new ByteArrayInputStream(input.getBytes()), stdout));
+        String expected = ("a" + STRING_NEWLINE).repeat(count) + ("c" + STRING_NEWLINE).repeat(2);
+        assertEquals(expected, stdout.toString());
+    }
 }
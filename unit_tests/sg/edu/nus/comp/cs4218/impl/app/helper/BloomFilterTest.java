@@ -0,0 +1,35 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // More than the first filter holds, so that a second filter is started
+    private static final int FINGERPRINT_COUNT = 1_500_000;
+
+    @Test
+    void add_ManyDistinctFingerprints_FalsePositivesWithinRate() {
+        BloomFilter filter = new BloomFilter(FALSE_POSITIVE_RATE);
+        SplittableRandom random = new SplittableRandom(4218);
+        long[] fingerprints = new long[FINGERPRINT_COUNT];
+        int falsePositives = 0;
+        for (int i = 0; i < FINGERPRINT_COUNT; i++) {
+            fingerprints[i] = random.nextLong();
+            if (!filter.add(fingerprints[i])) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives <= FINGERPRINT_COUNT * FALSE_POSITIVE_RATE);
+
+        // Fingerprints already added are always found
+        for (long fingerprint : fingerprints) {
+            assertFalse(filter.add(fingerprint));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sg.edu.nus.comp.cs4218.Environment;
+
+class DirectoryWalkerTest {
+
+    @TempDir
+    Path tempDir;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        Environment.currentDirectory = tempDir.toString();
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void walk_NestedDirectories_ReturnsFilesDepthFirstInNameOrder() throws Exception {
+        List<String> expected = new ArrayList<>();
+        expected.add("file");
+        Files.writeString(tempDir.resolve("file"), "text");
+        for (int i = 0; i < 5; i++) {
+            Path dir = Files.createDirectories(tempDir.resolve("top").resolve("d" + i));
+            Files.writeString(dir.resolve("a"), "text");
+            Files.writeString(Files.createDirectory(dir.resolve("sub")).resolve("f"), "text");
+            Files.writeString(dir.resolve("z"), "text");
+            expected.add("top/d" + i + "/a");
+            expected.add("top/d" + i + "/sub/f");
+            expected.add("top/d" + i + "/z");
+        }
+        expected.add("missing");
+
+        DirectoryWalker walker = new DirectoryWalker(List.of(), List.of(), false);
+
+        assertEquals(expected, toList(walker.walk(pool, "file", "top", "missing")));
+    }
+
+    @Test
+    void walk_IncludeAndExcludeGlobs_ReturnsOnlyMatchingNames() throws Exception {
+        Path dir = Files.createDirectories(tempDir.resolve("dir"));
+        for (String name : new String[]{"a.java", "a.txt", "b.java", "test.java"}) {
+            Files.writeString(dir.resolve(name), "text");
+        }
+
+        DirectoryWalker walker = new DirectoryWalker(List.of("*.java", "*.md"), List.of("t*"), false);
+
+        assertEquals(List.of("dir/a.java", "dir/b.java"), toList(walker.walk(pool, "dir")));
+    }
+
+    @Test
+    void isSearched_FileWithNulByte_IsSkipped() throws Exception {
+        Path text = Files.writeString(tempDir.resolve("text"), "text\n");
+        Path binary = Files.write(tempDir.resolve("binary"), new byte[]{'t', 0, 'x'});
+        DirectoryWalker walker = new DirectoryWalker(List.of(), List.of(), false);
+
+        assertTrue(walker.isSearched("text", text));
+        assertFalse(walker.isSearched("binary", binary));
+    }
+
+    private static List<String> toList(Iterator<String> iterator) {
+        List<String> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
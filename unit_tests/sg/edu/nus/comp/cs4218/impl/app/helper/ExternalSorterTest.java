@@ -0,0 +1,248 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.END_OF_FIELD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+class ExternalSorterTest {
+
+    // Small enough that every few lines are spilled to a run
+    private static final long SMALL_MEMORY_LIMIT = 256;
+    private static final long LARGE_MEMORY_LIMIT = Long.MAX_VALUE;
+    // Large enough to sample the lines before spilling, but small enough to spill the collapsed lines
+    private static final long COLLAPSED_MEMORY_LIMIT = 512 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private static Stream<Arguments> flagCombinations() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (boolean isFirstWordNumber : new boolean[]{false, true}) {
+            for (boolean isReverseOrder : new boolean[]{false, true}) {
+                for (boolean isCaseIndependent : new boolean[]{false, true}) {
+                    arguments.add(Arguments.of(isFirstWordNumber, isReverseOrder, isCaseIndependent));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Returns lines with many duplicates and lines that compare equal under -n or -f, so that the order of equal
+     * lines is checked as well.
+     */
+    private static List<String> randomLines(int count) {
+        String[] words = {"a", "A", "b", "B", "1", "01", "10", "2", "x1", "X1", "1x", "+", "-", "", "é", "日本"};
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(words[random.nextInt(words.length)] + words[random.nextInt(words.length)]);
+        }
+        return lines;
+    }
+
+    private static Stream<Arguments> totalOrders() {
+        List<KeyField> secondField = List.of(new KeyField(2, 1, true, 2, END_OF_FIELD, false, false, false, false));
+        return Stream.of(
+                Arguments.of(new SortOrder(false, false, false)),
+                Arguments.of(new SortOrder(false, true, false)),
+                Arguments.of(new SortOrder(true, false, false, secondField, NO_SEPARATOR, false)),
+                Arguments.of(new SortOrder(false, true, true, secondField, NO_SEPARATOR, false)));
+    }
+
+    private static Stream<Arguments> uniqueOrders() {
+        List<KeyField> secondField = List.of(new KeyField(2, 1, true, 2, END_OF_FIELD, false, false, false, false));
+        List<Arguments> arguments = new ArrayList<>();
+        for (long memoryLimit : new long[]{SMALL_MEMORY_LIMIT, LARGE_MEMORY_LIMIT}) {
+            for (boolean isFirstWordNumber : new boolean[]{false, true}) {
+                for (boolean isReverseOrder : new boolean[]{false, true}) {
+                    for (boolean isCaseIndependent : new boolean[]{false, true}) {
+                        arguments.add(Arguments.of(new SortOrder(isFirstWordNumber, isReverseOrder,
+                                isCaseIndependent, List.of(), NO_SEPARATOR, false, true), memoryLimit));
+                    }
+                    arguments.add(Arguments.of(new SortOrder(isFirstWordNumber, isReverseOrder, false,
+                            secondField, NO_SEPARATOR, false, true), memoryLimit));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Returns lines in which the first {@code SAMPLE_SIZE} lines have few distinct lines, followed by many
+     * distinct lines so that the collapsed lines are spilled to runs.
+     */
+    private static List<String> fewThenManyDistinctLines() {
+        List<String> lines = new ArrayList<>(randomLines(ExternalSorter.SAMPLE_SIZE));
+        for (int i = 0; i < 5000; i++) {
+            lines.add("line " + i);
+        }
+        lines.addAll(randomLines(ExternalSorter.SAMPLE_SIZE));
+        return lines;
+    }
+
+    private static String writeLines(List<String> lines) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            for (String line : lines) {
+                writer.writeLine(line);
+            }
+        }
+        return output.toString();
+    }
+
+    private String sortExternally(List<String> lines, SortOrder order, long memoryLimit,
+                                  boolean isCollapseExpected) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ExternalSorter sorter = new ExternalSorter(order, memoryLimit, tempDir, 1);
+             LineWriter writer = new LineWriter(output)) {
+            for (String line : lines) {
+                sorter.add(line);
+            }
+            assertEquals(isCollapseExpected, sorter.isCollapsingDuplicates());
+            sorter.writeTo(writer);
+        }
+        return output.toString();
+    }
+
+    private String sortExternally(List<String> lines, boolean isFirstWordNumber, boolean isReverseOrder,
+                                  boolean isCaseIndependent, long memoryLimit) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ExternalSorter sorter = new ExternalSorter(isFirstWordNumber, isReverseOrder, isCaseIndependent,
+                memoryLimit, tempDir);
+             LineWriter writer = new LineWriter(output)) {
+            for (String line : lines) {
+                sorter.add(line);
+            }
+            if (memoryLimit == SMALL_MEMORY_LIMIT) {
+                assertTrue(sorter.getRunCount() > ExternalSorter.MAX_MERGE_FAN_IN);
+            }
+            sorter.writeTo(writer);
+        }
+        return output.toString();
+    }
+
+    private String sortInMemory(List<String> lines, boolean isFirstWordNumber, boolean isReverseOrder,
+                                boolean isCaseIndependent) throws IOException {
+        List<String> sorted = new ArrayList<>(lines);
+        sortLines(isFirstWordNumber, isReverseOrder, isCaseIndependent, sorted);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            for (String line : sorted) {
+                writer.writeLine(line);
+            }
+        }
+        return output.toString();
+    }
+
+    @ParameterizedTest
+    @MethodSource("flagCombinations")
+    void writeTo_SpilledRuns_SameOutputAsInMemorySort(boolean isFirstWordNumber, boolean isReverseOrder,
+                                                      boolean isCaseIndependent) {
+        List<String> lines = randomLines(2000);
+        String expected = assertDoesNotThrow(() ->
+                sortInMemory(lines, isFirstWordNumber, isReverseOrder, isCaseIndependent));
+        String actual = assertDoesNotThrow(() ->
+                sortExternally(lines, isFirstWordNumber, isReverseOrder, isCaseIndependent, SMALL_MEMORY_LIMIT));
+        assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("flagCombinations")
+    void writeTo_NoSpilledRuns_SameOutputAsInMemorySort(boolean isFirstWordNumber, boolean isReverseOrder,
+                                                        boolean isCaseIndependent) {
+        List<String> lines = randomLines(200);
+        String expected = assertDoesNotThrow(() ->
+                sortInMemory(lines, isFirstWordNumber, isReverseOrder, isCaseIndependent));
+        String actual = assertDoesNotThrow(() ->
+                sortExternally(lines, isFirstWordNumber, isReverseOrder, isCaseIndependent, LARGE_MEMORY_LIMIT));
+        assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("totalOrders")
+    void writeTo_FewDistinctLines_CollapsesDuplicatesAndSameOutputAsInMemorySort(SortOrder order) {
+        List<String> lines = fewThenManyDistinctLines();
+        List<String> sorted = new ArrayList<>(lines);
+        sortLines(order, sorted, 1);
+        String expected = assertDoesNotThrow(() -> writeLines(sorted));
+        String actual = assertDoesNotThrow(() -> sortExternally(lines, order, COLLAPSED_MEMORY_LIMIT, true));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void writeTo_FewDistinctLinesNumericOrder_DoesNotCollapseDuplicates() {
+        SortOrder order = new SortOrder(true, false, false);
+        List<String> lines = randomLines(2 * ExternalSorter.SAMPLE_SIZE);
+        List<String> sorted = new ArrayList<>(lines);
+        sortLines(order, sorted, 1);
+        String expected = assertDoesNotThrow(() -> writeLines(sorted));
+        String actual = assertDoesNotThrow(() -> sortExternally(lines, order, LARGE_MEMORY_LIMIT, false));
+        assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("uniqueOrders")
+    void writeTo_UniqueOrder_WritesFirstOfEqualLines(SortOrder order, long memoryLimit) {
+        List<String> lines = randomLines(2 * ExternalSorter.SAMPLE_SIZE);
+        String expected = assertDoesNotThrow(() -> writeLines(TopSorterTest.sortUnique(lines, order)));
+        String actual = assertDoesNotThrow(() ->
+                sortExternally(lines, order, memoryLimit, memoryLimit == LARGE_MEMORY_LIMIT));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void writeTo_SpilledRunsStableReverseKeyOrder_KeepsInputOrderOfEqualKeys() {
+        List<KeyField> firstField = List.of(new KeyField(1, 1, false, 1, END_OF_FIELD, false, false, false, false));
+        SortOrder order = new SortOrder(false, true, false, firstField, ',', true);
+        List<String> lines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int key = 2; key >= 0; key--) {
+            for (int i = 0; i < 300; i++) {
+                if (i % 3 == key) {
+                    expected.add(key + "," + i);
+                }
+            }
+        }
+        for (int i = 0; i < 300; i++) {
+            lines.add(i % 3 + "," + i);
+        }
+        String actual = assertDoesNotThrow(() -> sortExternally(lines, order, SMALL_MEMORY_LIMIT, false));
+        assertEquals(assertDoesNotThrow(() -> writeLines(expected)), actual);
+    }
+
+    @Test
+    void close_AfterSpilling_DeletesTemporaryFiles() {
+        assertDoesNotThrow(() -> {
+            try (ExternalSorter sorter = new ExternalSorter(false, false, false, SMALL_MEMORY_LIMIT, tempDir)) {
+                for (String line : randomLines(20)) {
+                    sorter.add(line);
+                }
+                assertTrue(sorter.getRunCount() > 1);
+            }
+        });
+        try (Stream<Path> files = assertDoesNotThrow(() -> Files.list(tempDir))) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class FingerprintSetTest {
+
+    // Enough for a table of 32 fingerprints, which is full at 24
+    private static final long SMALL_MAX_BYTES = 256;
+
+    @Test
+    void add_RandomFingerprints_SameAsHashSet() {
+        FingerprintSet set = new FingerprintSet(Long.MAX_VALUE);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(4218);
+        for (int i = 0; i < 100_000; i++) {
+            // Few distinct values, so that most fingerprints are added more than once
+            long fingerprint = random.nextInt(50_000) * 0x9E3779B97F4A7C15L;
+            assertEquals(expected.add(fingerprint), set.add(fingerprint));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long fingerprint : expected) {
+            assertTrue(set.contains(fingerprint));
+        }
+        assertFalse(set.isFull());
+    }
+
+    @Test
+    void add_ZeroFingerprint_KeptOnce() {
+        FingerprintSet set = new FingerprintSet(Long.MAX_VALUE);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void isFull_MaxBytesReached_FullButStillAddsFingerprints() {
+        FingerprintSet set = new FingerprintSet(SMALL_MAX_BYTES);
+        long fingerprint = 1;
+        while (!set.isFull()) {
+            assertTrue(set.add(fingerprint++));
+        }
+        assertEquals(24, set.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(set.add(fingerprint++));
+        }
+        for (long added = 1; added < fingerprint; added++) {
+            assertTrue(set.contains(added));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GlobalDeduplicatorTest {
+
+    // Small enough that the lines are partitioned, and most partitions are partitioned again
+    private static final long SMALL_MEMORY_LIMIT = 256;
+    private static final long LARGE_MEMORY_LIMIT = Long.MAX_VALUE;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Returns lines with many lines repeated far apart, including empty lines and lines that differ only in
+     * the order or number of their characters.
+     */
+    private static List<String> randomLines(int count) {
+        String[] words = {"a", "b", "ab", "ba", "", " ", "1", "é", "日本"};
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(words[random.nextInt(words.length)] + random.nextInt(count / 4)
+                    + words[random.nextInt(words.length)]);
+        }
+        return lines;
+    }
+
+    private List<String> deduplicate(List<String> lines, long memoryLimit, boolean isPartitionExpected)
+            throws Exception {
+        List<String> kept = new ArrayList<>();
+        Iterator<String> input = lines.iterator();
+        try (GlobalDeduplicator deduplicator = new GlobalDeduplicator(memoryLimit, tempDir)) {
+            deduplicator.deduplicate(() -> input.hasNext() ? input.next() : null, kept::add);
+            assertEquals(isPartitionExpected, deduplicator.getPartitionedCount() > 1);
+        }
+        return kept;
+    }
+
+    @Test
+    void deduplicate_NotPartitioned_FirstOccurrenceOfEveryLine() {
+        List<String> lines = randomLines(10_000);
+        List<String> expected = new ArrayList<>(new LinkedHashSet<>(lines));
+        assertEquals(expected, assertDoesNotThrow(() -> deduplicate(lines, LARGE_MEMORY_LIMIT, false)));
+    }
+
+    @Test
+    void deduplicate_Partitioned_FirstOccurrenceOfEveryLineAndDeletesTemporaryFiles() {
+        List<String> lines = randomLines(10_000);
+        List<String> expected = new ArrayList<>(new LinkedHashSet<>(lines));
+        assertEquals(expected, assertDoesNotThrow(() -> deduplicate(lines, SMALL_MEMORY_LIMIT, true)));
+        try (Stream<Path> files = assertDoesNotThrow(() -> Files.list(tempDir))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void fingerprint_DifferentLines_DifferentFingerprints() {
+        List<String> lines = List.of("", "a", "b", "ab", "ba", "a\u0000", "abcd", "abcda", "\u0000\u0000\u0000\u0000");
+        LinkedHashSet<Long> fingerprints = new LinkedHashSet<>();
+        for (String line : lines) {
+            fingerprints.add(GlobalDeduplicator.fingerprint(line));
+        }
+        assertEquals(lines.size(), fingerprints.size());
+    }
+
+    @Test
+    void fingerprint_SameCharacters_SameFingerprint() {
+        StringBuilder line = new StringBuilder("abcde");
+        assertEquals(GlobalDeduplicator.fingerprint("abcde"), GlobalDeduplicator.fingerprint(line));
+    }
+}
@@ -4,15 +4,20 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static sg.edu.nus.comp.cs4218.impl.app.helper.GrepApplicationHelper.getGrepArguments;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_MISSING_ARG;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.app.GrepApplication;
 
 class GrepApplicationHelperTest {
     private static final String FILE_NAME_ONE = "filenameone";
@@ -110,4 +115,93 @@ class GrepApplicationHelperTest {
         assertArrayEquals(new boolean[]{false, false, false}, new boolean[]{flags[0], flags[1], flags[2]});
         assertArrayEquals(new String[]{I_FLAG, FILE_NAME_ONE, FILE_NAME_TWO}, inputFiles.toArray());
     }
+
+    @Test
+    void getGrepArguments_MaxCountJoinedOrSeparate_SetsMaxCountAndFlags() {
+        GrepOptions joined = new GrepOptions();
+        boolean[] allFlags = new boolean[8];
+        String actual = assertDoesNotThrow(() ->
+                getGrepArguments(new String[]{"-lm12", PATTERN, FILE_NAME_ONE}, allFlags, inputFiles, joined));
+        assertEquals(PATTERN, actual);
+        assertEquals(12, joined.getMaxCount());
+        assertTrue(allFlags[GrepApplication.FILES_WITH_MATCH_IDX]);
+
+        GrepOptions separate = new GrepOptions();
+        actual = assertDoesNotThrow(() ->
+                getGrepArguments(new String[]{"-m", "3", "-q", PATTERN}, allFlags, new ArrayList<>(), separate));
+        assertEquals(PATTERN, actual);
+        assertEquals(3, separate.getMaxCount());
+        assertTrue(allFlags[GrepApplication.QUIET_IDX]);
+    }
+
+    @Test
+    void getGrepArguments_MaxCountWithoutNumber_ThrowsGrepException() {
+        GrepException exception = assertThrowsExactly(GrepException.class, () ->
+                getGrepArguments(new String[]{"-m"}, flags, inputFiles, new GrepOptions()));
+        assertEquals("grep: " + ERR_MISSING_ARG, exception.getMessage());
+    }
+
+    @Test
+    void getGrepArguments_InvalidMaxCount_ThrowsGrepException() {
+        for (String value : new String[]{"x", "-1", "1.5"}) {
+            GrepException exception = assertThrowsExactly(GrepException.class, () ->
+                    getGrepArguments(new String[]{"-m", value, PATTERN}, flags, inputFiles, new GrepOptions()));
+            assertEquals("grep: " + GrepApplication.ERR_INVALID_MAX_COUNT, exception.getMessage());
+        }
+    }
+
+    @Test
+    void getGrepArguments_ChunkSizes_SetsSizesInBytes() {
+        GrepOptions options = new GrepOptions();
+        String[] args = {"--chunk-min-size=2M", "--chunk-size=512", PATTERN, FILE_NAME_ONE};
+        String actual = assertDoesNotThrow(() -> getGrepArguments(args, flags, inputFiles, options));
+
+        assertEquals(PATTERN, actual);
+        assertEquals(2L << 20, options.getMinChunkedSize());
+        assertEquals(512, options.getChunkSize());
+        assertEquals(List.of(FILE_NAME_ONE), inputFiles);
+    }
+
+    @Test
+    void getGrepArguments_NoChunkSizes_UsesDefaultSizes() {
+        GrepOptions options = new GrepOptions();
+        assertDoesNotThrow(() -> getGrepArguments(new String[]{PATTERN}, flags, inputFiles, options));
+
+        assertEquals(FileChunkSearcher.DEFAULT_MIN_FILE_SIZE, options.getMinChunkedSize());
+        assertEquals(FileChunkSearcher.DEFAULT_CHUNK_SIZE, options.getChunkSize());
+    }
+
+    @Test
+    void getGrepArguments_InvalidChunkSize_ThrowsGrepException() {
+        for (String arg : new String[]{"--chunk-size=0", "--chunk-size=", "--chunk-size=8X", "--chunk-min-size=-1",
+            "--chunk-min-size=99999999999G"}) {
+            GrepException exception = assertThrowsExactly(GrepException.class, () ->
+                    getGrepArguments(new String[]{arg, PATTERN}, flags, inputFiles, new GrepOptions()));
+            assertEquals("grep: " + GrepApplication.ERR_INVALID_CHUNK_SIZE, exception.getMessage());
+        }
+    }
+
+    @Test
+    void getGrepArguments_PatternOptions_CollectsPatternsAndTakesAllOtherArgumentsAsFiles() {
+        GrepOptions options = new GrepOptions();
+        String[] args = {"-e", PATTERN, "-ifpatterns.txt", "-eother", FILE_NAME_ONE, FILE_NAME_TWO};
+        String actual = assertDoesNotThrow(() -> getGrepArguments(args, flags, inputFiles, options));
+
+        assertNull(actual);
+        assertEquals(List.of(PATTERN, "other"), options.getPatterns());
+        assertEquals(List.of("patterns.txt"), options.getPatternFiles());
+        assertEquals(List.of(FILE_NAME_ONE, FILE_NAME_TWO), inputFiles);
+        assertTrue(flags[GrepApplication.CASE_INSEN_IDX]);
+    }
+
+    @Test
+    void getGrepArguments_PatternOptionWithoutValue_ThrowsGrepException() {
+        GrepException exception = assertThrowsExactly(GrepException.class, () ->
+                getGrepArguments(new String[]{"-c", "-e"}, flags, inputFiles, new GrepOptions()));
+        assertEquals("grep: " + ERR_MISSING_ARG, exception.getMessage());
+
+        exception = assertThrowsExactly(GrepException.class, () ->
+                getGrepArguments(new String[]{"-f"}, flags, inputFiles, new GrepOptions()));
+        assertEquals("grep: " + ERR_MISSING_ARG, exception.getMessage());
+    }
 }
@@ -0,0 +1,121 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import sg.edu.nus.comp.cs4218.exception.GrepException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepPattern.LineFinder;
+
+class GrepPatternTest {
+
+    private static Stream<Arguments> finds() {
+        return Stream.of(
+                Arguments.of("1\\.2", "version 1.2", true),
+                Arguments.of("1\\.2", "version 102", false),
+                Arguments.of("a\\*b", "a*b", true),
+                Arguments.of("1.2", "version 102", true),
+                Arguments.of("^ver", "version", true)
+        );
+    }
+
+    private static Stream<Arguments> filters() {
+        return Stream.of(
+                // Pattern, text, index of the longest required run
+                Arguments.of("[0-9]+ ERROR", "12 ERROR", 2),
+                Arguments.of("ERR.R code=\\d+", "ERROR code=1", 4),
+                Arguments.of("ab(c|d)*wxyz?", "abwxy", 2),
+                Arguments.of("colou?r", "colour", 0),
+                Arguments.of("a{2}bc\\.d", "aabc.d", 2),
+                Arguments.of("^GET /api", "GET /api", 0)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ERROR", "request_id=abc", "1\\.2", "a\\*b", "x-y z"})
+    void compile_LiteralPattern_ByteSearchable(String pattern) throws GrepException {
+        assertTrue(GrepPattern.compile(pattern, false).isByteSearchable());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ERR.R", "^a", "a|b", "a+", "\\d", "\\1", "[ab]", "a{2}"})
+    void compile_RegexPattern_NotByteSearchable(String pattern) throws GrepException {
+        assertFalse(GrepPattern.compile(pattern, false).isByteSearchable());
+    }
+
+    @ParameterizedTest
+    @MethodSource("finds")
+    void newFinder_Pattern_SameAsRegex(String pattern, String line, boolean expected) throws GrepException {
+        LineFinder finder = GrepPattern.compile(pattern, false).newFinder();
+        assertEquals(expected, finder.find(line));
+    }
+
+    @Test
+    void find_CaseInsensitiveLiteral_MatchesBytes() throws GrepException {
+        GrepPattern pattern = GrepPattern.compile("Error", true);
+        byte[] line = "xx ERROR yy".getBytes();
+        assertTrue(pattern.find(line, 0, line.length));
+        assertFalse(pattern.find(line, 0, 5));
+    }
+
+    @Test
+    void compile_InvalidRegex_ThrowsGrepException() {
+        GrepException thrown = assertThrowsExactly(GrepException.class, () -> GrepPattern.compile("a(", false));
+        assertEquals("grep: Invalid regular expression supplied", thrown.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("filters")
+    void findFilter_RegexWithRequiredLiteral_FindsLiteral(String pattern, String text, int expected)
+            throws GrepException {
+        GrepPattern compiled = GrepPattern.compile(pattern, false);
+        assertTrue(compiled.hasByteFilter());
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes());
+        assertEquals(expected, compiled.findFilter(buffer, 0, buffer.limit()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a|b", "(?i)abc", "\\x41", "a?", "[abc]+", "\\Qa.b\\E", "(ab)", "x{2}"})
+    void hasByteFilter_NoRequiredLiteral_False(String pattern) throws GrepException {
+        assertFalse(GrepPattern.compile(pattern, false).hasByteFilter());
+    }
+
+    @Test
+    void compile_SeveralLiterals_ByteSearchableWithFilter() throws GrepException {
+        GrepPattern pattern = GrepPattern.compile(List.of("WARN", "1\\.2", "ERROR"), true);
+        assertTrue(pattern.isByteSearchable());
+        assertTrue(pattern.hasByteFilter());
+        byte[] line = "version 1.2 error".getBytes();
+        assertTrue(pattern.find(line, 0, line.length));
+        assertFalse(pattern.find(line, 0, 10));
+        ByteBuffer buffer = ByteBuffer.wrap("ok\nwarn\n".getBytes());
+        assertEquals(6, pattern.findFilter(buffer, 0, buffer.limit()));
+    }
+
+    @Test
+    void compile_LiteralsAndRegexes_MatchesAnyKeepingOwnGroups() throws GrepException {
+        GrepPattern pattern = GrepPattern.compile(List.of("ERROR", "(a)\\1", "(b)\\1"), false);
+        assertFalse(pattern.isByteSearchable());
+        LineFinder finder = pattern.newFinder();
+        assertTrue(finder.find("xbbx"));
+        assertTrue(finder.find("ERROR"));
+        assertFalse(finder.find("ab"));
+    }
+
+    @Test
+    void compile_NoPatterns_MatchesNothing() throws GrepException {
+        GrepPattern pattern = GrepPattern.compile(List.of(), false);
+        assertFalse(pattern.newFinder().find("anything"));
+    }
+}
@@ -0,0 +1,84 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.END_OF_FIELD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_END_FIELD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class KeyFieldTest {
+
+    private static final String LINE = "one  two\tthree";
+    private static final String CSV = "a,bb,,ccc";
+
+    private static KeyField field(int startField, int startChar, boolean isStartBlankSkipped, int endField,
+                                  int endChar) {
+        return new KeyField(startField, startChar, isStartBlankSkipped, endField, endChar, false, false, false,
+                false);
+    }
+
+    private static String key(KeyField field, String line, int separator) {
+        int start = field.getStart(line, separator);
+        return line.substring(start, field.getEnd(line, separator, start));
+    }
+
+    private static Stream<Arguments> blankSeparatedKeys() {
+        return Stream.of(
+                Arguments.of(field(1, 1, false, NO_END_FIELD, END_OF_FIELD), LINE),
+                Arguments.of(field(2, 1, false, 2, END_OF_FIELD), "  two"),
+                Arguments.of(field(2, 1, true, 2, END_OF_FIELD), "two"),
+                Arguments.of(field(2, 2, true, 3, END_OF_FIELD), "wo\tthree"),
+                Arguments.of(field(1, 2, false, 1, 2), "n"),
+                Arguments.of(field(3, 1, false, 3, 3), "\tth"),
+                Arguments.of(field(4, 1, false, NO_END_FIELD, END_OF_FIELD), ""),
+                Arguments.of(field(3, 1, false, 1, END_OF_FIELD), "")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("blankSeparatedKeys")
+    void getStartAndGetEnd_NoSeparator_LocatesKey(KeyField field, String expected) {
+        assertEquals(expected, key(field, LINE, NO_SEPARATOR));
+    }
+
+    private static Stream<Arguments> separatedKeys() {
+        return Stream.of(
+                Arguments.of(field(2, 1, false, 2, END_OF_FIELD), "bb"),
+                Arguments.of(field(3, 1, false, 3, END_OF_FIELD), ""),
+                Arguments.of(field(2, 2, false, NO_END_FIELD, END_OF_FIELD), "b,,ccc"),
+                Arguments.of(field(4, 1, false, 9, END_OF_FIELD), "ccc"),
+                Arguments.of(field(5, 1, false, NO_END_FIELD, END_OF_FIELD), "")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("separatedKeys")
+    void getStartAndGetEnd_Separator_LocatesKey(KeyField field, String expected) {
+        assertEquals(expected, key(field, CSV, ','));
+    }
+
+    @Test
+    void getStartAndGetEnd_NumericKeyWithoutBlankSkipped_SkipsLeadingBlanks() {
+        KeyField field = new KeyField(2, 1, false, NO_END_FIELD, END_OF_FIELD, false, true, false, false);
+        assertEquals("10 x", key(field, "a  10 x", NO_SEPARATOR));
+        assertEquals("", key(field, "a  ", NO_SEPARATOR));
+    }
+
+    @Test
+    void withOptions_KeyWithoutOptions_UsesGivenOptions() {
+        KeyField field = field(1, 1, false, NO_END_FIELD, END_OF_FIELD);
+        assertFalse(field.hasOptions());
+        KeyField result = field.withOptions(true, true);
+        assertTrue(result.isFirstWordNumber());
+        assertTrue(result.isCaseIndependent());
+        assertFalse(result.isReverseOrder());
+    }
+}
@@ -0,0 +1,105 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LineCounterTest {
+
+    /**
+     * Returns lines with many repeats, an empty line, lines that are prefixes of other lines, and characters
+     * whose UTF-8 and UTF-16 orders differ.
+     */
+    private static List<String> randomLines(int count) {
+        String[] words = {"a", "b", "ab", "", "1", "10", "é", "日本", "\uE000", "\uFFFD", "\uD83D\uDE00"};
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(words[random.nextInt(words.length)] + words[random.nextInt(words.length)]);
+        }
+        return lines;
+    }
+
+    private static LineCounter count(List<String> lines) {
+        LineCounter counter = new LineCounter();
+        for (String line : lines) {
+            byte[] bytes = ("<" + line + ">").getBytes(StandardCharsets.UTF_8);
+            // The line is passed as a slice of a larger array
+            counter.add(bytes, 1, bytes.length - 2);
+        }
+        return counter;
+    }
+
+    private static List<String> entries(LineCounter counter, LineCounter.Order order) {
+        List<String> entries = new ArrayList<>();
+        assertDoesNotThrow(() -> counter.forEach(order, (bytes, offset, length, count) ->
+                entries.add(count + " " + new String(bytes, offset, length, StandardCharsets.UTF_8))));
+        return entries;
+    }
+
+    private static Map<String, Long> countWithMap(List<String> lines) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String line : lines) {
+            counts.merge(line, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private static List<String> toEntries(List<Map.Entry<String, Long>> counts) {
+        List<String> entries = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counts) {
+            entries.add(entry.getValue() + " " + entry.getKey());
+        }
+        return entries;
+    }
+
+    @Test
+    void forEach_InputOrder_CountsInOrderOfFirstOccurrence() {
+        List<String> lines = randomLines(10_000);
+        LineCounter counter = count(lines);
+        Map<String, Long> expected = countWithMap(lines);
+        assertEquals(expected.size(), counter.size());
+        assertEquals(toEntries(new ArrayList<>(expected.entrySet())), entries(counter, LineCounter.Order.INPUT));
+    }
+
+    @Test
+    void forEach_KeyOrder_SameOrderAsStrings() {
+        List<String> lines = randomLines(10_000);
+        List<Map.Entry<String, Long>> expected = new ArrayList<>(countWithMap(lines).entrySet());
+        expected.sort(Map.Entry.comparingByKey());
+        assertEquals(toEntries(expected), entries(count(lines), LineCounter.Order.KEY));
+    }
+
+    @Test
+    void forEach_CountOrder_AscendingCountThenLine() {
+        List<String> lines = randomLines(10_000);
+        List<Map.Entry<String, Long>> expected = new ArrayList<>(countWithMap(lines).entrySet());
+        expected.sort(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        assertEquals(toEntries(expected), entries(count(lines), LineCounter.Order.COUNT));
+    }
+
+    @Test
+    void add_LinesLongerThanChunk_CountsLongLines() {
+        String longLine = "x".repeat(3 << 20);
+        List<String> lines = List.of(longLine, "a", longLine, longLine + "y", "a");
+        List<String> expected = List.of("2 " + longLine, "2 a", "1 " + longLine + "y");
+        assertEquals(expected, entries(count(lines), LineCounter.Order.INPUT));
+    }
+
+    @Test
+    void forEach_KeyOrderSurrogatesAndPrivateUse_SameOrderAsStrings() {
+        List<String> lines = new ArrayList<>(List.of("\uE000", "\uD83D\uDE00", "\uD7FF", "\uFFFF", "\uD800\uDC00"));
+        List<String> expected = new ArrayList<>();
+        lines.stream().sorted(Comparator.naturalOrder()).forEach(line -> expected.add("1 " + line));
+        assertEquals(expected, entries(count(lines), LineCounter.Order.KEY));
+    }
+}
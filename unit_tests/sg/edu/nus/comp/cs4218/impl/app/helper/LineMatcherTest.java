@@ -0,0 +1,65 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.LineMatcher.ALL_CHARS;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LineMatcherTest {
+
+    private static Stream<Arguments> comparisons() {
+        return Stream.of(
+                // skipFields, skipChars, compareChars, isCaseIgnored, line1, line2, expected
+                Arguments.of(0, 0, ALL_CHARS, true, "Hello World", "hELLO wORLD", true),
+                Arguments.of(0, 0, ALL_CHARS, true, "Hello", "Hello!", false),
+                Arguments.of(1, 0, ALL_CHARS, false, "10:01 started", "10:02 started", true),
+                Arguments.of(1, 0, ALL_CHARS, false, "10:01 started", "10:02 stopped", false),
+                Arguments.of(1, 0, ALL_CHARS, false, "  a\tsame", "b same", false),
+                Arguments.of(1, 0, ALL_CHARS, false, "  a same", "b same", true),
+                Arguments.of(2, 0, ALL_CHARS, false, "a b", "c d", true),
+                Arguments.of(0, 2, ALL_CHARS, false, "x:same", "y:same", true),
+                Arguments.of(0, 10, ALL_CHARS, false, "short", "other", true),
+                Arguments.of(1, 1, ALL_CHARS, false, "a  x", "b yx", false),
+                Arguments.of(1, 2, ALL_CHARS, false, "a xy", "b zy", true),
+                Arguments.of(0, 0, 3, false, "abcdef", "abcxyz", true),
+                Arguments.of(0, 0, 3, false, "ab", "abc", false),
+                Arguments.of(0, 0, 0, false, "anything", "else", true),
+                Arguments.of(1, 3, 3, true, "1 xxABCdef", "2 yyabcDEF", true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("comparisons")
+    void matches_Options_ComparesRegions(int skipFields, int skipChars, int compareChars, boolean isCaseIgnored,
+                                         String line1, String line2, boolean expected) {
+        LineMatcher matcher = new LineMatcher(skipFields, skipChars, compareChars, isCaseIgnored);
+        assertEquals(expected, matcher.matches(line1, line2));
+        assertEquals(expected, matcher.matches(line2, line1));
+    }
+
+    @Test
+    void isWholeLine_NoOptions_True() {
+        assertTrue(new LineMatcher(0, 0, ALL_CHARS, false).isWholeLine());
+    }
+
+    @Test
+    void isWholeLine_AnyOption_False() {
+        assertFalse(new LineMatcher(1, 0, ALL_CHARS, false).isWholeLine());
+        assertFalse(new LineMatcher(0, 1, ALL_CHARS, false).isWholeLine());
+        assertFalse(new LineMatcher(0, 0, 1, false).isWholeLine());
+        assertFalse(new LineMatcher(0, 0, ALL_CHARS, true).isWholeLine());
+    }
+
+    @Test
+    void matches_LargeSkipCounts_NoOverflow() {
+        LineMatcher matcher = new LineMatcher(Integer.MAX_VALUE, Integer.MAX_VALUE, ALL_CHARS, false);
+        assertTrue(matcher.matches("a b c", "d"));
+    }
+}
@@ -0,0 +1,115 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.getLineComparator;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import sg.edu.nus.comp.cs4218.exception.SortException;
+
+class LineMergerTest {
+
+    private static final int INPUT_COUNT = 5;
+
+    private static Stream<Arguments> flagCombinations() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (boolean isFirstWordNumber : new boolean[]{false, true}) {
+            for (boolean isReverseOrder : new boolean[]{false, true}) {
+                for (boolean isCaseIndependent : new boolean[]{false, true}) {
+                    arguments.add(Arguments.of(isFirstWordNumber, isReverseOrder, isCaseIndependent));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    private static List<String> randomLines(Random random, int count) {
+        String[] words = {"a", "A", "b", "B", "1", "01", "10", "2", "x1", "X1", "1x", "+", ""};
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(words[random.nextInt(words.length)] + words[random.nextInt(words.length)]);
+        }
+        return lines;
+    }
+
+    private static BufferedReader reader(List<String> lines) {
+        StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            builder.append(line).append('\n');
+        }
+        return new BufferedReader(new StringReader(builder.toString()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("flagCombinations")
+    void merge_SortedInputs_SameLinesAsSortingConcatenatedInputs(boolean isFirstWordNumber,
+                                                                 boolean isReverseOrder,
+                                                                 boolean isCaseIndependent) {
+        SortOrder order = new SortOrder(isFirstWordNumber, isReverseOrder, isCaseIndependent);
+        Random random = new Random(4218);
+        List<String> concatenated = new ArrayList<>();
+        List<BufferedReader> inputs = new ArrayList<>();
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            List<String> lines = randomLines(random, 100);
+            sortLines(order, lines, 1);
+            concatenated.addAll(lines);
+            inputs.add(reader(lines));
+        }
+        // Equal lines are taken from earlier inputs first, which is the order of a stable sort.
+        Comparator<String> comparator = getLineComparator(order);
+        concatenated.sort(isReverseOrder ? comparator.reversed() : comparator);
+
+        List<String> actual = new ArrayList<>();
+        assertDoesNotThrow(() -> LineMerger.merge(inputs, order, false, actual::add));
+        assertEquals(concatenated, actual);
+    }
+
+    @Test
+    void merge_NoInputs_PassesNoLines() {
+        List<String> actual = new ArrayList<>();
+        assertDoesNotThrow(() -> LineMerger.merge(List.of(), new SortOrder(false, false, false), false,
+                actual::add));
+        assertEquals(List.of(), actual);
+    }
+
+    @Test
+    void merge_LaterInputFirst_TakesEqualLinesFromLaterInputs() {
+        List<String> actual = new ArrayList<>();
+        List<BufferedReader> inputs = List.of(reader(List.of("A", "b")), reader(List.of("a", "B")));
+        assertDoesNotThrow(() -> LineMerger.merge(inputs, new SortOrder(false, false, true), true, actual::add));
+        assertEquals(List.of("a", "A", "B", "b"), actual);
+    }
+
+    @Test
+    void merge_InputFails_ThrowsSortException() {
+        BufferedReader input = new BufferedReader(new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException();
+            }
+
+            @Override
+            public void close() {
+                // Nothing to close
+            }
+        });
+        assertThrowsExactly(SortException.class, () ->
+                LineMerger.merge(List.of(input), new SortOrder(false, false, false), false, line -> { }));
+    }
+}
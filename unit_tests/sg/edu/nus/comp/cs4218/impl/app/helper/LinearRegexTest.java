@@ -0,0 +1,136 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import sg.edu.nus.comp.cs4218.impl.app.helper.GrepPattern.LineFinder;
+
+class LinearRegexTest {
+    private static final String[] ATOMS = {"a", "b", "A", ".", "[ab]", "[^a]", "[a-c]", "[-b]", "\\d", "\\W",
+        "\\.", "^", "$", "\\s"};
+    private static final String TEXT_CHARS = "aAbBc1. -\r\né";
+
+    private static Stream<Arguments> finds() {
+        return Stream.of(
+                Arguments.of("(a+)+b", "aaab", false, true),
+                Arguments.of("^ab$", "ab", false, true),
+                Arguments.of("^ab$", "xab", false, false),
+                Arguments.of("ab$", "ab\r\n", false, true),
+                Arguments.of("ab$", "ab\n\n", false, false),
+                Arguments.of("b$\\s", "ab\r", false, true),
+                Arguments.of("a.c", "a c", false, false),
+                Arguments.of("a.c", "a😀c", false, true),
+                Arguments.of("[^a]x", "Ax", true, false),
+                Arguments.of("[A-C]+", "abc", true, true),
+                Arguments.of("café", "CAFé", true, true),
+                Arguments.of("x{2,3}?y", "xxy", false, true),
+                Arguments.of("(?:ab|cd){2}", "abcd", false, true),
+                Arguments.of("a|", "zzz", false, true),
+                Arguments.of("[\\d-]+z", "1-z", false, true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("finds")
+    void newFinder_SupportedRegex_SameAsPattern(String regex, String line, boolean isCaseInsensitive,
+                                                boolean expected) {
+        LinearRegex linear = LinearRegex.compile(regex, isCaseInsensitive);
+        assertNotNull(linear);
+        assertEquals(expected, linear.newFinder().find(line));
+        Pattern pattern = Pattern.compile(regex, isCaseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+        assertEquals(expected, pattern.matcher(line).find());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"(a)\\1", "a(?=b)", "\\bword", "(?i)a", "a*+", "\\p{L}", "[a&&b]", "[a[b]]",
+        "\\x41", "\\Qa\\E", "(a{500}){500}", "[a-c-e]"})
+    void compile_UnsupportedRegex_ReturnsNull(String regex) {
+        assertNull(LinearRegex.compile(regex, false));
+    }
+
+    @Test
+    void newFinder_NestedQuantifiersOnLongLine_ReturnsWithoutBacktracking() {
+        LineFinder finder = LinearRegex.compile("(a+)+b", false).newFinder();
+        String line = "a".repeat(200_000);
+        assertFalse(finder.find(line));
+        assertTrue(finder.find(line + "b"));
+    }
+
+    @Test
+    void newFinder_MoreStatesThanKept_SameAsPattern() {
+        String regex = "(a|b)*a(a|b){12}";
+        LineFinder finder = LinearRegex.compile(regex, false).newFinder();
+        Pattern pattern = Pattern.compile(regex);
+        Random random = new Random(4218);
+        for (int i = 0; i < 20; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int j = 0; j < 2000; j++) {
+                line.append(random.nextInt(8) == 0 ? 'c' : "ab".charAt(random.nextInt(2)));
+            }
+            assertEquals(pattern.matcher(line).find(), finder.find(line));
+        }
+    }
+
+    @Test
+    void compile_SeveralRegexes_MatchesAny() {
+        LineFinder finder = LinearRegex.compile(List.of("^x+$", "a[0-9]"), false).newFinder();
+        assertTrue(finder.find("xxx"));
+        assertTrue(finder.find("za7"));
+        assertFalse(finder.find("xxa"));
+    }
+
+    @Test
+    void newFinder_RandomRegexAndText_SameAsPattern() {
+        Random random = new Random(4218);
+        for (int i = 0; i < 3000; i++) {
+            String regex = randomRegex(random, 2);
+            boolean isCaseInsensitive = random.nextBoolean();
+            Pattern pattern = Pattern.compile(regex, isCaseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+            LinearRegex linear = LinearRegex.compile(regex, isCaseInsensitive);
+            assertNotNull(linear, regex);
+            LineFinder finder = linear.newFinder();
+            for (int j = 0; j < 5; j++) {
+                String text = randomText(random, random.nextInt(12));
+                assertEquals(pattern.matcher(text).find(), finder.find(text), regex + " in " + text);
+            }
+        }
+    }
+
+    private static String randomRegex(Random random, int depth) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            String atom = depth > 0 && random.nextInt(4) == 0
+                    ? "(" + randomRegex(random, depth - 1) + (random.nextBoolean() ? "|" + randomRegex(random,
+                    depth - 1) : "") + ")"
+                    : ATOMS[random.nextInt(ATOMS.length)];
+            regex.append(atom);
+            boolean isAnchor = "^".equals(atom) || "$".equals(atom);
+            if (!isAnchor) {
+                regex.append(new String[]{"", "", "*", "+", "?", "{1,2}", "*?"}[random.nextInt(7)]);
+            }
+        }
+        return regex.toString();
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(TEXT_CHARS.charAt(random.nextInt(TEXT_CHARS.length())));
+        }
+        return text.toString();
+    }
+}
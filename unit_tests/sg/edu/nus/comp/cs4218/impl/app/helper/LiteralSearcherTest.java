@@ -0,0 +1,88 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LiteralSearcherTest {
+
+    private static Stream<Arguments> occurrences() {
+        return Stream.of(
+                Arguments.of("ERROR", "INFO ok, ERROR: disk full", false, 9),
+                Arguments.of("error", "INFO ok, ERROR: disk full", false, -1),
+                Arguments.of("error", "INFO ok, ERROR: disk full", true, 9),
+                Arguments.of("abcab", "abcaabcab", false, 4),
+                Arguments.of("aaa", "aaaa", false, 0),
+                Arguments.of("full", "disk ful", false, -1),
+                Arguments.of("x", "x", false, 0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("occurrences")
+    void indexOf_Text_FirstOccurrence(String literal, String text, boolean isCaseInsensitive, int expected) {
+        LiteralSearcher searcher = new LiteralSearcher(literal, isCaseInsensitive);
+        assertEquals(expected, searcher.indexOf(text, 0, text.length()));
+        byte[] bytes = text.getBytes();
+        assertEquals(expected, searcher.indexOf(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void indexOf_Range_OnlySearchesRange() {
+        LiteralSearcher searcher = new LiteralSearcher("ab", false);
+        byte[] bytes = "ab-ab-ab".getBytes();
+        assertEquals(3, searcher.indexOf(bytes, 1, 7));
+        assertEquals(-1, searcher.indexOf(bytes, 4, 7));
+        assertEquals(3, searcher.indexOf("ab-ab-ab", 1, 7));
+    }
+
+    @Test
+    void indexOf_RandomText_SameAsPattern() {
+        Random random = new Random(4218);
+        for (int i = 0; i < 2000; i++) {
+            String literal = randomText(random, 1 + random.nextInt(4));
+            String text = randomText(random, random.nextInt(40));
+            boolean isCaseInsensitive = random.nextBoolean();
+            Pattern pattern = Pattern.compile(Pattern.quote(literal), isCaseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+            LiteralSearcher searcher = new LiteralSearcher(literal, isCaseInsensitive);
+            assertEquals(pattern.matcher(text).find(), searcher.contains(text), literal + " in " + text);
+        }
+    }
+
+    @Test
+    void contains_NonAsciiLiteral_SearchesTextOnly() {
+        LiteralSearcher searcher = new LiteralSearcher("Ünïcode", true);
+        assertFalse(searcher.isByteSearchable());
+        assertTrue(searcher.contains("some ÜNïCODE text"));
+        assertFalse(searcher.contains("some üNïCODE text"));
+        // Characters sharing a low byte with a literal character must not be skipped over wrongly
+        LiteralSearcher shared = new LiteralSearcher("Ła", false);
+        assertTrue(shared.contains("AŁa"));
+    }
+
+    @Test
+    void isByteSearchable_AsciiLiteral_True() {
+        assertTrue(new LiteralSearcher("request_id=abc", false).isByteSearchable());
+        LiteralSearcher searcher = new LiteralSearcher("ok", false);
+        byte[] bytes = "café ok".getBytes(StandardCharsets.UTF_8);
+        assertEquals(bytes.length - 2, searcher.indexOf(bytes, 0, bytes.length));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append("aAbB-".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+class MappedFileSearcherTest {
+
+    private static final String[] WORDS = {"ERROR", "error", "code", "=", "4218", " ", " ", "\r", "\n", "\n"};
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ERROR", "error", "code=4", "ERR.R code", "[0-9]+ error", "^code"})
+    void writeMatchingLines_RandomFile_SameAsStream(String pattern) throws Exception {
+        byte[] contents = randomContents(new Random(pattern.hashCode()));
+        Path file = Files.write(tempDir.resolve("input.txt"), contents);
+        for (boolean isCaseInsensitive : new boolean[]{false, true}) {
+            GrepPattern compiled = GrepPattern.compile(pattern, isCaseInsensitive);
+            assertTrue(MappedFileSearcher.isSupported(compiled));
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            long expectedCount;
+            try (LineWriter writer = new LineWriter(expected)) {
+                expectedCount = GrepApplicationHelper.writeMatchingLines(compiled, "p: ",
+                        new ByteArrayInputStream(contents), writer);
+            }
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            long actualCount;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 LineWriter writer = new LineWriter(actual)) {
+                actualCount = MappedFileSearcher.writeMatchingLines(compiled, "p: ", channel, 0, channel.size(),
+                        writer);
+            }
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expectedCount, actualCount);
+        }
+    }
+
+    @Test
+    void writeMatchingLines_CountOnly_CountsRange() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("input.txt"), "a ERROR\nb\nERROR c\nERROR\n");
+        GrepPattern compiled = GrepPattern.compile("ERROR", false);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(3, MappedFileSearcher.writeMatchingLines(compiled, "", channel, 0, channel.size(), null));
+            assertEquals(1, MappedFileSearcher.writeMatchingLines(compiled, "", channel, 8, 18, null));
+        }
+    }
+
+    private static byte[] randomContents(Random random) {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            contents.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return contents.toString().getBytes();
+    }
+}
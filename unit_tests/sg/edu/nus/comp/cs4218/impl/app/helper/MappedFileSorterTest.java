@@ -0,0 +1,165 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+class MappedFileSorterTest {
+
+    // Small enough that the file is mapped in many chunks
+    private static final int SMALL_CHUNK_SIZE = 64;
+
+    @TempDir
+    Path tempDir;
+
+    private static Stream<Arguments> ordersAndChunkSizes() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (int chunkSize : new int[]{SMALL_CHUNK_SIZE, Integer.MAX_VALUE}) {
+            for (boolean isReverseOrder : new boolean[]{false, true}) {
+                for (boolean isUnique : new boolean[]{false, true}) {
+                    arguments.add(Arguments.of(new SortOrder(false, isReverseOrder, false, List.of(), NO_SEPARATOR,
+                            false, isUnique), chunkSize));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Returns lines with duplicates, common prefixes and empty lines. If the default charset is UTF-8, they also
+     * have characters that take two or three bytes, including ones in the private use area, which follows the
+     * surrogates in UTF-16.
+     */
+    private static List<String> randomLines(int count) {
+        String[] words = Charset.defaultCharset().equals(StandardCharsets.UTF_8)
+                ? new String[]{"a", "A", "ab", "b", "1", "10", "2", " ", "", "é", "日本", "\uE000", "\uFFFD", "ß"}
+                : new String[]{"a", "A", "ab", "b", "1", "10", "2", " ", "", "~", "\t"};
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(words[random.nextInt(words.length)] + words[random.nextInt(words.length)]);
+        }
+        return lines;
+    }
+
+    private Path createFile(String content) throws IOException {
+        Path file = tempDir.resolve("input.txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Returns the lines as they are written from a UTF-8 file, whatever the default charset is.
+     */
+    private static String joinLines(List<String> lines) {
+        StringBuilder output = new StringBuilder();
+        for (String line : lines) {
+            output.append(line).append(STRING_NEWLINE);
+        }
+        return output.toString();
+    }
+
+    private static String writeSorted(MappedFileSorter sorter, SortOrder order) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (LineWriter writer = new LineWriter(output)) {
+            sorter.writeTo(writer, order);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @MethodSource("ordersAndChunkSizes")
+    void writeTo_ValidFile_SameOutputAsSortLines(SortOrder order, int chunkSize) {
+        List<String> lines = randomLines(2000);
+        Path file = assertDoesNotThrow(() -> createFile(String.join("\n", lines)));
+        List<String> expected = new ArrayList<>(lines);
+        sortLines(order, expected, 1);
+        List<String> expectedLines = order.isUnique() ? TopSorterTest.sortUnique(lines, order) : expected;
+        String expectedOutput = joinLines(expectedLines);
+
+        MappedFileSorter sorter = assertDoesNotThrow(() -> MappedFileSorter.open(file, 0, chunkSize));
+        assertNotNull(sorter);
+        assertEquals(expectedOutput, assertDoesNotThrow(() -> writeSorted(sorter, order)));
+    }
+
+    @Test
+    void writeTo_LongLinesWithCommonPrefix_SameOutputAsSortLines() {
+        String prefix = "x".repeat(2 * LineWriter.DEFAULT_BUFFER_SIZE);
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder suffix = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                suffix.append(random.nextInt(10) == 0 ? 'a' : 'b');
+            }
+            lines.add(prefix + suffix);
+        }
+        Path file = assertDoesNotThrow(() -> createFile(String.join("\n", lines)));
+        SortOrder order = new SortOrder(false, false, false);
+        List<String> expected = new ArrayList<>(lines);
+        sortLines(order, expected, 1);
+
+        MappedFileSorter sorter = assertDoesNotThrow(() -> MappedFileSorter.open(file, 0, Integer.MAX_VALUE));
+        assertNotNull(sorter);
+        assertEquals(joinLines(expected), assertDoesNotThrow(() -> writeSorted(sorter, order)));
+    }
+
+    @Test
+    void writeTo_EmptyLinesAndTrailingNewline_WritesEmptyLinesFirst() {
+        Path file = assertDoesNotThrow(() -> createFile("b\n\na\n\n"));
+        MappedFileSorter sorter = assertDoesNotThrow(() -> MappedFileSorter.open(file, 0, SMALL_CHUNK_SIZE));
+        assertNotNull(sorter);
+        String expected = String.join(STRING_NEWLINE, "", "", "a", "b") + STRING_NEWLINE;
+        assertEquals(expected, assertDoesNotThrow(() -> writeSorted(sorter, new SortOrder(false, false, false))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a\r\nb\n", "a\n\uD83D\uDE00\n"})
+    void open_LinesNotSortableByBytes_ReturnsNull(String content) {
+        Path file = assertDoesNotThrow(() -> createFile(content));
+        assertNull(assertDoesNotThrow(() -> MappedFileSorter.open(file, 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void open_InvalidUtf8_ReturnsNull() {
+        Path file = tempDir.resolve("input.txt");
+        assertDoesNotThrow(() -> Files.write(file, new byte[]{'a', '\n', (byte) 0xC3, '\n'}));
+        assertNull(assertDoesNotThrow(() -> MappedFileSorter.open(file, 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void open_LineLongerThanChunk_ReturnsNull() {
+        Path file = assertDoesNotThrow(() -> createFile("a".repeat(SMALL_CHUNK_SIZE * 2) + "\nb\n"));
+        assertNull(assertDoesNotThrow(() -> MappedFileSorter.open(file, 0, SMALL_CHUNK_SIZE)));
+    }
+
+    @Test
+    void open_FileSmallerThanMinimumSize_ReturnsNull() {
+        Path file = assertDoesNotThrow(() -> createFile("b\na\n"));
+        assertNull(assertDoesNotThrow(() -> MappedFileSorter.open(file)));
+    }
+}
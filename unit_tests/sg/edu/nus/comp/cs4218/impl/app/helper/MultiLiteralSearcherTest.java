@@ -0,0 +1,97 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class MultiLiteralSearcherTest {
+
+    private static Stream<Arguments> occurrences() {
+        return Stream.of(
+                Arguments.of(List.of("he", "she", "his", "hers"), "ushers", false, 3),
+                Arguments.of(List.of("abcd", "bc"), "xabcd", false, 3),
+                Arguments.of(List.of("ERROR", "WARN"), "INFO ok, warn: disk full", false, -1),
+                Arguments.of(List.of("ERROR", "WARN"), "INFO ok, warn: disk full", true, 12),
+                Arguments.of(List.of("aab", "ab"), "aaab", false, 3),
+                Arguments.of(List.of("x"), "x", false, 0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("occurrences")
+    void indexOf_Text_EndOfFirstOccurrence(List<String> literals, String text, boolean isCaseInsensitive,
+                                           int expected) {
+        MultiLiteralSearcher searcher = new MultiLiteralSearcher(literals, isCaseInsensitive);
+        byte[] bytes = text.getBytes();
+        assertEquals(expected, searcher.indexOf(bytes, 0, bytes.length));
+        assertEquals(expected, searcher.indexOf(ByteBuffer.wrap(bytes), 0, bytes.length));
+        assertEquals(expected >= 0, searcher.contains(text));
+    }
+
+    @Test
+    void indexOf_Range_OnlySearchesRange() {
+        MultiLiteralSearcher searcher = new MultiLiteralSearcher(List.of("ab", "cd"), false);
+        byte[] bytes = "ab-cd-ab".getBytes();
+        assertEquals(4, searcher.indexOf(bytes, 1, 8));
+        assertEquals(-1, searcher.indexOf(bytes, 4, 7));
+    }
+
+    @Test
+    void contains_NonAsciiText_NeverMatchesByLowByte() {
+        MultiLiteralSearcher searcher = new MultiLiteralSearcher(List.of("aA", "ok"), false);
+        // U+0161 and U+0141 share their low bytes with 'a' and 'A'
+        assertFalse(searcher.contains("šŁ"));
+        assertTrue(searcher.contains("café ok"));
+        byte[] bytes = "café ok".getBytes(StandardCharsets.UTF_8);
+        assertEquals(bytes.length - 1, searcher.indexOf(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void isSupported_NonAsciiOrLineBreak_False() {
+        assertTrue(MultiLiteralSearcher.isSupported("request_id=abc"));
+        assertFalse(MultiLiteralSearcher.isSupported("café"));
+        assertFalse(MultiLiteralSearcher.isSupported("a\nb"));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new MultiLiteralSearcher(List.of(""), false));
+    }
+
+    @Test
+    void contains_RandomLiteralsAndText_SameAsPattern() {
+        Random random = new Random(4218);
+        for (int i = 0; i < 2000; i++) {
+            List<String> literals = new ArrayList<>();
+            StringBuilder alternation = new StringBuilder();
+            for (int j = 1 + random.nextInt(6); j > 0; j--) {
+                String literal = randomText(random, 1 + random.nextInt(4));
+                literals.add(literal);
+                alternation.append(alternation.length() == 0 ? "" : "|").append(Pattern.quote(literal));
+            }
+            String text = randomText(random, random.nextInt(40));
+            boolean isCaseInsensitive = random.nextBoolean();
+            Pattern pattern = Pattern.compile(alternation.toString(), isCaseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+            MultiLiteralSearcher searcher = new MultiLiteralSearcher(literals, isCaseInsensitive);
+            assertEquals(pattern.matcher(text).find(), searcher.contains(text), literals + " in " + text);
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append("aAbB-".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+}
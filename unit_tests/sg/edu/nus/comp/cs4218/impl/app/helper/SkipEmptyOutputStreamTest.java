@@ -0,0 +1,55 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sg.edu.nus.comp.cs4218.impl.util.LineWriter;
+
+class SkipEmptyOutputStreamTest {
+
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void setUp() {
+        output = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void write_OnlyEmptyLine_WritesNothing() {
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(new SkipEmptyOutputStream(output))) {
+                writer.writeLine("");
+            }
+        });
+        assertEquals("", output.toString());
+    }
+
+    @Test
+    void write_MoreLinesFollowEmptyLine_WritesAllLines() {
+        assertDoesNotThrow(() -> {
+            try (SkipEmptyOutputStream stream = new SkipEmptyOutputStream(output)) {
+                stream.write(STRING_NEWLINE.getBytes());
+                stream.flush();
+                stream.write(("a" + STRING_NEWLINE).getBytes());
+            }
+        });
+        assertEquals(STRING_NEWLINE + "a" + STRING_NEWLINE, output.toString());
+    }
+
+    @Test
+    void write_EmptyLineAfterOtherOutput_WritesEmptyLine() {
+        assertDoesNotThrow(() -> {
+            try (SkipEmptyOutputStream stream = new SkipEmptyOutputStream(output)) {
+                stream.write('a');
+                stream.write(STRING_NEWLINE.getBytes());
+            }
+        });
+        assertEquals("a" + STRING_NEWLINE, output.toString());
+    }
+}
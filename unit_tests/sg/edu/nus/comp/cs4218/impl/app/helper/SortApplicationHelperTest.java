@@ -0,0 +1,77 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.PARALLEL_THRESHOLD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SortApplicationHelperTest {
+
+    private static final int THREADS = 4;
+
+    private static Stream<Arguments> flagCombinations() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (boolean isFirstWordNumber : new boolean[]{false, true}) {
+            for (boolean isReverseOrder : new boolean[]{false, true}) {
+                for (boolean isCaseIndependent : new boolean[]{false, true}) {
+                    arguments.add(Arguments.of(isFirstWordNumber, isReverseOrder, isCaseIndependent));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Returns lines with many duplicates and lines that compare equal under -n or -f. Each line is a new String
+     * so that the order of equal lines can be checked by identity.
+     */
+    private static List<String> randomLines(int count) {
+        String[] words = {"a", "A", "b", "B", "1", "01", "10", "2", "x1", "X1", "1x", "+", "-", "", "é", "日本"};
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(new String(words[random.nextInt(words.length)] + words[random.nextInt(words.length)]));
+        }
+        return lines;
+    }
+
+    private static void assertSameInstances(List<String> expected, List<String> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i), "Line " + i + " differs");
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("flagCombinations")
+    void sortLines_AboveParallelThreshold_SameOrderAsSingleThread(boolean isFirstWordNumber,
+                                                                  boolean isReverseOrder,
+                                                                  boolean isCaseIndependent) {
+        List<String> expected = randomLines(PARALLEL_THRESHOLD * 2 + 1);
+        List<String> actual = new ArrayList<>(expected);
+        sortLines(isFirstWordNumber, isReverseOrder, isCaseIndependent, expected, 1);
+        sortLines(isFirstWordNumber, isReverseOrder, isCaseIndependent, actual, THREADS);
+        if (isFirstWordNumber || isCaseIndependent) {
+            assertSameInstances(expected, actual);
+        } else {
+            assertEquals(expected, actual); // equal lines are identical, so only their content matters
+        }
+    }
+
+    @Test
+    void sortLines_BelowParallelThreshold_SortsLines() {
+        List<String> lines = new ArrayList<>(List.of("b", "C", "a"));
+        sortLines(false, false, true, lines, THREADS);
+        assertEquals(List.of("a", "b", "C"), lines);
+    }
+}
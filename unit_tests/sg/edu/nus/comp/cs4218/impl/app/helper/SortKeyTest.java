@@ -0,0 +1,57 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SortKeyTest {
+
+    private static int compare(String line1, String line2, boolean isFirstWordNumber, boolean isCaseIndependent) {
+        return Integer.signum(new SortKey(line1, isFirstWordNumber, isCaseIndependent)
+                .compareTo(new SortKey(line2, isFirstWordNumber, isCaseIndependent)));
+    }
+
+    private static Stream<Arguments> firstWordNumberCases() {
+        return Stream.of(
+                Arguments.of("2", "10", -1),
+                Arguments.of("01x", "1x", 0),
+                Arguments.of("1", "a", 1),
+                Arguments.of("10a", "10b", -1),
+                Arguments.of("a 1", "a1", 1), // chunk "a " is longer than chunk "a"
+                Arguments.of("99999999999999999999", "100000000000000000000", -1),
+                Arguments.of("100000000000000000000", "123", 1),
+                Arguments.of("0000000000000000000000007", "7", 0),
+                Arguments.of("", "1", -1),
+                Arguments.of("A", "a", -1) // case-independent sorting does not apply
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("firstWordNumberCases")
+    void compareTo_FirstWordNumber_ComparesFirstChunkThenRest(String line1, String line2, int expected) {
+        assertEquals(expected, compare(line1, line2, true, true));
+        assertEquals(-expected, compare(line2, line1, true, true));
+    }
+
+    @Test
+    void compareTo_CaseIndependent_ComparesLowerCase() {
+        assertEquals(0, compare("ABC", "abc", false, true));
+        assertEquals(-1, compare("a", "B", false, true));
+    }
+
+    @Test
+    void compareTo_NoOptions_ComparesLines() {
+        assertEquals(-1, compare("B", "a", false, false));
+        assertEquals(-1, compare("10", "2", false, false));
+    }
+
+    @Test
+    void getLine_AnyOptions_ReturnsOriginalLine() {
+        assertEquals("Line 1", new SortKey("Line 1", true, true).getLine());
+    }
+}
@@ -0,0 +1,62 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class StringRadixSortTest {
+
+    /**
+     * Returns Strings built from a few words, so that many share long prefixes or are equal.
+     */
+    private static String[] randomStrings(int count) {
+        String[] words = {"", "a", "A", "ab", "2024-01-01 INFO ", "2024-01-01 WARN ", " ", "é", "日本", "😀",
+            "�", "0", "10"};
+        Random random = new Random(4218);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                builder.append(words[random.nextInt(words.length)]);
+            }
+            strings[i] = builder.toString();
+        }
+        return strings;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 16, 17, 1000, 50_000})
+    void sort_RandomStrings_SameOrderAsCompareTo(int count) {
+        String[] expected = randomStrings(count);
+        String[] actual = expected.clone();
+        Arrays.sort(expected);
+        StringRadixSort.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void sort_Range_SortsOnlyRange() {
+        String[] actual = {"d", "c", "b", "a", "0"};
+        StringRadixSort.sort(actual, 1, 4);
+        assertArrayEquals(new String[]{"d", "a", "b", "c", "0"}, actual);
+    }
+
+    @Test
+    void sort_LongCommonPrefix_SortsWithoutOverflowingStack() {
+        String prefix = "x".repeat(100_000);
+        String[] actual = new String[100];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = prefix + (actual.length - i) % 7;
+        }
+        String[] expected = actual.clone();
+        Arrays.sort(expected);
+        StringRadixSort.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+}
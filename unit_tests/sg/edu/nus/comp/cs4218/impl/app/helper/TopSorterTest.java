@@ -0,0 +1,121 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.END_OF_FIELD;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.SortApplicationHelper.sortLines;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class TopSorterTest {
+
+    private static final int LINE_COUNT = 500;
+
+    private static Stream<Arguments> ordersAndLimits() {
+        List<KeyField> secondField = List.of(new KeyField(2, 1, true, 2, END_OF_FIELD, false, false, false, false));
+        List<Arguments> arguments = new ArrayList<>();
+        for (int limit : new int[]{0, 1, 7, LINE_COUNT, LINE_COUNT + 1}) {
+            for (boolean isFirstWordNumber : new boolean[]{false, true}) {
+                for (boolean isReverseOrder : new boolean[]{false, true}) {
+                    for (boolean isCaseIndependent : new boolean[]{false, true}) {
+                        arguments.add(Arguments.of(
+                                new SortOrder(isFirstWordNumber, isReverseOrder, isCaseIndependent), limit));
+                    }
+                }
+                arguments.add(Arguments.of(new SortOrder(isFirstWordNumber, false, false, secondField,
+                        NO_SEPARATOR, true), limit));
+            }
+        }
+        return arguments.stream();
+    }
+
+    private static Stream<Arguments> uniqueOrdersAndLimits() {
+        List<KeyField> secondField = List.of(new KeyField(2, 1, true, 2, END_OF_FIELD, false, false, false, false));
+        List<Arguments> arguments = new ArrayList<>();
+        for (int limit : new int[]{0, 1, 7, LINE_COUNT}) {
+            for (boolean isFirstWordNumber : new boolean[]{false, true}) {
+                for (boolean isReverseOrder : new boolean[]{false, true}) {
+                    for (boolean isCaseIndependent : new boolean[]{false, true}) {
+                        arguments.add(Arguments.of(new SortOrder(isFirstWordNumber, isReverseOrder,
+                                isCaseIndependent, List.of(), NO_SEPARATOR, false, true), limit));
+                    }
+                    arguments.add(Arguments.of(new SortOrder(isFirstWordNumber, isReverseOrder, false,
+                            secondField, NO_SEPARATOR, false, true), limit));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Returns the first of each group of lines that compare equal, in sorted order.
+     */
+    static List<String> sortUnique(List<String> lines, SortOrder order) {
+        List<FieldSortKey> keys = new ArrayList<>();
+        for (String line : lines) {
+            keys.add(new FieldSortKey(line, order));
+        }
+        keys.sort(Comparator.naturalOrder());
+        List<String> unique = new ArrayList<>();
+        FieldSortKey previous = null;
+        for (FieldSortKey key : keys) {
+            if (previous == null || previous.compareTo(key) != 0) {
+                unique.add(key.getLine());
+                previous = key;
+            }
+        }
+        if (order.isReverseOrder()) {
+            Collections.reverse(unique);
+        }
+        return unique;
+    }
+
+    /**
+     * Returns lines with many duplicates and different lines that compare equal under -n, -f or a key field, so
+     * that the order of equal lines is checked as well.
+     */
+    private static List<String> randomLines() {
+        String[] words = {"a", "A", "b", "B", "1", "01", "10", "2", " x", " X", "1x", "+", ""};
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            lines.add(words[random.nextInt(words.length)] + words[random.nextInt(words.length)]);
+        }
+        return lines;
+    }
+
+    @ParameterizedTest
+    @MethodSource("ordersAndLimits")
+    void getLines_AnyOrder_SameLinesAsStartOfSortedLines(SortOrder order, int limit) {
+        List<String> lines = randomLines();
+        TopSorter sorter = new TopSorter(order, limit);
+        for (String line : lines) {
+            sorter.add(line);
+        }
+        sortLines(order, lines, 1);
+        List<String> expected = lines.subList(0, Math.min(limit, lines.size()));
+        assertEquals(expected, sorter.getLines());
+    }
+
+    @ParameterizedTest
+    @MethodSource("uniqueOrdersAndLimits")
+    void getLines_UniqueOrder_SameLinesAsStartOfUniqueSortedLines(SortOrder order, int limit) {
+        List<String> lines = randomLines();
+        TopSorter sorter = new TopSorter(order, limit);
+        for (String line : lines) {
+            sorter.add(line);
+        }
+        List<String> unique = sortUnique(lines, order);
+        List<String> expected = unique.subList(0, Math.min(limit, unique.size()));
+        assertEquals(expected, sorter.getLines());
+    }
+}
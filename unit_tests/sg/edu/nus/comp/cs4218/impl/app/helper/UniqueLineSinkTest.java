@@ -0,0 +1,43 @@
+package sg.edu.nus.comp.cs4218.impl.app.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static sg.edu.nus.comp.cs4218.impl.app.helper.KeyField.NO_SEPARATOR;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class UniqueLineSinkTest {
+
+    private static final SortOrder CASE_INDEPENDENT = new SortOrder(false, false, true, List.of(), NO_SEPARATOR,
+            false, true);
+
+    private List<String> accept(boolean isLastKept, String... lines) {
+        List<String> actual = new ArrayList<>();
+        UniqueLineSink sink = new UniqueLineSink(CASE_INDEPENDENT, isLastKept, actual::add);
+        assertDoesNotThrow(() -> {
+            for (String line : lines) {
+                sink.accept(line);
+            }
+            sink.finish();
+        });
+        return actual;
+    }
+
+    @Test
+    void accept_RunsOfEqualLines_KeepsFirstOfEachRun() {
+        assertEquals(List.of("a", "B", "c"), accept(false, "a", "A", "a", "B", "b", "c"));
+    }
+
+    @Test
+    void accept_RunsOfEqualLinesAndLastKept_KeepsLastOfEachRun() {
+        assertEquals(List.of("a", "b", "c"), accept(true, "a", "A", "a", "B", "b", "c"));
+    }
+
+    @Test
+    void finish_NoLines_PassesNothing() {
+        assertEquals(List.of(), accept(false));
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.KeyField;
 
 class SortArgsParserTest {
 
@@ -224,4 +225,175 @@ class SortArgsParserTest {
         List<String> expected = List.of(FILE_ONE);
         assertEquals(expected, result);
     }
+
+    @ParameterizedTest
+    @MethodSource("validBufferSizes")
+    void getBufferSize_ValidSize_ReturnsSizeInBytes(String size, long expected) {
+        assertDoesNotThrow(() -> parser.parse("-S", size, FILE_ONE));
+        assertEquals(expected, parser.getBufferSize());
+        assertEquals(List.of(FILE_ONE), parser.getFileNames());
+    }
+
+    private static Stream<Arguments> validBufferSizes() {
+        return Stream.of(
+                Arguments.of("10", 10L * 1024),
+                Arguments.of("512b", 512L),
+                Arguments.of("4K", 4L * 1024),
+                Arguments.of("64M", 64L * 1024 * 1024),
+                Arguments.of("2g", 2L * 1024 * 1024 * 1024)
+        );
+    }
+
+    @Test
+    void getBufferSize_SizeAttachedToFlag_ReturnsSizeInBytes() {
+        assertDoesNotThrow(() -> parser.parse("-nS1M", FILE_ONE));
+        assertEquals(1024L * 1024, parser.getBufferSize());
+        assertTrue(parser.isFirstWordNumber());
+        assertEquals(List.of(FILE_ONE), parser.getFileNames());
+    }
+
+    @Test
+    void getBufferSize_NoFlag_ReturnsNoBufferSize() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertEquals(SortArgsParser.NO_BUFFER_SIZE, parser.getBufferSize());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "0", "-1", "abc", "10X", "101%"})
+    void parse_InvalidBufferSize_ThrowsInvalidArgsException(String size) {
+        assertThrowsExactly(InvalidArgsException.class, () -> parser.parse("-S", size));
+    }
+
+    @Test
+    void parse_BufferSizeFlagWithoutValue_ThrowsInvalidArgsException() {
+        assertThrowsExactly(InvalidArgsException.class, () -> parser.parse("-S"));
+    }
+
+    @Test
+    void getTempDir_ValidFlag_ReturnsDirectory() {
+        assertDoesNotThrow(() -> parser.parse("-T", "tmp", FILE_ONE));
+        assertEquals("tmp", parser.getTempDir());
+        assertEquals(List.of(FILE_ONE), parser.getFileNames());
+    }
+
+    @Test
+    void getTempDir_NoFlag_ReturnsNull() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertEquals(null, parser.getTempDir());
+    }
+
+    @Test
+    void getParallelism_ValidOption_ReturnsNumberOfThreads() {
+        assertDoesNotThrow(() -> parser.parse(FLAG_REV_ORDER, "--parallel=4", FILE_ONE));
+        assertEquals(4, parser.getParallelism());
+        assertTrue(parser.isReverseOrder());
+        assertEquals(List.of(FILE_ONE), parser.getFileNames());
+    }
+
+    @Test
+    void getParallelism_NoOption_ReturnsNoParallelism() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertEquals(SortArgsParser.NO_PARALLELISM, parser.getParallelism());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"--parallel=", "--parallel=0", "--parallel=-2", "--parallel=two"})
+    void parse_InvalidParallelism_ThrowsInvalidArgsException(String option) {
+        assertThrowsExactly(InvalidArgsException.class, () -> parser.parse(option));
+    }
+
+    @Test
+    void getKeyFields_KeysWithAndWithoutOptions_OnlyKeysWithoutOptionsUseGlobalOptions() {
+        assertDoesNotThrow(() -> parser.parse("-k", "2,2", "-k3r", FLAG_FIRST_NUM, FILE_ONE));
+        List<KeyField> fields = parser.getKeyFields();
+        assertEquals(2, fields.size());
+        assertTrue(fields.get(0).isFirstWordNumber());
+        assertFalse(fields.get(1).isFirstWordNumber());
+        assertTrue(fields.get(1).isReverseOrder());
+        assertEquals(List.of(FILE_ONE), parser.getFileNames());
+    }
+
+    @Test
+    void getKeyFields_NoFlag_ReturnsEmpty() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertTrue(parser.getKeyFields().isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "0", "1.0", "2,0", "a", "1,2,3", "1x", "1.", "99999999999"})
+    void parse_InvalidKeyField_ThrowsInvalidArgsException(String key) {
+        assertThrowsExactly(InvalidArgsException.class, () -> parser.parse("-k", key));
+    }
+
+    @Test
+    void getSeparator_ValidFlag_ReturnsSeparator() {
+        assertDoesNotThrow(() -> parser.parse("-st:", FILE_ONE));
+        assertEquals(':', parser.getSeparator());
+        assertTrue(parser.isStable());
+    }
+
+    @Test
+    void getSeparator_NoFlag_ReturnsNoSeparator() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertEquals(KeyField.NO_SEPARATOR, parser.getSeparator());
+        assertFalse(parser.isStable());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "::"})
+    void parse_InvalidSeparator_ThrowsInvalidArgsException(String separator) {
+        assertThrowsExactly(InvalidArgsException.class, () -> parser.parse("-t", separator));
+    }
+
+    @Test
+    void getTopCount_ValidOption_ReturnsNumberOfLines() {
+        assertDoesNotThrow(() -> parser.parse("--top=0", FILE_ONE));
+        assertEquals(0, parser.getTopCount());
+        assertEquals(List.of(FILE_ONE), parser.getFileNames());
+    }
+
+    @Test
+    void getTopCount_NoOption_ReturnsNoTopCount() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertEquals(SortArgsParser.NO_TOP_COUNT, parser.getTopCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"--top=", "--top=-1", "--top=ten"})
+    void parse_InvalidTopCount_ThrowsInvalidArgsException(String option) {
+        assertThrowsExactly(InvalidArgsException.class, () -> parser.parse(option));
+    }
+
+    @Test
+    void isMerge_ValidFlag_ReturnsTrue() {
+        assertDoesNotThrow(() -> parser.parse("-mn", FILE_ONE, FILE_TWO));
+        assertTrue(parser.isMerge());
+        assertEquals(List.of(FILE_ONE, FILE_TWO), parser.getFileNames());
+    }
+
+    @Test
+    void isMerge_NoFlag_ReturnsFalse() {
+        assertDoesNotThrow(() -> parser.parse(FILE_ONE));
+        assertFalse(parser.isMerge());
+    }
+
+    @Test
+    void isCheck_CheckFlag_ReturnsTrueAndNotQuiet() {
+        assertDoesNotThrow(() -> parser.parse("-c", FILE_ONE));
+        assertTrue(parser.isCheck());
+        assertFalse(parser.isQuietCheck());
+    }
+
+    @Test
+    void isCheck_QuietCheckFlag_ReturnsTrueAndQuiet() {
+        assertDoesNotThrow(() -> parser.parse("-C", FILE_ONE));
+        assertTrue(parser.isCheck());
+        assertTrue(parser.isQuietCheck());
+    }
+
+    @Test
+    void isUnique_UniqueFlag_ReturnsTrue() {
+        assertDoesNotThrow(() -> parser.parse("-u", FILE_ONE));
+        assertTrue(parser.isUnique());
+    }
 }
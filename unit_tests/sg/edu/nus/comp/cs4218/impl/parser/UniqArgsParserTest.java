@@ -3,22 +3,36 @@ package sg.edu.nus.comp.cs4218.impl.parser;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_MISSING_ARG;
 
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineCounter;
+import sg.edu.nus.comp.cs4218.impl.app.helper.LineMatcher;
 
 class UniqArgsParserTest {
     UniqArgsParser parser;
 
+    private static Stream<Arguments> invalidCounts() {
+        return Stream.of(
+                Arguments.of(new String[]{"-fx"}, "invalid number of fields to skip: 'x'"),
+                Arguments.of(new String[]{"-s", "-1"}, "invalid number of characters to skip: '-1'"),
+                Arguments.of(new String[]{"-w", "1.5"}, "invalid number of characters to compare: '1.5'")
+        );
+    }
+
     private static Stream<Arguments> validFlags() {
         return Stream.of(
                 Arguments.of("-c", new boolean[]{true, false, false}),
@@ -31,6 +45,14 @@ class UniqArgsParserTest {
         );
     }
 
+    private static Stream<Arguments> countAllOrders() {
+        return Stream.of(
+                Arguments.of("--count-all", LineCounter.Order.INPUT),
+                Arguments.of("--count-all=count", LineCounter.Order.COUNT),
+                Arguments.of("--count-all=key", LineCounter.Order.KEY)
+        );
+    }
+
     @BeforeEach
     void setUp() {
         parser = new UniqArgsParser();
@@ -55,4 +77,74 @@ class UniqArgsParserTest {
         String illegalFlag = args.substring(1);
         assertEquals(String.format("illegal option -- %s", illegalFlag), thrown.getMessage());
     }
+
+    @Test
+    void parse_GlobalOption_GlobalWithoutBloomFilter() {
+        assertDoesNotThrow(() -> parser.parse("--global", "-", "output.txt"));
+        assertTrue(parser.isGlobal());
+        assertEquals(UniqArgsParser.NO_FALSE_POSITIVE_RATE, parser.getFalsePositiveRate());
+        assertEquals("output.txt", parser.getOutputFileName());
+    }
+
+    @Test
+    void parse_BloomOption_GlobalWithFalsePositiveRate() {
+        assertDoesNotThrow(() -> parser.parse("--bloom=0.001"));
+        assertTrue(parser.isGlobal());
+        assertEquals(0.001, parser.getFalsePositiveRate());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"--bloom=", "--bloom=0", "--bloom=1", "--bloom=-0.5", "--bloom=NaN", "--bloom=x"})
+    void parse_InvalidFalsePositiveRate_ThrowsInvalidArgsException(String arg) {
+        InvalidArgsException thrown = assertThrowsExactly(InvalidArgsException.class, () -> parser.parse(arg));
+        String value = arg.substring("--bloom=".length());
+        assertEquals(String.format("invalid number after '--bloom=': '%s'", value), thrown.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("countAllOrders")
+    void parse_CountAllOption_CountAllWithOrder(String arg, LineCounter.Order expected) {
+        assertDoesNotThrow(() -> parser.parse(arg));
+        assertTrue(parser.isCountAll());
+        assertEquals(expected, parser.getCountAllOrder());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"--count-all=", "--count-all=size", "--count-allx", "--count-all=COUNT"})
+    void parse_InvalidCountAllOrder_ThrowsInvalidArgsException(String arg) {
+        InvalidArgsException thrown = assertThrowsExactly(InvalidArgsException.class, () -> parser.parse(arg));
+        assertEquals(String.format("invalid argument '%s'", arg), thrown.getMessage());
+    }
+
+    @Test
+    void parse_CompareOptions_ValuesInSameOrNextArgument() {
+        assertDoesNotThrow(() -> parser.parse("-f2", "-s", "3", "-iw1", "input.txt"));
+        assertEquals(2, parser.getSkipFields());
+        assertEquals(3, parser.getSkipChars());
+        assertEquals(1, parser.getCheckChars());
+        assertTrue(parser.isIgnoreCase());
+        assertEquals("input.txt", parser.getInputFileName());
+    }
+
+    @Test
+    void parse_NoCompareOptions_WholeLineCompared() {
+        assertDoesNotThrow(() -> parser.parse("-c"));
+        assertEquals(0, parser.getSkipFields());
+        assertEquals(0, parser.getSkipChars());
+        assertEquals(LineMatcher.ALL_CHARS, parser.getCheckChars());
+        assertFalse(parser.isIgnoreCase());
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidCounts")
+    void parse_InvalidCount_ThrowsInvalidArgsException(String[] args, String expected) {
+        InvalidArgsException thrown = assertThrowsExactly(InvalidArgsException.class, () -> parser.parse(args));
+        assertEquals(expected, thrown.getMessage());
+    }
+
+    @Test
+    void parse_MissingCount_ThrowsInvalidArgsException() {
+        InvalidArgsException thrown = assertThrowsExactly(InvalidArgsException.class, () -> parser.parse("-f"));
+        assertEquals(ERR_MISSING_ARG, thrown.getMessage());
+    }
 }
@@ -0,0 +1,95 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static sg.edu.nus.comp.cs4218.impl.util.ByteLineReader.indexOfNewline;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ByteLineReaderTest {
+
+    private static List<String> readAll(String content, int bufferSize) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (ByteLineReader reader = new ByteLineReader(new ByteArrayInputStream(content.getBytes()), bufferSize)) {
+            while (reader.nextLine()) {
+                lines.add(reader.lineAsString());
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    void constructor_NullInputStream_ThrowsIllegalArgumentException() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ByteLineReader(null));
+    }
+
+    @Test
+    void nextLine_EmptyInput_ReturnsNoLines() {
+        List<String> lines = assertDoesNotThrow(() -> readAll("", ByteLineReader.DEFAULT_BUFFER_SIZE));
+        assertEquals(List.of(), lines);
+    }
+
+    @Test
+    void nextLine_NoTrailingNewline_ReturnsLastLine() {
+        List<String> lines = assertDoesNotThrow(() -> readAll("a\nbc", ByteLineReader.DEFAULT_BUFFER_SIZE));
+        assertEquals(List.of("a", "bc"), lines);
+    }
+
+    @Test
+    void nextLine_TrailingNewline_DoesNotReturnExtraEmptyLine() {
+        List<String> lines = assertDoesNotThrow(() -> readAll("a\n\nb\n", ByteLineReader.DEFAULT_BUFFER_SIZE));
+        assertEquals(List.of("a", "", "b"), lines);
+    }
+
+    @Test
+    void nextLine_CarriageReturnLineFeed_StripsCarriageReturn() {
+        List<String> lines = assertDoesNotThrow(() -> readAll("a\r\nb\r", ByteLineReader.DEFAULT_BUFFER_SIZE));
+        assertEquals(List.of("a", "b"), lines);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 8, 13})
+    void nextLine_LinesLongerThanBuffer_GrowsBufferAndReturnsWholeLines(int bufferSize) {
+        String content = "the quick brown fox\njumps\n\nover the lazy dog";
+        List<String> lines = assertDoesNotThrow(() -> readAll(content, bufferSize));
+        assertEquals(List.of("the quick brown fox", "jumps", "", "over the lazy dog"), lines);
+    }
+
+    @Test
+    void nextLine_MultiByteCharacters_ReturnsSameLinesAsDecodedInput() {
+        String first = "héllo wörld";
+        String second = "日本語";
+        List<String> lines = assertDoesNotThrow(() -> readAll(first + "\n" + second, 4));
+        assertEquals(List.of(new String(first.getBytes()), new String(second.getBytes())), lines);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 8, 9, 15, 16, 30})
+    void indexOfNewline_NewlineAtPosition_ReturnsPosition(int position) {
+        byte[] bytes = new byte[32];
+        bytes[position] = '\n';
+        bytes[31] = '\n';
+        assertEquals(position, indexOfNewline(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void indexOfNewline_NoNewlineInRange_ReturnsMinusOne() {
+        byte[] bytes = "abcdefghij\nk".getBytes();
+        assertEquals(-1, indexOfNewline(bytes, 0, 10));
+        assertEquals(-1, indexOfNewline(bytes, 11, bytes.length));
+    }
+
+    @Test
+    void indexOfNewline_HighBytesBeforeNewline_ReturnsExactPosition() {
+        byte[] bytes = {(byte) 0x8A, 0x0B, (byte) 0xFF, 0x09, 0x01, 0x0A, 0x0A, 0x00};
+        assertEquals(5, indexOfNewline(bytes, 0, bytes.length));
+    }
+}
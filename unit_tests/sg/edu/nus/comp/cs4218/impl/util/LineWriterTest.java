@@ -0,0 +1,118 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LineWriterTest {
+
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void setUp() {
+        output = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void constructor_NullOutputStream_ThrowsIllegalArgumentException() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new LineWriter(null));
+    }
+
+    @Test
+    void writeLine_MultipleLines_WritesLinesWithNewlines() {
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(output)) {
+                writer.writeLine("first").writeLine("").writeLine("third");
+            }
+        });
+        assertEquals("first" + STRING_NEWLINE + STRING_NEWLINE + "third" + STRING_NEWLINE, output.toString());
+    }
+
+    @Test
+    void write_TextLongerThanBuffer_WritesWholeText() {
+        String text = "the quick brown fox jumps over the lazy dog";
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(output, 4)) {
+                writer.write(text).write(text.getBytes(), 4, 5).write('!');
+            }
+        });
+        assertEquals(text + "quick!", output.toString());
+    }
+
+    @Test
+    void write_NonAsciiText_WritesSameBytesAsGetBytes() {
+        String text = "héllo wörld 日本語";
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(output, 5)) {
+                writer.write(text);
+            }
+        });
+        assertEquals(new String(text.getBytes()), output.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 7, -7, 1234567, 12345678, Long.MAX_VALUE, Long.MIN_VALUE})
+    void writeLong_WithWidth_WritesSameAsStringFormat(long value) {
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(output)) {
+                writer.writeLong(value, 7).write('|').writeLong(value);
+            }
+        });
+        assertEquals(String.format("%7d|%d", value, value), output.toString());
+    }
+
+    @Test
+    void writeLine_ByteBufferLongerThanBuffer_WritesRemainingBytes() {
+        ByteBuffer bytes = ByteBuffer.wrap("0123456789abcdefghijklmnopqrstuvwxyz".getBytes());
+        bytes.limit(32).position(3);
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(output, 20)) {
+                writer.write('!').writeLine(bytes);
+            }
+        });
+        assertEquals("!3456789abcdefghijklmnopqrstuv" + STRING_NEWLINE, output.toString());
+        assertEquals(32, bytes.position());
+    }
+
+    @Test
+    void write_BytesLongerThanBuffer_WritesRangeWithoutCopying() {
+        byte[] bytes = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes();
+        int[] range = new int[2];
+        assertDoesNotThrow(() -> {
+            try (LineWriter writer = new LineWriter(new ByteArrayOutputStream() {
+                @Override
+                public void write(byte[] source, int offset, int length) {
+                    assertSame(bytes, source);
+                    range[0] = offset;
+                    range[1] = length;
+                }
+            }, 20)) {
+                writer.write(bytes, 2, 30);
+            }
+        });
+        assertEquals(2, range[0]);
+        assertEquals(30, range[1]);
+    }
+
+    @Test
+    void close_UnderlyingStreamFails_ThrowsIOException() {
+        LineWriter writer = new LineWriter(new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] bytes) throws IOException {
+                throw new IOException();
+            }
+        });
+        assertThrowsExactly(IOException.class, writer::close);
+    }
+}
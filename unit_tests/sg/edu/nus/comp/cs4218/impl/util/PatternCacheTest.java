@@ -0,0 +1,66 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.jupiter.api.Test;
+
+class PatternCacheTest {
+
+    @Test
+    void constructor_NonPositiveCapacity_ThrowsIllegalArgumentException() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new PatternCache(0));
+    }
+
+    @Test
+    void compile_SamePatternAndFlags_ReturnsCachedPatternAndCountsHit() {
+        PatternCache cache = new PatternCache(4);
+
+        Pattern first = cache.compile("a+b", 0);
+        Pattern second = cache.compile("a+b", 0);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void compile_DifferentFlags_CompilesSeparately() {
+        PatternCache cache = new PatternCache(4);
+
+        Pattern sensitive = cache.compile("ab", 0);
+        Pattern insensitive = cache.compile("ab", Pattern.CASE_INSENSITIVE);
+
+        assertNotSame(sensitive, insensitive);
+        assertEquals(Pattern.CASE_INSENSITIVE, insensitive.flags());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void compile_MoreThanCapacity_DropsLeastRecentlyUsed() {
+        PatternCache cache = new PatternCache(2);
+        Pattern first = cache.compile("a", 0);
+        cache.compile("b", 0);
+        cache.compile("a", 0);
+        cache.compile("c", 0);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.compile("a", 0));
+        cache.compile("b", 0);
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void compile_InvalidPattern_ThrowsAndCachesNothing() {
+        PatternCache cache = new PatternCache(2);
+
+        assertThrowsExactly(PatternSyntaxException.class, () -> cache.compile("(a", 0));
+        assertEquals(0, cache.size());
+    }
+}